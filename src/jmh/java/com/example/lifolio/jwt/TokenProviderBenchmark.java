@@ -0,0 +1,50 @@
+package com.example.lifolio.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 1건당 access token 검증 비용 비교
+ * legacy : 문자열 secret 으로 매번 파서 생성 + 검증 2회 (validateToken, getAuthentication)
+ * prebuilt : 미리 만든 파서로 검증 1회
+ * cached : 최근 검증한 토큰 (다이제스트 캐시 hit)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenProviderBenchmark {
+
+    private static final String SECRET = "bGlmb2xpby1iZW5jaG1hcmstYWNjZXNzLXNlY3JldC1rZXktMDEyMzQ1Njc4OWFiY2RlZg==";
+    private static final String REFRESH_SECRET = "bGlmb2xpby1iZW5jaG1hcmstcmVmcmVzaC1zZWNyZXQta2V5LTAxMjM0NTY3ODlhYmNkZWY=";
+
+    private TokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new TokenProvider(SECRET, REFRESH_SECRET, null, null, null, 1800, 1209600);
+        tokenProvider.afterPropertiesSet();
+        token = tokenProvider.createToken(1L);
+        tokenProvider.getClaims(token);
+    }
+
+    @Benchmark
+    public Long legacy() {
+        Claims claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+        Claims again = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+        return claims.get("userId", Long.class) + again.get("userId", Long.class);
+    }
+
+    @Benchmark
+    public Long prebuilt() {
+        return tokenProvider.parseClaims(token).get("userId", Long.class);
+    }
+
+    @Benchmark
+    public Long cached() {
+        return tokenProvider.getClaims(token).get("userId", Long.class);
+    }
+}
@@ -76,6 +76,16 @@ public enum     BaseResponseStatus {
 
     NOT_CORRECT_PASSWORD_FORM(false, 2035, "비밀번호는 영문과 특수문자 숫자를 포함하며 8자 이상이어야 합니다."),
 
+    TOO_MANY_SMS_REQUESTS(false, 2036, "인증번호 요청이 너무 많습니다. 잠시 후 다시 시도해주세요."),
+
+    INVALID_SMS_CODE(false, 2037, "인증번호가 일치하지 않습니다."),
+
+    EXPIRED_SMS_CODE(false, 2038, "인증번호가 만료되었습니다. 다시 요청해주세요."),
+
+    UNVERIFIED_PHONE(false, 2067, "휴대폰 인증이 필요합니다. 인증번호 확인부터 다시 진행해주세요."),
+
+    TOO_MANY_REQUESTS(false, 2039, "요청이 너무 많습니다. 잠시 후 다시 시도해주세요."),
+
     //Planning
 
     NOT_POST_TITLE(false,2040,"제목을 입력해주세요"),
@@ -96,6 +106,24 @@ public enum     BaseResponseStatus {
     NOT_EXIST_CATEGORY(false, 2053, "존재하지 않는 대분류 카테고리입니다."),
     NOT_EXIST_SUBCATEGORY(false, 2054, "존재하지 않는 소분류 카테고리입니다."),
 
+    //Alarm
+
+    INVALID_DIGEST_TIME(false, 2060, "알림 시간은 HH:mm 형식으로 입력해주세요."),
+    INVALID_TIME_ZONE(false, 2061, "지원하지 않는 시간대입니다."),
+
+    //Graph
+    INVALID_GRAPH_RANGE(false, 2062, "조회 기간은 yyyy-MM-dd 형식으로, 시작일이 종료일보다 앞서야 합니다."),
+    INVALID_GRAPH_OPTION(false, 2063, "지원하지 않는 그래프 단위 또는 집계 방식입니다."),
+
+    //MyFolio 모아보기
+    INVALID_CURSOR(false, 2064, "잘못된 페이지 정보입니다. 첫 페이지부터 다시 조회해주세요."),
+
+    //MyFolio 캘린더
+    INVALID_CALENDAR_MONTH(false, 2065, "조회할 달은 yyyy-MM 형식으로 입력해주세요."),
+
+    //MyFolio 생성
+    INVALID_FOLIO_DATE(false, 2066, "날짜는 1900-01-01 부터 2099-12-31 사이로 입력해주세요."),
+
 
 
 
@@ -119,6 +147,10 @@ public enum     BaseResponseStatus {
 
     SERVER_ERROR(false, 4001, "서버와의 연결에 실패하였습니다."),
 
+    SERVER_BUSY(false, 4002, "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요."),
+
+    OAUTH_SERVER_ERROR(false, 4003, "소셜 로그인 서버와의 연결에 실패하였습니다."),
+
     MODIFY_FAIL_USERNAME(false,4014,"유저네임 수정 실패"),
 
     PASSWORD_ENCRYPTION_ERROR(false, 4011, "비밀번호 암호화에 실패하였습니다."),
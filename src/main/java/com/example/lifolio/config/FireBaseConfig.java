@@ -1,5 +1,6 @@
 package com.example.lifolio.config;
 
+import com.example.lifolio.service.FcmTokenPruner;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
@@ -30,6 +31,12 @@ public class FireBaseConfig {
 
     private final Logger logger = LoggerFactory.getLogger(FireBaseConfig.class);
 
+    private final FcmTokenPruner fcmTokenPruner;
+
+    public FireBaseConfig(FcmTokenPruner fcmTokenPruner) {
+        this.fcmTokenPruner = fcmTokenPruner;
+    }
+
     @PostConstruct
     public void init() {
         try {
@@ -74,6 +81,8 @@ public class FireBaseConfig {
                 for (int i = 0; i < responses.size(); i++) {
                     if (!responses.get(i).isSuccessful()) {
                         failedTokens.add(tokenList.get(i));
+                        //만료된 토큰은 모아서 한 번에 정리
+                        fcmTokenPruner.report(tokenList.get(i), FcmTokenPruner.classify(responses.get(i).getException()));
                     }
                 }
                 log.error("List of tokens are not valid FCM token : " + failedTokens);
@@ -0,0 +1,18 @@
+package com.example.lifolio.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//actuator 없이 쓰는 지표 저장소 (actuator 를 붙이면 그쪽 MeterRegistry 를 사용)
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
@@ -4,7 +4,11 @@ import com.example.lifolio.jwt.JwtAccessDeniedHandler;
 import com.example.lifolio.jwt.JwtAuthenticationEntryPoint;
 import com.example.lifolio.jwt.JwtSecurityConfig;
 import com.example.lifolio.jwt.TokenProvider;
+import com.example.lifolio.ratelimit.ClientIpResolver;
+import com.example.lifolio.ratelimit.RateLimiter;
+import com.example.lifolio.service.DataVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -13,8 +17,12 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.HashMap;
+import java.util.Map;
+
 
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(prePostEnabled = true)
@@ -23,11 +31,25 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     private final TokenProvider tokenProvider;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAccessDeniedHandler jwtAccessDeniedHandler;
+    private final RateLimiter rateLimiter;
+    private final ClientIpResolver clientIpResolver;
+    private final DataVersionService dataVersionService;
+
+    //BCrypt cost (올리면 로그인 성공 시 새 cost 로 재해싱됨)
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
 
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bCryptPasswordEncoder);
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("bcrypt", encoders);
+        //{bcrypt} 접두어 없이 저장된 기존 비밀번호도 검증
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bCryptPasswordEncoder);
+        return passwordEncoder;
     }
 
     @Override
@@ -90,7 +112,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .anyRequest().authenticated()
 
                 .and()
-                .apply(new JwtSecurityConfig(tokenProvider));
+                .apply(new JwtSecurityConfig(tokenProvider, rateLimiter, clientIpResolver, dataVersionService));
 
     }
 }
@@ -1,6 +1,7 @@
 package com.example.lifolio.controller;
 
 
+import com.example.lifolio.base.BaseException;
 import com.example.lifolio.base.BaseResponse;
 import com.example.lifolio.dto.alarm.AlarmReq;
 import com.example.lifolio.dto.user.UserRes;
@@ -28,11 +29,17 @@ public class AlarmController {
             return new BaseResponse<>(alarmList);
     }
 
+    @ResponseBody
+    @PatchMapping("")
+    public BaseResponse<String> patchAlarm(@AuthenticationPrincipal User user,@RequestBody AlarmReq.AlarmPatchReq alarmPatchReq){
+            alarmService.patchAlarm(user.getId(),alarmPatchReq);
+            return new BaseResponse<>("수정 성공.");
+    }
+
     @ResponseBody
     @PatchMapping("/allAlarm")
     public BaseResponse<String> updateAllAlarm(@AuthenticationPrincipal User user,@RequestBody AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq){
             Long userId=user.getId();
-            System.out.println(userId);
             alarmService.setAllAlarm(userId,allAlarmUpdateReq);
             return new BaseResponse<>("수정 성공.");
     }
@@ -123,4 +130,15 @@ public class AlarmController {
             alarmService.setMarketingAlarm(userId,allAlarmUpdateReq);
             return new BaseResponse<>("수정 성공.");
     }
+
+    @ResponseBody
+    @PatchMapping("/digestTime")
+    public BaseResponse<String> updateDigestTime(@AuthenticationPrincipal User user,@RequestBody AlarmReq.DigestTimeReq digestTimeReq){
+        try {
+            alarmService.setDigestTime(user.getId(),digestTimeReq);
+            return new BaseResponse<>("수정 성공.");
+        }catch (BaseException e){
+            return new BaseResponse<>(e.getStatus());
+        }
+    }
 }
@@ -15,10 +15,13 @@ public class AuthController {
     private final AuthService authService;
 
     @GetMapping("/kakao")
-    public BaseResponse<String> getAccessTokenKakao(@RequestParam String code) throws BaseException {
-        String accessToken=authService.getKakaoAccessToken(code);
-        System.out.println(accessToken);
-        return new BaseResponse<>(accessToken);
+    public BaseResponse<String> getAccessTokenKakao(@RequestParam String code) {
+        try {
+            String accessToken=authService.getKakaoAccessToken(code);
+            return new BaseResponse<>(accessToken);
+        }catch(BaseException e){
+            return new BaseResponse<>(e.getStatus());
+        }
     }
 
     @ResponseBody
@@ -33,10 +36,13 @@ public class AuthController {
     }
 
     @GetMapping("/naver")
-    public BaseResponse<String> getAccessTokenNaver(@RequestParam String code) throws BaseException {
-        String accessToken=authService.getNaverAccessToken(code);
-        System.out.println(accessToken);
-        return new BaseResponse<>(accessToken);
+    public BaseResponse<String> getAccessTokenNaver(@RequestParam String code) {
+        try {
+            String accessToken=authService.getNaverAccessToken(code);
+            return new BaseResponse<>(accessToken);
+        }catch(BaseException e){
+            return new BaseResponse<>(e.getStatus());
+        }
     }
 
     @ResponseBody
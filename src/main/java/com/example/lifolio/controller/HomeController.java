@@ -46,6 +46,23 @@ public class HomeController {
             return new BaseResponse<>(graphInfo);
     }
 
+    @ResponseBody
+    @GetMapping("/graph/{userId}/{customId}/series")
+    public BaseResponse<List<HomeRes.GraphPoint>> getGraphSeries(@AuthenticationPrincipal User user, @PathVariable("userId") Long userId, @PathVariable("customId") Long customId,
+                                                                 @RequestParam(required = false) String from,
+                                                                 @RequestParam(required = false) String to,
+                                                                 @RequestParam(required = false) String granularity,
+                                                                 @RequestParam(required = false) String aggregation){
+        if(!userId.equals(user.getId())){
+            return new BaseResponse<>(INVALID_USER_JWT);
+        }
+        try {
+            return new BaseResponse<>(homeService.getGraphSeries(userId, customId, from, to, granularity, aggregation));
+        } catch (BaseException e) {
+            return new BaseResponse<>(e.getStatus());
+        }
+    }
+
     @ResponseBody
     @PostMapping("/custom")
     public BaseResponse<String> postCustomFolio(@AuthenticationPrincipal User user,@RequestBody HomeReq.CustomUpdateReq customUpdateReq){
@@ -15,6 +15,7 @@ import com.example.lifolio.repository.MyFolioRepository;
 import com.example.lifolio.service.MyService;
 import com.example.lifolio.service.S3Service;
 import com.example.lifolio.service.UserService;
+import com.example.lifolio.util.DaySeries;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -49,6 +50,9 @@ public class MyController {
         if (postMyLifolioReq.getStart_date() == null || postMyLifolioReq.getEnd_date() == null) {
             return new BaseResponse<>(NOT_POST_DATE);
         }
+        if (!DaySeries.supports(postMyLifolioReq.getStart_date()) || !DaySeries.supports(postMyLifolioReq.getEnd_date())) {
+            return new BaseResponse<>(INVALID_FOLIO_DATE);
+        }
         if (postMyLifolioReq.getContent() == null) {
             return new BaseResponse<>(NOT_POST_CONTENT);
         }
@@ -74,11 +78,13 @@ public class MyController {
     @ResponseBody
     @GetMapping("/calender")
     public BaseResponse<List<UserRes.Calender>> getMyLifolioCalender(@AuthenticationPrincipal User user, @RequestParam("date") String date) {
-
-        Long userId = user.getId();
-        List<UserRes.Calender> calender = myService.getCalender(userId, date);
-        return new BaseResponse<>(calender);
-
+        try {
+            Long userId = user.getId();
+            List<UserRes.Calender> calender = myService.getCalender(userId, date);
+            return new BaseResponse<>(calender);
+        } catch (BaseException e) {
+            return new BaseResponse<>(e.getStatus());
+        }
     }
 
 
@@ -105,6 +111,20 @@ public class MyController {
 
     }
 
+    @ApiOperation(value = "MyLfolio 기간별 그래프 조회", notes = "from / to : yyyy-MM-dd, granularity : day / week / month / year, aggregation : max / avg / count")
+    @GetMapping("/graph/series")
+    public BaseResponse<List<HomeRes.GraphPoint>> getGraphSeries(@AuthenticationPrincipal User user,
+                                                                 @RequestParam(required = false) String from,
+                                                                 @RequestParam(required = false) String to,
+                                                                 @RequestParam(required = false) String granularity,
+                                                                 @RequestParam(required = false) String aggregation) {
+        try {
+            return new BaseResponse<>(myService.getGraphSeries(user.getId(), from, to, granularity, aggregation));
+        } catch (BaseException e) {
+            return new BaseResponse<>(e.getStatus());
+        }
+    }
+
     @GetMapping("/category_list")
     public BaseResponse<List<String>> getCategoryList(@AuthenticationPrincipal User user) {
         Long userId = user.getId();
@@ -113,13 +133,20 @@ public class MyController {
 
     }
 
+    //다음 페이지는 응답의 nextCursor 를 filterCategory.cursor 에 담아 요청
+    //page 를 보내는 이전 버전 앱에는 예전처럼 목록만 반환
     @PostMapping("/category")
-    public BaseResponse<List<MyRes.ViewCategory>> getViewCategory(@AuthenticationPrincipal User user, @RequestBody MyReq.FilterCategory filterCategory, @RequestParam(required = false, defaultValue = "1") int page) {
-
-        Long userId = user.getId();
-        List<MyRes.ViewCategory> viewCategory = myService.getViewCategory(userId, filterCategory, page);
-        return new BaseResponse<>(viewCategory);
-
+    public BaseResponse<?> getViewCategory(@AuthenticationPrincipal User user, @RequestBody MyReq.FilterCategory filterCategory, @RequestParam(required = false) Integer page) {
+        try {
+            Long userId = user.getId();
+            if (page != null) {
+                return new BaseResponse<>(myService.getViewCategory(userId, filterCategory, page));
+            }
+            MyRes.ViewCategoryPage viewCategory = myService.getViewCategory(userId, filterCategory);
+            return new BaseResponse<>(viewCategory);
+        } catch (BaseException e) {
+            return new BaseResponse<>(e.getStatus());
+        }
     }
 
 
@@ -5,8 +5,8 @@ import com.example.lifolio.base.BaseResponse;
 import com.example.lifolio.dto.alarm.RequestDTO;
 import com.example.lifolio.entity.User;
 import com.example.lifolio.jwt.TokenProvider;
+import com.example.lifolio.scheduler.DigestTimingWheel;
 import com.example.lifolio.service.FirebaseCloudMessageService;
-import com.example.lifolio.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -21,7 +21,7 @@ public class TestController {
 
     private final TokenProvider tokenProvider;
     private final FirebaseCloudMessageService firebaseCloudMessageService;
-    private final NotificationService notificationService;
+    private final DigestTimingWheel digestTimingWheel;
 
     @GetMapping("/user")
     public BaseResponse<String> test(@AuthenticationPrincipal User user) {
@@ -33,9 +33,8 @@ public class TestController {
 
     @GetMapping("")
     public BaseResponse<String> testTest() throws BaseException, IOException {
-        notificationService.scheduledTodoWeekAlarm();
-        notificationService.scheduledTodoAlarm();
-        notificationService.scheduledTodoMonthAlarm();
+        //지금 칸의 요약 알림을 바로 처리
+        digestTimingWheel.processSlot(System.currentTimeMillis() / 60_000);
 
         return new BaseResponse<>("테스트");
     }
@@ -5,16 +5,17 @@ import com.example.lifolio.base.BaseResponse;
 import com.example.lifolio.dto.user.*;
 import com.example.lifolio.entity.User;
 import com.example.lifolio.jwt.TokenProvider;
-import com.example.lifolio.service.RedisService;
+import com.example.lifolio.ratelimit.ClientIpResolver;
+import com.example.lifolio.service.PhoneVerificationService;
 import com.example.lifolio.service.UserService;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
-import net.nurigo.java_sdk.exceptions.CoolsmsException;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 import static com.example.lifolio.base.BaseResponseStatus.*;
@@ -26,7 +27,8 @@ import static com.example.lifolio.base.BaseResponseStatus.*;
 public class UserController {
     private final UserService userService;
     private final TokenProvider tokenProvider;
-    private final RedisService redisService;
+    private final PhoneVerificationService phoneVerificationService;
+    private final ClientIpResolver clientIpResolver;
 
     @ApiOperation(value = "로그인", notes = "로그인")
     @PostMapping("/login")
@@ -79,11 +81,15 @@ public class UserController {
         }
 
         //이름, 아이디
-        UserRes.PasswordRes passwordRes = userService.setNewPassword(passwordReq);
-        if(passwordRes != null){
-            return new BaseResponse<>(passwordRes);
-        } else {
-            return new BaseResponse<>(NOT_EXIST_USER);
+        try {
+            UserRes.PasswordRes passwordRes = userService.setNewPassword(passwordReq);
+            if(passwordRes != null){
+                return new BaseResponse<>(passwordRes);
+            } else {
+                return new BaseResponse<>(NOT_EXIST_USER);
+            }
+        } catch (BaseException e) {
+            return new BaseResponse<>(e.getStatus());
         }
 
     }
@@ -93,8 +99,6 @@ public class UserController {
     @GetMapping("/check/nickname")
     public BaseResponse<String> checkNickName(@Param("nickname") String nickName) {
         String result="";
-        System.out.println(userService.checkNickName(nickName));
-        System.out.println(nickName);
         if(userService.checkNickName(nickName)){
             return new BaseResponse<>(USERS_EXISTS_NICKNAME);
         }
@@ -108,7 +112,6 @@ public class UserController {
     @GetMapping("/check/userId")
     public BaseResponse<String> checkUserId(@Param("userId") String userId){
         String result="";
-        System.out.println(userService.checkUserId(userId));
         if(userService.checkUserId(userId)){
             return new BaseResponse<>(USERS_EXISTS_ID);
         }
@@ -123,10 +126,29 @@ public class UserController {
 
     @ResponseBody
     @GetMapping("/check/sendSMS")
-    public BaseResponse<UserRes.GetSMSRes> sendSMS(@RequestParam(value="to")String to) throws CoolsmsException {
-        int result = userService.phoneNumberCheck(to);
-        UserRes.GetSMSRes getSMSRes = new UserRes.GetSMSRes(result);
-        return new BaseResponse<>(getSMSRes);
+    public BaseResponse<UserRes.GetSMSRes> sendSMS(@RequestParam(value="to")String to, HttpServletRequest request) {
+        if(!userService.validationPhoneNumber(to)){
+            return new BaseResponse<>(NOT_CORRECT_PHONE_NUMBER_FORM);
+        }
+        try {
+            //인증번호는 응답에 담지 않고 /check/verifySMS 에서 서버가 확인
+            long expiresIn = phoneVerificationService.sendCode(to, clientIpResolver.resolve(request));
+            return new BaseResponse<>(new UserRes.GetSMSRes(expiresIn));
+        }catch (BaseException e){
+            return new BaseResponse<>(e.getStatus());
+        }
+    }
+
+    @ResponseBody
+    @PostMapping("/check/verifySMS")
+    public BaseResponse<UserRes.VerifySMSRes> verifySMS(@RequestBody UserReq.VerifySMSReq verifySMSReq) {
+        try {
+            //인증 완료 토큰은 가입 / 아이디 찾기 / 비밀번호 변경 요청의 verificationToken 으로 보냄
+            String verificationToken = phoneVerificationService.verify(verifySMSReq.getPhone(), verifySMSReq.getCode());
+            return new BaseResponse<>(new UserRes.VerifySMSRes(verificationToken));
+        }catch (BaseException e){
+            return new BaseResponse<>(e.getStatus());
+        }
     }
 
     @ResponseBody
@@ -144,20 +166,13 @@ public class UserController {
     @PostMapping("/re_token")
     public BaseResponse<UserRes.TokenRes> reIssueToken(@RequestBody UserReq.PostReIssueReq postReIssueReq){
 
-        String redisRT= redisService.getValues(String.valueOf(postReIssueReq.getUserId()));
-
-        if(redisRT==null){
-            return new BaseResponse<>(INVALID_REFRESH_TOKEN);
-
-        }
-        if(!redisRT.equals(postReIssueReq.getRefreshToken())){
-            return new BaseResponse<>(INVALID_USER_JWT);
+        try {
+            UserRes.TokenRes tokenRes = userService.reIssueToken(postReIssueReq);
+            return new BaseResponse<>(tokenRes);
+        } catch (BaseException e) {
+            return new BaseResponse<>(e.getStatus());
         }
 
-        UserRes.TokenRes tokenRes=userService.reIssueToken(postReIssueReq.getUserId());
-
-        return new BaseResponse<>(tokenRes);
-
     }
 
 
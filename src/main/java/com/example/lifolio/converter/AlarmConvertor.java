@@ -2,59 +2,101 @@ package com.example.lifolio.converter;
 
 import com.example.lifolio.dto.alarm.AlarmRes;
 import com.example.lifolio.dto.alarm.RequestDTO;
-
-import java.util.Collections;
-import java.util.List;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.Notification;
 
 public class AlarmConvertor {
-    public static RequestDTO RequestDto(AlarmRes.PlanningUserList planningUser, List<Integer> todoPlanning) {
-        int success= Collections.frequency(todoPlanning,1);
-        int total=todoPlanning.size();
+    public static RequestDTO RequestDto(AlarmRes.PlanningUserList planningUser, int total, int success) {
         if(success==total){
             return RequestDTO.builder().
                     title("🌈"+planningUser.getNickname()+"님 오늘의 TODO⏰ 현황!🌈").
-                    body("오늘의 계획 "+todoPlanning.size()+"개 모두 완료 했어요 고생 했어요🎉").
+                    body("오늘의 계획 "+total+"개 모두 완료 했어요 고생 했어요🎉").
                     targetToken(planningUser.getFcmToken()).build();
         }
         else {
             return RequestDTO.builder().
                     title("🌈"+planningUser.getNickname() + "님 오늘의 TODO⏰ 현황!🌈").
-                    body("오늘의 계획 " + todoPlanning.size() + "개 중 " + success + "개 완료 했어요!").
+                    body("오늘의 계획 " + total + "개 중 " + success + "개 완료 했어요!").
                     targetToken(planningUser.getFcmToken()).build();
         }
     }
 
-    public static RequestDTO AlarmWeek(AlarmRes.PlanningUserList planningUser, List<Integer> todoPlanning) {
-        int success= Collections.frequency(todoPlanning,1);
-        int total=todoPlanning.size();
+    public static RequestDTO AlarmWeek(AlarmRes.PlanningUserList planningUser, int total, int success) {
         if(success==total){
             return RequestDTO.builder().
                     title("🌈"+planningUser.getNickname()+"님 이번주 TODO⏰ 현황!🌈").
-                    body("이번주 계획 "+todoPlanning.size()+"개 모두 완료 했어요 고생 했어요🎉").
+                    body("이번주 계획 "+total+"개 모두 완료 했어요 고생 했어요🎉").
                     targetToken(planningUser.getFcmToken()).build();
         }
         else {
             return RequestDTO.builder().
                     title("🌈"+planningUser.getNickname() + "님 이번주 TODO⏰ 현황!🌈").
-                    body("이번주 계획 " + todoPlanning.size() + "개 중 " + success + "개 완료 했어요!").
+                    body("이번주 계획 " + total + "개 중 " + success + "개 완료 했어요!").
                     targetToken(planningUser.getFcmToken()).build();
         }
     }
 
-    public static RequestDTO AlarmMonth(AlarmRes.PlanningUserList planningUser, List<Integer> todoPlanning) {
-        int success= Collections.frequency(todoPlanning,1);
-        int total=todoPlanning.size();
+    public static RequestDTO AlarmMonth(AlarmRes.PlanningUserList planningUser, int total, int success) {
         if(success==total){
             return RequestDTO.builder().
                     title("🌈"+planningUser.getNickname()+"님 이번달 TODO⏰ 현황!🌈").
-                    body("이번달 계획 "+todoPlanning.size()+"개 모두 완료 했어요 고생 했어요🎉").
+                    body("이번달 계획 "+total+"개 모두 완료 했어요 고생 했어요🎉").
                     targetToken(planningUser.getFcmToken()).build();
         }
         else {
             return RequestDTO.builder().
                     title("🌈"+planningUser.getNickname() + "님 이번달 TODO⏰ 현황!🌈").
-                    body("이번달 계획 " + todoPlanning.size() + "개 중 " + success + "개 완료 했어요!").
+                    body("이번달 계획 " + total + "개 중 " + success + "개 완료 했어요!").
                     targetToken(planningUser.getFcmToken()).build();
         }
     }
+
+    //같은 날 보낼 오늘 / 이번주 / 이번달 요약을 푸시 하나로 합침 (계획이 없는 기간은 생략)
+    public static RequestDTO AlarmDigest(AlarmRes.PlanningUserList planningUser, int dailyTotal, int dailySuccess,
+                                         int weekTotal, int weekSuccess, int monthTotal, int monthSuccess) {
+        if(weekTotal==0&&monthTotal==0){
+            return RequestDto(planningUser, dailyTotal, dailySuccess);
+        }
+        if(dailyTotal==0&&monthTotal==0){
+            return AlarmWeek(planningUser, weekTotal, weekSuccess);
+        }
+        if(dailyTotal==0&&weekTotal==0){
+            return AlarmMonth(planningUser, monthTotal, monthSuccess);
+        }
+
+        StringBuilder body = new StringBuilder();
+        appendDigestLine(body, "오늘의", dailyTotal, dailySuccess);
+        appendDigestLine(body, "이번주", weekTotal, weekSuccess);
+        appendDigestLine(body, "이번달", monthTotal, monthSuccess);
+        return RequestDTO.builder().
+                title("🌈"+planningUser.getNickname()+"님 TODO⏰ 현황!🌈").
+                body(body.toString()).
+                targetToken(planningUser.getFcmToken()).build();
+    }
+
+    private static void appendDigestLine(StringBuilder body, String period, int total, int success) {
+        if(total==0){
+            return;
+        }
+        if(body.length()>0){
+            body.append("\n");
+        }
+        if(success==total){
+            body.append(period).append(" 계획 ").append(total).append("개 모두 완료 했어요🎉");
+        }
+        else {
+            body.append(period).append(" 계획 ").append(total).append("개 중 ").append(success).append("개 완료 했어요!");
+        }
+    }
+
+    //Firebase Admin SDK 로 묶어서 보낼 메시지
+    public static Message toMessage(RequestDTO requestDTO) {
+        return Message.builder()
+                .setNotification(Notification.builder()
+                        .setTitle(requestDTO.getTitle())
+                        .setBody(requestDTO.getBody())
+                        .build())
+                .setToken(requestDTO.getTargetToken())
+                .build();
+    }
 }
@@ -3,7 +3,10 @@ import com.example.lifolio.dto.user.UserRes;
 import com.example.lifolio.entity.Alarm;
 import com.example.lifolio.entity.Authority;
 import com.example.lifolio.entity.User;
+import com.example.lifolio.scheduler.DigestTimingWheel;
 
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.Collections;
 
 public class UserConverter {
@@ -25,8 +28,14 @@ public class UserConverter {
     }
 
     public static Alarm postAlarm(Long userId){
+        int digestMinute = Alarm.DEFAULT_DIGEST_MINUTE + (int) (userId % Alarm.DEFAULT_DIGEST_SPREAD);
+        ZoneId zone = ZoneId.of(Alarm.DEFAULT_TIME_ZONE);
         return Alarm.builder()
                 .userId(userId)
+                .flags(Alarm.ALL)
+                .digestMinute(digestMinute)
+                .timeZone(zone.getId())
+                .digestSlot(DigestTimingWheel.slotOf(digestMinute, zone))
                 .build();
     }
 
@@ -44,6 +53,8 @@ public class UserConverter {
                 .interestAlarm(alarm.getInterestAlarm())
                 .likeAlarm(alarm.getLikeAlarm())
                 .marketingAlarm(alarm.getMarketingAlarm())
+                .digestTime(alarm.getDigestMinute() == null ? null : LocalTime.ofSecondOfDay(alarm.getDigestMinute() * 60L).toString())
+                .timeZone(alarm.getTimeZone())
                 .build();
     }
 }
@@ -12,5 +12,36 @@ public class AlarmReq {
         private int alarm;
     }
 
+    //보낸 항목만 변경 (1 = 켜기, 0 = 끄기, null = 그대로)
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Setter
+    @Getter
+    public static class AlarmPatchReq {
+        private Integer allAlarm;
+        private Integer myAlarm;
+        private Integer weekAlarm;
+        private Integer badgeAlarm;
+        private Integer planningAlarm;
+        private Integer todoAlarm;
+        private Integer goalAlarm;
+        private Integer socialAlarm;
+        private Integer uploadAlarm;
+        private Integer interestAlarm;
+        private Integer likeAlarm;
+        private Integer marketingAlarm;
+    }
+
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Setter
+    @Getter
+    public static class DigestTimeReq {
+        private String digestTime; //HH:mm
+        private String timeZone; //ex) Asia/Seoul
+    }
+
 
 }
@@ -0,0 +1,18 @@
+package com.example.lifolio.dto.alarm;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//FCM HTTP v1 발송 결과
+@Getter
+@AllArgsConstructor
+public class FcmSendResult {
+    private int status; //HTTP 상태 코드 (응답을 못 받았으면 0)
+    private String errorCode; //FcmError.errorCode 또는 error.status (성공이면 null)
+    private String errorMessage; //error.message
+    private int attempts;
+
+    public boolean isSuccess() {
+        return status == 200;
+    }
+}
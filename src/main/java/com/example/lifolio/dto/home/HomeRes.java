@@ -35,6 +35,15 @@ public class HomeRes {
         private int star;
     }
 
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class GraphPoint {
+        private String date; //묶음 첫날 (yyyy-MM-dd)
+        private double value;
+        private int count; //묶음에 포함된 MyFolio 수
+    }
+
     @AllArgsConstructor
     @Setter
     @Getter
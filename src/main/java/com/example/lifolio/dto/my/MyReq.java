@@ -16,7 +16,9 @@ public class MyReq {
     @NoArgsConstructor
     public static class FilterCategory{
         private int order;
-        private List<String> categoryList;
+        private List<Long> categoryIds; //소분류 id, 비어 있으면 전체
+        private List<String> categoryList; //소분류 제목 (이전 버전 앱 호환, categoryIds 가 없을 때만 사용)
+        private String cursor; //이전 응답의 nextCursor, 첫 페이지는 null
     }
 
 //    @NoArgsConstructor
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.util.List;
 
 public class MyRes {
     @Getter
@@ -20,6 +21,14 @@ public class MyRes {
         private LocalDate date;
         private String category;
         private String colorName;
-        private int star;
+        private Integer star;
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class ViewCategoryPage{
+        private List<ViewCategory> folioList;
+        private String nextCursor; //마지막 페이지면 null
     }
 }
@@ -15,6 +15,7 @@ public class UserReq {
     public static class SocialReq{
         private String social;
         private String accessToken;
+        private String deviceId; //기기별 로그인 세션 구분 (없으면 default)
     }
 
     @Getter
@@ -44,6 +45,10 @@ public class UserReq {
 
         private String phone;
 
+        private String deviceId; //기기별 로그인 세션 구분 (없으면 default)
+
+        private String verificationToken; //휴대폰 인증 완료 토큰 (/check/verifySMS 응답)
+
 
         //이건 requestBody 입력할 때, 입력할 필요 없음
         private Set<UserRes.AuthorityRes> authorityResSet;
@@ -71,6 +76,7 @@ public class UserReq {
     public static class FindUserIdReq {
         private String name;
         private String phone;
+        private String verificationToken; //휴대폰 인증 완료 토큰
     }
 
     @Getter
@@ -90,6 +96,8 @@ public class UserReq {
         private String username;
 
         private String password;
+
+        private String deviceId; //기기별 로그인 세션 구분 (없으면 default)
     }
 
     @Builder
@@ -101,6 +109,7 @@ public class UserReq {
         //private String name; //이름
         private String username; //아이디
         private String newPassword; //새로 저장할 비밀번호
+        private String verificationToken; //가입한 휴대폰의 인증 완료 토큰
     }
 
     @Getter
@@ -109,4 +118,13 @@ public class UserReq {
     public static class LogInTokenReq {
         private String token;
     }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class VerifySMSReq {
+        private String phone;
+        private String code;
+    }
 }
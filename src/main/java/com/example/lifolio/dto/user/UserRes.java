@@ -100,6 +100,10 @@ public class UserRes {
         private Integer likeAlarm;
 
         private Integer marketingAlarm;
+
+        private String digestTime; //HH:mm
+
+        private String timeZone;
     }
 
     @Getter
@@ -125,7 +129,14 @@ public class UserRes {
     @Setter
     @AllArgsConstructor
     public static class GetSMSRes {
-        private int number;
+        private long expiresIn; //인증번호 유효 시간(초)
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class VerifySMSRes {
+        private String verificationToken; //가입 / 아이디 찾기 / 비밀번호 변경 요청에 담아서 보냄 (한 번만 사용)
     }
 
     @Getter
@@ -172,6 +183,7 @@ public class UserRes {
     @Setter
     @AllArgsConstructor
     @Builder
+    @NoArgsConstructor
     public static class GetMyFolioDetailRes{  //MyFolio 한 개 기록의 세부 내용 전부 보기
         String myFolioTitle;
         int star; //중요도
@@ -198,6 +210,7 @@ public class UserRes {
     @Setter
     @AllArgsConstructor
     @Builder
+    @NoArgsConstructor
     public static class MyFolioWithList{
         String withName;  //마이폴리오 같이 한 사람 이름
     }
@@ -206,6 +219,7 @@ public class UserRes {
     @Setter
     @AllArgsConstructor
     @Builder
+    @NoArgsConstructor
     public static class MyFolioImgList{
         String url;
     }
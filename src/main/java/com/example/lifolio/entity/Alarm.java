@@ -14,8 +14,29 @@ import javax.persistence.*;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "Alarm")
+@Table(name = "Alarm", indexes = @Index(name = "idx_alarm_digest_slot", columnList = "digest_slot, time_zone, user_id"))
 public class Alarm {
+ public static final String DEFAULT_TIME_ZONE = "Asia/Seoul";
+ //시간을 정하지 않은 유저는 18:00 ~ 18:29 사이로 나눠서 보냄
+ public static final int DEFAULT_DIGEST_MINUTE = 18 * 60;
+ public static final int DEFAULT_DIGEST_SPREAD = 30;
+
+ //flags 비트 (Redis 비트맵 이름은 FLAG_NAMES 의 같은 자리)
+ public static final int WEEK = 1;
+ public static final int BADGE = 1 << 1;
+ public static final int TODO = 1 << 2;
+ public static final int GOAL = 1 << 3;
+ public static final int UPLOAD = 1 << 4;
+ public static final int INTEREST = 1 << 5;
+ public static final int LIKE = 1 << 6;
+ public static final int MARKETING = 1 << 7;
+
+ public static final int MY = WEEK | BADGE;
+ public static final int PLANNING = TODO | GOAL;
+ public static final int SOCIAL = UPLOAD | INTEREST;
+ public static final int ALL = 0xFF;
+
+ public static final String[] FLAG_NAMES = {"week", "badge", "todo", "goal", "upload", "interest", "like", "marketing"};
 
  @Id
  @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,86 +46,62 @@ public class Alarm {
  @Column(name="user_id")
  private Long userId;
 
- @Column(name = "week_alarm")
- private Integer weekAlarm;
+ //알림 설정 8개를 비트 하나씩으로 저장
+ @Column(name = "flags")
+ private Integer flags;
 
- @Column(name = "badge_alarm")
- private Integer badgeAlarm;
+ //TODO 요약 알림 받을 시각 (현지 시간 기준 0시부터 분)
+ @Column(name = "digest_minute")
+ private Integer digestMinute;
 
- @Column(name = "todo_alarm")
- private Integer todoAlarm;
+ @Column(name = "time_zone", length = 40)
+ private String timeZone;
 
- @Column(name = "goal_alarm")
- private Integer goalAlarm;
+ //digest_minute 을 UTC 로 바꾼 분 (DigestTimingWheel 의 칸 번호)
+ @Column(name = "digest_slot")
+ private Integer digestSlot;
 
- @Column(name = "upload_alarm")
- private Integer uploadAlarm;
 
- @Column(name = "interest_alarm")
- private Integer interestAlarm;
-
- @Column(name = "like_alarm")
- private Integer likeAlarm;
-
- @Column(name = "marketing_alarm")
- private Integer marketingAlarm;
-
-
- public void updateAllAlarm(int weekAlarm, int badgeAlarm, int todoAlarm, int goalAlarm, int uploadAlarm, int interestAlarm, int likeAlarm, int marketingAlarm){
-  this.weekAlarm = weekAlarm;
-  this.badgeAlarm = badgeAlarm;
-  this.todoAlarm = todoAlarm;
-  this.goalAlarm = goalAlarm;
-  this.uploadAlarm = uploadAlarm;
-  this.interestAlarm = interestAlarm;
-  this.likeAlarm = likeAlarm;
-  this.marketingAlarm = marketingAlarm;
- }
-
- public void updateMyAllAlarm(int weekAlarm, int badgeAlarm) {
-  this.weekAlarm = weekAlarm;
-  this.badgeAlarm = badgeAlarm;
- }
-
- public void updateWeekAlarm(int weekAlarm) {
-  this.weekAlarm = weekAlarm;
+ //0 / 1 로 내려주는 기존 응답 형식 유지
+ public int getWeekAlarm() {
+  return flag(WEEK);
  }
 
- public void updateBadgeAlarm(int badgeAlarm) {
-  this.badgeAlarm = badgeAlarm;
+ public int getBadgeAlarm() {
+  return flag(BADGE);
  }
 
- public void updatePlanningAllAlarm(int todoAlarm, int goalAlarm) {
-  this.todoAlarm = todoAlarm;
-  this.goalAlarm = goalAlarm;
+ public int getTodoAlarm() {
+  return flag(TODO);
  }
 
- public void updateTodoAlarm(int todoAlarm) {
-  this.todoAlarm = todoAlarm;
+ public int getGoalAlarm() {
+  return flag(GOAL);
  }
 
- public void updateGoalAlarm(int goalAlarm) {
-  this.goalAlarm = goalAlarm;
+ public int getUploadAlarm() {
+  return flag(UPLOAD);
  }
 
- public void updateSocialAllAlarm(int uploadAlarm, int interestAlarm) {
-  this.uploadAlarm = uploadAlarm;
-  this.interestAlarm = interestAlarm;
+ public int getInterestAlarm() {
+  return flag(INTEREST);
  }
 
- public void updateUploadAlarm(int uploadAlarm) {
-  this.uploadAlarm = uploadAlarm;
+ public int getLikeAlarm() {
+  return flag(LIKE);
  }
 
- public void updateInterestAlarm(int interestAlarm) {
-  this.interestAlarm = interestAlarm;
+ public int getMarketingAlarm() {
+  return flag(MARKETING);
  }
 
- public void updateLikeAlarm(int likeAlarm) {
-  this.likeAlarm = likeAlarm;
+ public int flag(int mask) {
+  return flags != null && (flags & mask) != 0 ? 1 : 0;
  }
 
- public void updateMarketingAlarm(int marketingAlarm) {
-  this.marketingAlarm = marketingAlarm;
+ public void updateDigestTime(int digestMinute, String timeZone, int digestSlot) {
+  this.digestMinute = digestMinute;
+  this.timeZone = timeZone;
+  this.digestSlot = digestSlot;
  }
 }
@@ -19,7 +19,7 @@ import java.time.LocalDateTime;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "Archive")
+@Table(name = "Archive", indexes = @Index(name = "idx_archive_folio", columnList = "folio_id"))
 public class Archive extends BaseEntity implements Serializable {
 
  @Id
@@ -20,7 +20,9 @@ import java.util.List;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "MyFolio")
+@Table(name = "MyFolio", indexes = {
+        @Index(name = "idx_myfolio_user_start_date", columnList = "user_id, start_date, id"),
+        @Index(name = "idx_myfolio_user_star", columnList = "user_id, star, id")})
 public class MyFolio extends BaseEntity {
 
     @Id
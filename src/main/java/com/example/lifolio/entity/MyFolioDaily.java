@@ -0,0 +1,48 @@
+package com.example.lifolio.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * 유저 / 날짜별 대표 MyFolio (캘린더용)
+ * 그날 별점이 가장 높은 MyFolio 하나의 제목 / 색상 / 대표 사진을 미리 넣어 두고, 캘린더는 (user_id, day) 범위로 바로 조회
+ * MyFolio 저장 시 MyFolioCalendarService 가 갱신하고, 매일 userId 범위별로 다시 맞춤
+ */
+@Entity
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "MyFolioDaily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_myfolio_daily", columnNames = {"user_id", "day"}))
+public class MyFolioDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "top_folio_id", nullable = false)
+    private Long topFolioId;
+
+    @Column(name = "top_star")
+    private int topStar;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "color")
+    private String color;
+
+    @Column(name = "cover_url")
+    private String coverUrl;
+}
@@ -15,7 +15,7 @@ import javax.persistence.*;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "MyFolioImg")
+@Table(name = "MyFolioImg", indexes = @Index(name = "idx_myfolio_img_folio", columnList = "folio_Id, id"))
 public class MyFolioImg extends BaseEntity {
 
     @Id
@@ -0,0 +1,48 @@
+package com.example.lifolio.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * 유저 / 소분류 / 연월별 MyFolio 별점 집계
+ * 홈 그래프, 커스텀 라이폴리오 그래프가 MyFolio 전체를 YEAR() / MONTH() 로 묶지 않고 이 테이블을 바로 조회
+ * MyFolio 저장 시 MyFolioRollupService 가 갱신하고, 매일 userId 범위별로 다시 맞춤
+ */
+@Entity
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "MyFolioMonthly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_myfolio_monthly", columnNames = {"user_id", "year", "month", "sub_category_id"}),
+        indexes = @Index(name = "idx_myfolio_monthly_sub_category", columnList = "user_id, sub_category_id, year, month"))
+public class MyFolioMonthly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "sub_category_id", nullable = false)
+    private Long subCategoryId;
+
+    @Column(name = "year", nullable = false)
+    private int year;
+
+    @Column(name = "month", nullable = false)
+    private int month;
+
+    @Column(name = "max_star")
+    private int maxStar;
+
+    @Column(name = "folio_count")
+    private int folioCount;
+
+    @Column(name = "sum_star")
+    private long sumStar;
+}
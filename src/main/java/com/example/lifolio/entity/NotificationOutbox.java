@@ -0,0 +1,65 @@
+package com.example.lifolio.entity;
+
+import com.example.lifolio.base.BaseEntity;
+import lombok.*;
+import org.hibernate.annotations.DynamicInsert;
+import org.hibernate.annotations.DynamicUpdate;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 발송할 알림 (outbox)
+ * 예약 알림은 여기에 먼저 쌓고 워커가 나눠 가져가서 발송
+ * idempotency_key = 알림 종류:유저:기간 이라서 같은 알림 작업을 다시 돌려도 한 번만 쌓임
+ */
+@Entity
+@DynamicInsert
+@DynamicUpdate
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "NotificationOutbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_notification_outbox_key", columnNames = "idempotency_key"),
+        indexes = @Index(name = "idx_notification_outbox_status", columnList = "status, next_attempt_at"))
+public class NotificationOutbox extends BaseEntity {
+    public static final String PENDING = "PENDING";
+    public static final String SENDING = "SENDING";
+    public static final String SENT = "SENT";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "target_token", length = 512)
+    private String targetToken;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "body")
+    private String body;
+
+    @Column(name = "status", length = 10)
+    private String status;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    //SENDING 상태의 점유 만료 시각 (워커가 죽으면 이후 다른 워커가 가져감)
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+}
@@ -18,7 +18,7 @@ import java.time.LocalDateTime;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "Planning")
+@Table(name = "Planning", indexes = @Index(name = "idx_planning_user_date", columnList = "user_id, date"))
 public class Planning extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,7 +18,7 @@ import java.time.LocalDateTime;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "PlanningMonth")
+@Table(name = "PlanningMonth", indexes = @Index(name = "idx_planning_month_user_date", columnList = "user_id, date"))
 public class PlanningMonth extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
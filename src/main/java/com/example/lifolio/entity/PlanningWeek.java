@@ -18,7 +18,7 @@ import java.time.LocalDateTime;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "PlanningWeek")
+@Table(name = "PlanningWeek", indexes = @Index(name = "idx_planning_week_user_date", columnList = "user_id, date"))
 public class PlanningWeek extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
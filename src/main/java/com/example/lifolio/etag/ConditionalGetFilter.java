@@ -0,0 +1,120 @@
+package com.example.lifolio.etag;
+
+import com.example.lifolio.jwt.TokenProvider;
+import com.example.lifolio.service.DataVersionService;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 자주 다시 불러오는 화면 조회 API 에 ETag 적용 (RateLimitFilter 다음에 실행)
+ * 조회 쿼리를 돌리기 전에 유저의 데이터 버전으로 약한 ETag 를 만들고,
+ * If-None-Match 가 같으면 304 로 바로 응답 (Redis 조회 한 번)
+ * 오늘 날짜도 ETag 에 포함 (올해 / 오늘 기준으로 보여주는 화면이 있음)
+ */
+public class ConditionalGetFilter extends GenericFilterBean {
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalGetFilter.class);
+
+    private static final Pattern HOME = Pattern.compile("^/home/\\d+/?$");
+
+    private final DataVersionService dataVersionService;
+
+    public ConditionalGetFilter(DataVersionService dataVersionService) {
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+        DataVersionService.Resource[] resources = "GET".equals(request.getMethod()) ? resourcesOf(request.getRequestURI()) : null;
+        Long userId = resources == null ? null : userIdOf(request);
+        if (userId == null) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        String etag;
+        try {
+            etag = etag(dataVersionService.versions(userId, resources));
+        } catch (DataAccessException e) {
+            //Redis 장애 시에는 ETag 없이 그대로 조회
+            logger.warn("데이터 버전 조회 실패, ETag 없이 응답합니다: {}", e.getMessage());
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", "private, no-cache");
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+
+    //화면에 나오는 데이터의 버전들 (ETag 대상이 아니면 null)
+    static DataVersionService.Resource[] resourcesOf(String uri) {
+        if (HOME.matcher(uri).matches()) {
+            return new DataVersionService.Resource[]{DataVersionService.Resource.HOME};
+        }
+        switch (stripTrailingSlash(uri)) {
+            case "/my":
+                return new DataVersionService.Resource[]{DataVersionService.Resource.MY};
+            case "/my/calender":
+                return new DataVersionService.Resource[]{DataVersionService.Resource.CALENDAR};
+            case "/category":
+                return new DataVersionService.Resource[]{DataVersionService.Resource.CATEGORY};
+            case "/planning/day":
+                return new DataVersionService.Resource[]{DataVersionService.Resource.PLANNING};
+            default:
+                return null;
+        }
+    }
+
+    static String etag(List<String> versions) {
+        return "W/\"" + LocalDate.now() + "." + String.join(".", versions) + "\"";
+    }
+
+    //If-None-Match 는 쉼표로 여러 개 올 수 있고, 약한 비교이므로 W/ 는 무시
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals(opaque) || value.equals("W/" + opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripTrailingSlash(String uri) {
+        return uri.length() > 1 && uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+    }
+
+    private static Long userIdOf(HttpServletRequest request) {
+        Claims claims = (Claims) request.getAttribute(TokenProvider.CLAIMS_ATTRIBUTE);
+        if (claims == null || claims.get("userId") == null) {
+            return null;
+        }
+        return claims.get("userId", Long.class);
+    }
+}
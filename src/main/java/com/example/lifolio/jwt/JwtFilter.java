@@ -42,8 +42,12 @@ public class JwtFilter extends GenericFilterBean {
         String jwt = tokenProvider.getJwt();
         String requestURI = httpServletRequest.getRequestURI();
 
-        if (StringUtils.hasText(jwt)&& tokenProvider.validateToken(servletRequest,jwt)) {
-            Authentication authentication = tokenProvider.getAuthentication(jwt);
+        Claims claims = StringUtils.hasText(jwt) ? tokenProvider.validateToken(servletRequest, jwt) : null;
+
+        if (claims != null) {
+            //한 요청에서 토큰을 다시 파싱하지 않도록 검증된 Claims 를 넘겨줌
+            servletRequest.setAttribute(TokenProvider.CLAIMS_ATTRIBUTE, claims);
+            Authentication authentication = tokenProvider.getAuthentication(claims);
             SecurityContextHolder.getContext().setAuthentication(authentication);
             logger.debug("Security Context에 '{}' 인증 정보를 저장했습니다, uri: {}", authentication.getName(), requestURI);
 
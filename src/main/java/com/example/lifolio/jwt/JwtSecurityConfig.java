@@ -1,5 +1,10 @@
 package com.example.lifolio.jwt;
 
+import com.example.lifolio.etag.ConditionalGetFilter;
+import com.example.lifolio.ratelimit.ClientIpResolver;
+import com.example.lifolio.ratelimit.RateLimitFilter;
+import com.example.lifolio.ratelimit.RateLimiter;
+import com.example.lifolio.service.DataVersionService;
 import org.springframework.security.config.annotation.SecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.DefaultSecurityFilterChain;
@@ -8,14 +13,25 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class JwtSecurityConfig extends SecurityConfigurerAdapter<DefaultSecurityFilterChain, HttpSecurity> {
 
     private TokenProvider tokenProvider;
+    private RateLimiter rateLimiter;
+    private ClientIpResolver clientIpResolver;
+    private DataVersionService dataVersionService;
 
-    public JwtSecurityConfig(TokenProvider tokenProvider) {
+    public JwtSecurityConfig(TokenProvider tokenProvider, RateLimiter rateLimiter, ClientIpResolver clientIpResolver,
+                             DataVersionService dataVersionService) {
         this.tokenProvider = tokenProvider;
+        this.rateLimiter = rateLimiter;
+        this.clientIpResolver = clientIpResolver;
+        this.dataVersionService = dataVersionService;
     }
 
     @Override
     public void configure(HttpSecurity http) {
         JwtFilter customFilter = new JwtFilter(tokenProvider);
         http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
+        //토큰 검증 뒤에 실행해서 인증된 요청은 유저 기준으로 제한
+        http.addFilterAfter(new RateLimitFilter(rateLimiter, clientIpResolver), JwtFilter.class);
+        //제한을 통과한 조회 요청만 ETag 비교 (변경 없으면 컨트롤러까지 가지 않고 304)
+        http.addFilterAfter(new ConditionalGetFilter(dataVersionService), RateLimitFilter.class);
     }
 }
\ No newline at end of file
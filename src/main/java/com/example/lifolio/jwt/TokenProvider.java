@@ -2,9 +2,13 @@ package com.example.lifolio.jwt;
 
 import com.example.lifolio.base.BaseException;
 import com.example.lifolio.entity.User;
-import com.example.lifolio.repository.UserRepository;
-import com.example.lifolio.service.CustomUserDetailsService;
-import com.example.lifolio.service.RedisService;
+import com.example.lifolio.service.PrincipalCacheService;
+import com.example.lifolio.service.RefreshSessionService;
+import com.example.lifolio.service.TokenRevocationService;
+import com.example.lifolio.util.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -14,7 +18,6 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -23,7 +26,7 @@ import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
 import java.security.Key;
 import java.util.Date;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static com.example.lifolio.base.BaseResponseStatus.*;
 import static com.example.lifolio.jwt.JwtFilter.AUTHORIZATION_HEADER;
@@ -33,110 +36,139 @@ public class TokenProvider implements InitializingBean {
 
     private final Logger logger = LoggerFactory.getLogger(TokenProvider.class);
 
-    private CustomUserDetailsService customUserDetailsService;
-
-    private final UserRepository userRepository;
+    private final PrincipalCacheService principalCacheService;
 
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    //JwtFilter 에서 검증한 Claims 를 담아두는 request attribute 키
+    public static final String CLAIMS_ATTRIBUTE = "claims";
+
+    //토큰을 발급한 기기 (refresh 세션 구분용)
+    public static final String DEVICE_CLAIM = "deviceId";
+
     private final String secret;
     private final String refreshSecret;
-    private final RedisService redisService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshSessionService refreshSessionService;
     private final long accessTime;
     private final long refreshTime;
     private Key key;
+    private Key refreshKey;
 
+    //파서는 불변 객체라 스레드간 공유 가능
+    private JwtParser accessParser;
+    private JwtParser refreshParser;
+
+    //최근 검증한 토큰 다이제스트 -> Claims (토큰 만료 시각에 같이 만료)
+    private final Cache<String, Claims> verifiedClaimsCache;
 
 
 
     public TokenProvider(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.refresh}") String refreshSecret,
-                    UserRepository userRepository,
-            CustomUserDetailsService customUserDetailsService,
-            RedisService redisService, @Value("${jwt.access-token-seconds}") long accessTime, @Value("${jwt.refresh-token-seconds}")long refreshTime) {
+            PrincipalCacheService principalCacheService,
+            TokenRevocationService tokenRevocationService,
+            RefreshSessionService refreshSessionService, @Value("${jwt.access-token-seconds}") long accessTime, @Value("${jwt.refresh-token-seconds}")long refreshTime) {
         this.secret = secret;
-        this.userRepository = userRepository;
         this.refreshSecret=refreshSecret;
-        this.customUserDetailsService=customUserDetailsService;
-        this.redisService = redisService;
+        this.principalCacheService=principalCacheService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshSessionService = refreshSessionService;
         this.accessTime = accessTime*1000;
         this.refreshTime = refreshTime*1000;
+        this.verifiedClaimsCache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        if (claims.getExpiration() == null) {
+                            return 0;
+                        }
+                        long remainMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     @Override
     public void afterPropertiesSet() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.refreshKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(refreshSecret));
+        this.accessParser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.refreshParser = Jwts.parserBuilder().setSigningKey(refreshKey).build();
     }
 
     public String createToken(Long userId) {
+        return createToken(userId, RefreshSessionService.DEFAULT_DEVICE);
+    }
+
+    public String createToken(Long userId, String deviceId) {
         Date now =new Date();
 
         return Jwts.builder()
                 .setHeaderParam("type","jwt")
                 .claim("userId",userId)
+                .claim(DEVICE_CLAIM,deviceId)
                 .setIssuedAt(now)
                 .setExpiration(new Date(System.currentTimeMillis()+accessTime))
-                .signWith(SignatureAlgorithm.HS256,secret)
+                .signWith(key,SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String createRefreshToken(Long userId){
+    public String createRefreshToken(Long userId, String deviceId){
         Date now=new Date();
 
         return Jwts.builder()
                 .setHeaderParam("type","jwt")
                 .claim("userId",userId)
+                .claim(DEVICE_CLAIM,deviceId)
                 .setIssuedAt(now)
                 .setExpiration(new Date(System.currentTimeMillis()+refreshTime))
-                .signWith(SignatureAlgorithm.HS256,refreshSecret)
+                .signWith(refreshKey,SignatureAlgorithm.HS256)
                 .compact();
 
     }
 
     public Authentication getAuthentication(String token)  {
-        Jws<Claims> claims;
-
-        claims = Jwts.parser()
-                .setSigningKey(secret)
-                .parseClaimsJws(token);
-
-
-        Long userId=claims.getBody().get("userId",Long.class);
+        return getAuthentication(getClaims(token));
+    }
 
-        Optional<User> users=userRepository.findById(userId);
-        String userName = users.get().getUsername();
+    public Authentication getAuthentication(Claims claims)  {
+        Long userId=claims.get("userId",Long.class);
 
-        UserDetails userDetails = customUserDetailsService.loadUserByUsername(userName);
+        //캐시에 없을 때만 DB 조회
+        User user=principalCacheService.getPrincipal(userId);
 
-        return new UsernamePasswordAuthenticationToken(users.get(),"",userDetails.getAuthorities());
+        return new UsernamePasswordAuthenticationToken(user,"",user.getAuthorities());
     }
 
 
-    public boolean validateToken(ServletRequest servletRequest, String token) {
+    //유효한 토큰이면 검증된 Claims 반환, 아니면 exception attribute 설정 후 null 반환
+    public Claims validateToken(ServletRequest servletRequest, String token) {
         try {
-            Jws<Claims> claims;
-            claims = Jwts.parser()
-                    .setSigningKey(secret)
-                    .parseClaimsJws(token);
-
-            Long userId = claims.getBody().get("userId",Long.class);
-
-            String expiredAt= redisService.getValues(token);
+            String digest = DigestUtil.sha256(token);
+            Claims claims = getClaims(token, digest);
 
-
-            if(expiredAt==null){
-                return true;
-            }
-            if(expiredAt.equals(String.valueOf(userId))){
+            //로그아웃된 토큰인지 확인 (대부분 Redis 조회 없이 로컬에서 판단)
+            if(tokenRevocationService.isRevoked(digest)){
                 servletRequest.setAttribute("exception","HijackException");
-                return false;
+                return null;
             }
 
-
-            return true;
+            return claims;
         } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
             servletRequest.setAttribute("exception","MalformedJwtException");
             logger.info("잘못된 JWT 서명입니다.");
@@ -150,7 +182,29 @@ public class TokenProvider implements InitializingBean {
             servletRequest.setAttribute("exception","IllegalArgumentException");
             logger.info("JWT 토큰이 잘못되었습니다.");
         }
-        return false;
+        return null;
+    }
+
+    //access token 검증 (최근 검증한 토큰이면 서명 검증 생략)
+    public Claims getClaims(String token) {
+        return getClaims(token, DigestUtil.sha256(token));
+    }
+
+    private Claims getClaims(String token, String digest) {
+        Claims claims = verifiedClaimsCache.getIfPresent(digest);
+        if (claims == null) {
+            claims = parseClaims(token);
+            verifiedClaimsCache.put(digest, claims);
+        }
+        return claims;
+    }
+
+    Claims parseClaims(String token) {
+        return accessParser.parseClaimsJws(token).getBody();
+    }
+
+    public Claims getRefreshClaims(String refreshToken) {
+        return refreshParser.parseClaimsJws(refreshToken).getBody();
     }
 
     public String getJwt(){
@@ -160,15 +214,17 @@ public class TokenProvider implements InitializingBean {
 
 
     public void logOut(Long userId, String accessToken) {
-        long expiredAccessTokenTime=getExpiredTime(accessToken).getTime() - new Date().getTime();
-        //Redis 에 액세스 토큰값을 key 로 가지는 userId 값 저장
-        redisService.saveToken(accessToken,String.valueOf(userId),expiredAccessTokenTime);
-        //Redis 에 저장된 refreshToken 삭제
-        redisService.deleteValues(String.valueOf(userId));
+        Claims claims = getClaims(accessToken);
+        //액세스 토큰 다이제스트를 토큰 만료 시각까지 블랙리스트에 등록
+        tokenRevocationService.revoke(DigestUtil.sha256(accessToken),claims.getExpiration().getTime());
+        //로그아웃한 기기의 refresh 세션만 삭제
+        refreshSessionService.revoke(userId, RefreshSessionService.deviceOf(claims.get(DEVICE_CLAIM,String.class)));
+        //캐시된 인증 정보 삭제
+        principalCacheService.evict(userId);
     }
 
     public Date getExpiredTime(String token){
         //받은 토큰의 유효 시간을 받아오기
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody().getExpiration();
+        return getClaims(token).getExpiration();
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.example.lifolio.loader;
+
+import com.example.lifolio.entity.Category;
+import com.example.lifolio.entity.Color;
+import com.example.lifolio.entity.SubCategory;
+import com.example.lifolio.repository.CategoryRepository;
+import com.example.lifolio.repository.ColorRepository;
+import com.example.lifolio.repository.SubCategoryRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 요청 단위 카테고리 / 소분류 / 색상 조회기 (DataLoader 방식)
+ * request* 로 필요한 id 를 먼저 모아 두면 처음 꺼낼 때 종류별로 IN 쿼리 한 번에 읽고, 요청이 끝날 때까지 결과를 재사용
+ * 목록을 돌면서 findById 를 부르면 결과 수만큼 쿼리가 나가므로, 목록 조회는 미리 request 한 뒤 꺼내서 사용
+ */
+@Component
+@RequestScope
+public class ReferenceLoader {
+
+    private final Batch<Category> categories;
+    private final Batch<SubCategory> subCategories;
+    private final Batch<Color> colors;
+    private final Batch<List<SubCategory>> subCategoriesByCategory;
+
+    public ReferenceLoader(CategoryRepository categoryRepository,
+                           SubCategoryRepository subCategoryRepository,
+                           ColorRepository colorRepository) {
+        this.categories = new Batch<>(ids -> byId(categoryRepository.findAllById(ids), Category::getId));
+        this.subCategories = new Batch<>(ids -> byId(subCategoryRepository.findAllById(ids), SubCategory::getId));
+        this.colors = new Batch<>(ids -> byId(colorRepository.findAllById(ids), Color::getId));
+        this.subCategoriesByCategory = new Batch<>(ids -> subCategoryRepository.findByCategoryIdIn(ids).stream()
+                .collect(Collectors.groupingBy(SubCategory::getCategoryId)));
+    }
+
+    public void requestCategories(Collection<Long> categoryIds) {
+        categories.request(categoryIds);
+    }
+
+    public void requestSubCategories(Collection<Long> subCategoryIds) {
+        subCategories.request(subCategoryIds);
+    }
+
+    public void requestColors(Collection<Long> colorIds) {
+        colors.request(colorIds);
+    }
+
+    public void requestSubCategoriesOf(Collection<Long> categoryIds) {
+        subCategoriesByCategory.request(categoryIds);
+    }
+
+    //없는 id 면 null
+    public Category category(Long categoryId) {
+        return categories.load(categoryId);
+    }
+
+    public SubCategory subCategory(Long subCategoryId) {
+        return subCategories.load(subCategoryId);
+    }
+
+    public Color color(Long colorId) {
+        return colors.load(colorId);
+    }
+
+    //카테고리에 속한 소분류 (없으면 빈 목록)
+    public List<SubCategory> subCategoriesOf(Long categoryId) {
+        List<SubCategory> subCategoryList = subCategoriesByCategory.load(categoryId);
+        return subCategoryList == null ? Collections.emptyList() : subCategoryList;
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> idOf) {
+        Map<Long, T> result = new HashMap<>();
+        entities.forEach(entity -> result.put(idOf.apply(entity), entity));
+        return result;
+    }
+
+    /**
+     * 종류 하나의 대기 id + 읽은 결과
+     * load 할 때 아직 안 읽은 id 가 있으면 대기 중인 id 와 함께 한 번에 읽음 (없는 id 도 null 로 기억해서 다시 조회하지 않음)
+     */
+    static final class Batch<T> {
+        private final Function<Collection<Long>, Map<Long, T>> loader;
+        private final Map<Long, T> loaded = new HashMap<>();
+        private final Set<Long> pending = new LinkedHashSet<>();
+
+        Batch(Function<Collection<Long>, Map<Long, T>> loader) {
+            this.loader = loader;
+        }
+
+        void request(Collection<Long> ids) {
+            for (Long id : ids) {
+                if (id != null && !loaded.containsKey(id)) {
+                    pending.add(id);
+                }
+            }
+        }
+
+        T load(Long id) {
+            if (id == null) {
+                return null;
+            }
+            if (!loaded.containsKey(id)) {
+                pending.add(id);
+                dispatch();
+            }
+            return loaded.get(id);
+        }
+
+        private void dispatch() {
+            List<Long> ids = new ArrayList<>(pending);
+            pending.clear();
+            Map<Long, T> result = loader.apply(ids);
+            for (Long id : ids) {
+                loaded.put(id, result.get(id));
+            }
+        }
+    }
+}
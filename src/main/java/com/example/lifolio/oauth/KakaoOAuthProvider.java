@@ -0,0 +1,65 @@
+package com.example.lifolio.oauth;
+
+import com.example.lifolio.base.BaseException;
+import com.example.lifolio.util.CircuitBreaker;
+import com.google.gson.JsonObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.example.lifolio.base.BaseResponseStatus.FAILED_TO_LOGIN;
+
+@Component
+public class KakaoOAuthProvider implements OAuthProvider {
+    public static final String PROVIDER = "kakao";
+
+    private final OAuthHttpClient oAuthHttpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final String authUrl;
+    private final String apiUrl;
+    private final String clientId;
+    private final String redirectUri;
+
+    public KakaoOAuthProvider(OAuthHttpClient oAuthHttpClient,
+                              @Value("${oauth.kakao.auth-url:https://kauth.kakao.com}") String authUrl,
+                              @Value("${oauth.kakao.api-url:https://kapi.kakao.com}") String apiUrl,
+                              @Value("${oauth.kakao.client-id:98dde62928c7a676ea17b1241492fe0b}") String clientId,
+                              @Value("${oauth.kakao.redirect-uri:http://localhost:9000/auth/kakao}") String redirectUri,
+                              @Value("${oauth.circuit.failure-threshold:5}") int failureThreshold,
+                              @Value("${oauth.circuit.open-ms:30000}") long openMillis) {
+        this.oAuthHttpClient = oAuthHttpClient;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+        this.authUrl = authUrl;
+        this.apiUrl = apiUrl;
+        this.clientId = clientId;
+        this.redirectUri = redirectUri;
+    }
+
+    @Override
+    public String getAccessToken(String code) throws BaseException {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("grant_type", "authorization_code");
+        form.put("client_id", clientId);
+        form.put("redirect_uri", redirectUri);
+        form.put("code", code);
+
+        JsonObject body = oAuthHttpClient.postForm(authUrl + "/oauth/token", form, circuitBreaker);
+        if (!body.has("access_token")) {
+            throw new BaseException(FAILED_TO_LOGIN);
+        }
+        return body.get("access_token").getAsString();
+    }
+
+    @Override
+    public OAuthProfile getProfile(String accessToken) throws BaseException {
+        JsonObject body = oAuthHttpClient.postWithBearer(apiUrl + "/v2/user/me", accessToken, circuitBreaker);
+        if (!body.has("id") || !body.has("properties")) {
+            throw new BaseException(FAILED_TO_LOGIN);
+        }
+        String id = String.valueOf(body.get("id").getAsLong());
+        String name = body.getAsJsonObject("properties").get("nickname").getAsString();
+        return new OAuthProfile(PROVIDER, id, name);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.lifolio.oauth;
+
+import com.example.lifolio.base.BaseException;
+import com.example.lifolio.util.CircuitBreaker;
+import com.google.gson.JsonObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.example.lifolio.base.BaseResponseStatus.FAILED_TO_LOGIN;
+
+@Component
+public class NaverOAuthProvider implements OAuthProvider {
+    public static final String PROVIDER = "naver";
+
+    private final OAuthHttpClient oAuthHttpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final String authUrl;
+    private final String apiUrl;
+    private final String clientId;
+    private final String clientSecret;
+    private final String redirectUri;
+
+    public NaverOAuthProvider(OAuthHttpClient oAuthHttpClient,
+                              @Value("${oauth.naver.auth-url:https://nid.naver.com}") String authUrl,
+                              @Value("${oauth.naver.api-url:https://openapi.naver.com}") String apiUrl,
+                              @Value("${oauth.naver.client-id:V0uhhk8tOC5K67Yw5wqi}") String clientId,
+                              @Value("${oauth.naver.client-secret:aejWSUmwLv}") String clientSecret,
+                              @Value("${oauth.naver.redirect-uri:http://localhost:9000/auth/naver}") String redirectUri,
+                              @Value("${oauth.circuit.failure-threshold:5}") int failureThreshold,
+                              @Value("${oauth.circuit.open-ms:30000}") long openMillis) {
+        this.oAuthHttpClient = oAuthHttpClient;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+        this.authUrl = authUrl;
+        this.apiUrl = apiUrl;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.redirectUri = redirectUri;
+    }
+
+    @Override
+    public String getAccessToken(String code) throws BaseException {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("grant_type", "authorization_code");
+        form.put("client_id", clientId);
+        form.put("client_secret", clientSecret);
+        form.put("redirect_uri", redirectUri);
+        form.put("code", code);
+        form.put("state", "STATE_STRING");
+
+        //네이버는 실패해도 200 으로 error 필드를 내려줌
+        JsonObject body = oAuthHttpClient.postForm(authUrl + "/oauth2.0/token", form, circuitBreaker);
+        if (!body.has("access_token")) {
+            throw new BaseException(FAILED_TO_LOGIN);
+        }
+        return body.get("access_token").getAsString();
+    }
+
+    @Override
+    public OAuthProfile getProfile(String accessToken) throws BaseException {
+        JsonObject body = oAuthHttpClient.postWithBearer(apiUrl + "/v1/nid/me", accessToken, circuitBreaker);
+        if (!body.has("response")) {
+            throw new BaseException(FAILED_TO_LOGIN);
+        }
+        JsonObject response = body.getAsJsonObject("response");
+        return new OAuthProfile(PROVIDER, response.get("id").getAsString(), response.get("name").getAsString());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.lifolio.oauth;
+
+import com.example.lifolio.base.BaseException;
+import com.example.lifolio.util.CircuitBreaker;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.example.lifolio.base.BaseResponseStatus.FAILED_TO_LOGIN;
+import static com.example.lifolio.base.BaseResponseStatus.OAUTH_SERVER_ERROR;
+
+/**
+ * 소셜 로그인 제공자 호출용 공용 HTTP 클라이언트
+ * 커넥션 풀을 공유하는 HttpClient 하나를 쓰고, 연결/응답 시간 제한을 걸어둠
+ * 응답은 문자열로 모으지 않고 스트림에서 바로 JSON 으로 파싱
+ */
+@Component
+public class OAuthHttpClient {
+    private static final Logger logger = LoggerFactory.getLogger(OAuthHttpClient.class);
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+
+    public OAuthHttpClient(@Value("${oauth.http.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                           @Value("${oauth.http.read-timeout-ms:3000}") long readTimeoutMillis) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+    }
+
+    public JsonObject postForm(String url, Map<String, String> form, CircuitBreaker circuitBreaker) throws BaseException {
+        String body = form.entrySet().stream()
+                .map(entry -> encode(entry.getKey()) + "=" + encode(entry.getValue()))
+                .collect(Collectors.joining("&"));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(readTimeout)
+                .header("Content-Type", "application/x-www-form-urlencoded;charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return send(request, circuitBreaker);
+    }
+
+    public JsonObject postWithBearer(String url, String accessToken, CircuitBreaker circuitBreaker) throws BaseException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(readTimeout)
+                .header("Authorization", "Bearer " + accessToken)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return send(request, circuitBreaker);
+    }
+
+    private JsonObject send(HttpRequest request, CircuitBreaker circuitBreaker) throws BaseException {
+        //제공자 장애가 이어지면 바로 실패시켜서 요청 스레드가 묶이지 않게 함
+        if (!circuitBreaker.allowRequest()) {
+            throw new BaseException(OAUTH_SERVER_ERROR);
+        }
+
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+                int status = response.statusCode();
+                if (status >= 500) {
+                    circuitBreaker.recordFailure();
+                    logger.warn("소셜 로그인 서버 오류 : {} {}", request.uri().getHost(), status);
+                    throw new BaseException(OAUTH_SERVER_ERROR);
+                }
+                //4xx 는 잘못된 인가 코드나 토큰이므로 제공자 장애로 보지 않음
+                circuitBreaker.recordSuccess();
+                if (status != 200) {
+                    throw new BaseException(FAILED_TO_LOGIN);
+                }
+                return JsonParser.parseReader(reader).getAsJsonObject();
+            }
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            circuitBreaker.recordFailure();
+            logger.warn("소셜 로그인 서버 호출 실패 : {} {}", request.uri().getHost(), e.getMessage());
+            throw new BaseException(OAUTH_SERVER_ERROR);
+        } catch (InterruptedException e) {
+            //half-open 시험 호출이었다면 풀어주지 않으면 계속 열린 채로 남음
+            circuitBreaker.releaseTrial();
+            Thread.currentThread().interrupt();
+            throw new BaseException(OAUTH_SERVER_ERROR);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value == null ? "" : value, StandardCharsets.UTF_8);
+    }
+}
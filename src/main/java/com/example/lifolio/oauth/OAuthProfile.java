@@ -0,0 +1,13 @@
+package com.example.lifolio.oauth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//소셜 로그인 제공자에서 받아온 유저 정보
+@Getter
+@AllArgsConstructor
+public class OAuthProfile {
+    private String provider; //kakao, naver
+    private String id;
+    private String name;
+}
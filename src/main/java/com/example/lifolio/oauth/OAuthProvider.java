@@ -0,0 +1,12 @@
+package com.example.lifolio.oauth;
+
+import com.example.lifolio.base.BaseException;
+
+public interface OAuthProvider {
+
+    //인가 코드로 access token 발급
+    String getAccessToken(String code) throws BaseException;
+
+    //access token 으로 유저 정보 조회
+    OAuthProfile getProfile(String accessToken) throws BaseException;
+}
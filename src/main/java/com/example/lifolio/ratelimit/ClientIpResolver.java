@@ -0,0 +1,120 @@
+package com.example.lifolio.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 요청한 클라이언트 IP (IP 기준 요청 제한, 문자 발송 제한용)
+ * 로드밸런서 뒤에서는 getRemoteAddr() 가 로드밸런서 주소이므로, 직접 연결한 주소가 신뢰하는 프록시일 때만
+ * X-Forwarded-For 를 오른쪽부터 읽어서 처음 나오는 신뢰하지 않는 주소를 사용 (클라이언트가 넣은 앞쪽 값은 무시)
+ */
+@Component
+public class ClientIpResolver {
+
+    private final List<Cidr> trustedProxies = new ArrayList<>();
+
+    public ClientIpResolver(@Value("${client-ip.trusted-proxies:127.0.0.0/8,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16,::1/128}")
+                            List<String> trustedProxies) {
+        for (String proxy : trustedProxies) {
+            if (!proxy.isBlank()) {
+                this.trustedProxies.add(Cidr.parse(proxy.trim()));
+            }
+        }
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddr;
+        }
+
+        String[] hops = forwardedFor.split(",");
+        String client = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        byte[] bytes = Cidr.toBytes(address);
+        if (bytes == null) {
+            return false;
+        }
+        for (Cidr cidr : trustedProxies) {
+            if (cidr.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //주소 대역 (a.b.c.d/n, 접두 길이가 없으면 주소 하나)
+    static final class Cidr {
+        private final byte[] network;
+        private final int prefixLength;
+
+        private Cidr(byte[] network, int prefixLength) {
+            this.network = network;
+            this.prefixLength = prefixLength;
+        }
+
+        static Cidr parse(String value) {
+            int slash = value.indexOf('/');
+            byte[] network = toBytes(slash < 0 ? value : value.substring(0, slash));
+            if (network == null) {
+                throw new IllegalArgumentException("잘못된 프록시 주소 : " + value);
+            }
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(value.substring(slash + 1));
+            return new Cidr(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = (0xff << (8 - remainingBits)) & 0xff;
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+
+        //IP 리터럴만 변환 (호스트 이름은 DNS 조회 없이 null)
+        static byte[] toBytes(String address) {
+            if (address == null || address.isEmpty()
+                    || !(address.indexOf(':') >= 0 || address.chars().allMatch(c -> c == '.' || Character.isDigit(c)))) {
+                return null;
+            }
+            try {
+                return InetAddress.getByName(address).getAddress();
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.lifolio.ratelimit;
+
+import com.example.lifolio.base.BaseResponseStatus;
+import com.example.lifolio.jwt.TokenProvider;
+import io.jsonwebtoken.Claims;
+import org.json.JSONObject;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * JwtFilter 다음에 실행, 인증된 요청은 유저 기준, 아니면 IP 기준으로 제한
+ * 제한에 걸리면 429 + Retry-After(초)
+ */
+public class RateLimitFilter extends GenericFilterBean {
+
+    private final RateLimiter rateLimiter;
+    private final ClientIpResolver clientIpResolver;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ClientIpResolver clientIpResolver) {
+        this.rateLimiter = rateLimiter;
+        this.clientIpResolver = clientIpResolver;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+            throws IOException, ServletException {
+        HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
+        RateLimitProperties.Group group = rateLimiter.findGroup(httpServletRequest.getRequestURI());
+
+        if (group != null) {
+            long waitMillis = rateLimiter.tryAcquire(group, clientKey(httpServletRequest));
+            if (waitMillis > 0) {
+                setResponse((HttpServletResponse) servletResponse, waitMillis);
+                return;
+            }
+        }
+
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Claims claims = (Claims) request.getAttribute(TokenProvider.CLAIMS_ATTRIBUTE);
+        if (claims != null && claims.get("userId") != null) {
+            return "user:" + claims.get("userId");
+        }
+        return "ip:" + clientIpResolver.resolve(request);
+    }
+
+    private void setResponse(HttpServletResponse response, long waitMillis) throws IOException {
+        BaseResponseStatus status = BaseResponseStatus.TOO_MANY_REQUESTS;
+        JSONObject json = new JSONObject();
+        response.setContentType("application/json;charset=UTF-8");
+        response.setCharacterEncoding("utf-8");
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf((waitMillis + 999) / 1000));
+
+        json.put("isSuccess", false);
+        json.put("code", status.getCode());
+        json.put("message", status.getMessage());
+        response.getWriter().print(json);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.lifolio.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 경로 그룹별 요청 제한 설정 (rate-limit.groups 로 덮어쓸 수 있음)
+ * 위에서부터 처음 일치하는 그룹 하나만 적용
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private List<Group> groups = new ArrayList<>(Arrays.asList(
+            //앱이 주기적으로 호출하는 화면
+            new Group("polling", Arrays.asList("/home/**", "/planning/day", "/my/calender", "/my/dailyCalender"), 20, 500),
+            //아이디 / 닉네임 중복 확인, 휴대폰 인증 (입력할 때마다 호출되므로 느슨하게, 문자 발송은 PhoneVerificationService 에서 따로 제한)
+            new Group("check", Arrays.asList("/user/check/**"), 30, 500),
+            //로그인, 가입, 아이디 찾기, 토큰 재발급 (대부분 IP 기준)
+            new Group("auth", Arrays.asList("/user/login", "/user/signup", "/user/find", "/user/re_token", "/auth/**"), 10, 3000),
+            new Group("default", Arrays.asList("/**"), 100, 100)
+    ));
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Group {
+        private String name;
+        private List<String> patterns;
+        private int capacity; //한 번에 허용하는 요청 수
+        private long refillMillis; //토큰 1개가 다시 차는 시간
+    }
+}
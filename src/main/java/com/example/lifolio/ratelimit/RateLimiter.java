@@ -0,0 +1,180 @@
+package com.example.lifolio.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 경로 그룹 + 유저(또는 IP) 별 토큰 버킷
+ * 요청마다 Redis 를 호출하지 않고 노드 메모리의 버킷(CAS 한 번)으로 판단하고,
+ * 주기적으로 각 노드가 허용한 요청 수를 Redis 에 더한 뒤 클러스터 전체 상태를 받아와 합침
+ * 동기화 사이에는 노드 수만큼 조금 더 허용될 수 있음
+ */
+@Component
+public class RateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    //버킷은 GCRA(다음 토큰이 생기는 이론상 시각 하나)로 표현, 노드가 허용한 개수만큼 Redis 쪽 시각을 뒤로 미룸
+    private static final RedisScript<Long> SYNC_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1])\n" +
+            "local tat = tonumber(redis.call('GET', KEYS[1]) or '0')\n" +
+            "if tat < now then tat = now end\n" +
+            "tat = tat + tonumber(ARGV[2])\n" +
+            "redis.call('SET', KEYS[1], tostring(tat), 'PX', math.max(1, tat - now + tonumber(ARGV[3])))\n" +
+            "return tat", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RateLimitProperties rateLimitProperties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(RedisTemplate<String, String> redisTemplate, RateLimitProperties rateLimitProperties) {
+        this.redisTemplate = redisTemplate;
+        this.rateLimitProperties = rateLimitProperties;
+    }
+
+    public RateLimitProperties.Group findGroup(String requestURI) {
+        if (!rateLimitProperties.isEnabled()) {
+            return null;
+        }
+        for (RateLimitProperties.Group group : rateLimitProperties.getGroups()) {
+            for (String pattern : group.getPatterns()) {
+                if (pathMatcher.match(pattern, requestURI)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    //허용하면 0, 아니면 다시 시도할 수 있을 때까지 남은 ms
+    public long tryAcquire(RateLimitProperties.Group group, String clientKey) {
+        String key = group.getName() + ":" + clientKey;
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(group.getCapacity(), group.getRefillMillis()));
+        return bucket.tryAcquire(System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sync-interval-ms:500}")
+    public void syncWithRedis() {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+
+        List<String> keys = new ArrayList<>();
+        List<Bucket> dirty = new ArrayList<>();
+        List<Long> pending = new ArrayList<>();
+        buckets.forEach((key, bucket) -> {
+            long count = bucket.drainPending();
+            if (count == 0 && bucket.isIdle(now)) {
+                //가득 찬 채로 쉬고 있는 버킷은 정리
+                buckets.remove(key, bucket);
+                return;
+            }
+            keys.add(key);
+            dirty.add(bucket);
+            pending.add(count);
+        });
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                    for (int i = 0; i < keys.size(); i++) {
+                        Bucket bucket = dirty.get(i);
+                        redis.execute(SYNC_SCRIPT, Collections.singletonList("rate-limit:" + keys.get(i)),
+                                String.valueOf(now),
+                                String.valueOf(pending.get(i) * bucket.interval),
+                                String.valueOf(bucket.tolerance));
+                    }
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            //Redis 장애 시에는 노드 단위 제한만 유지하고 다음 주기에 다시 반영
+            for (int i = 0; i < dirty.size(); i++) {
+                dirty.get(i).restorePending(pending.get(i));
+            }
+            logger.warn("요청 제한 동기화 실패 : {}", e.getMessage());
+            return;
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            Object result = results.get(i);
+            if (result instanceof Number) {
+                dirty.get(i).mergeRemote(((Number) result).longValue());
+            }
+        }
+    }
+
+    /**
+     * GCRA 토큰 버킷, 상태는 tat(다음 토큰이 생기는 이론상 시각) 하나라서 CAS 로 처리
+     * interval : 토큰 1개가 차는 시간, tolerance : 한 번에 몰려도 허용하는 폭 ((capacity - 1) * interval)
+     */
+    static class Bucket {
+        final long interval;
+        final long tolerance;
+        private final AtomicLong tat = new AtomicLong();
+        private final LongAdder pending = new LongAdder();
+
+        Bucket(int capacity, long refillMillis) {
+            this.interval = refillMillis;
+            this.tolerance = Math.max(0, capacity - 1) * refillMillis;
+        }
+
+        long tryAcquire(long now) {
+            while (true) {
+                long current = tat.get();
+                long base = Math.max(current, now);
+                long wait = base - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (tat.compareAndSet(current, base + interval)) {
+                    pending.increment();
+                    return 0;
+                }
+            }
+        }
+
+        long drainPending() {
+            return pending.sumThenReset();
+        }
+
+        void restorePending(long count) {
+            pending.add(count);
+        }
+
+        //Redis 에 모인 클러스터 전체 사용량이 더 많으면 그쪽을 따름
+        void mergeRemote(long remoteTat) {
+            tat.accumulateAndGet(remoteTat, Math::max);
+        }
+
+        boolean isIdle(long now) {
+            return tat.get() <= now;
+        }
+    }
+}
@@ -2,10 +2,58 @@ package com.example.lifolio.repository;
 
 import com.example.lifolio.entity.Alarm;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 public interface AlarmRepository extends JpaRepository<Alarm, Long> {
 
     Alarm findByUserId(Long userId);
 
+    //mask 에 해당하는 비트만 bits 값으로 바꿈 (조회 없이 한 번에)
+    @Modifying
+    @Transactional
+    @Query(value = "update Alarm set flags = (coalesce(flags, 0) & ~:mask) | :bits where user_id = :userId", nativeQuery = true)
+    int updateFlags(@Param("userId") Long userId, @Param("mask") int mask, @Param("bits") int bits);
+
+    //Redis 비트맵 재생성용 (userId 순서로 size 개씩)
+    @Query(value = "select user_id'userId',flags from Alarm where user_id > :lastUserId and flags is not null order by user_id limit :size", nativeQuery = true)
+    List<AlarmFlags> findFlags(@Param("lastUserId") Long lastUserId, @Param("size") int size);
+
+    //알림 컬럼 8개를 쓰던 기존 데이터를 flags 로 옮김
+    @Modifying
+    @Transactional
+    @Query(value = "update Alarm set flags = coalesce(week_alarm, 1) | coalesce(badge_alarm, 1) << 1 | coalesce(todo_alarm, 1) << 2 " +
+            "| coalesce(goal_alarm, 1) << 3 | coalesce(upload_alarm, 1) << 4 | coalesce(interest_alarm, 1) << 5 " +
+            "| coalesce(like_alarm, 1) << 6 | coalesce(marketing_alarm, 1) << 7 where flags is null", nativeQuery = true)
+    int packLegacyFlags();
+
+    //이 칸에서 TODO 알림을 받는 유저들의 시간대
+    @Query(value = "select distinct time_zone from Alarm where digest_slot = :slot and (flags & 4) <> 0", nativeQuery = true)
+    List<String> findTimeZonesBySlot(@Param("slot") int slot);
+
+    @Query(value = "select distinct time_zone from Alarm where time_zone is not null", nativeQuery = true)
+    List<String> findAllTimeZones();
+
+    //알림 시간을 정하지 않은 기존 유저는 기본 시간대, 18:00 ~ 18:29 로 채움
+    @Modifying
+    @Transactional
+    @Query(value = "update Alarm set time_zone = :defaultZone, digest_minute = coalesce(digest_minute, :defaultMinute + mod(user_id, :spread)) " +
+            "where time_zone is null", nativeQuery = true)
+    int fillDefaultDigestTime(@Param("defaultZone") String defaultZone, @Param("defaultMinute") int defaultMinute, @Param("spread") int spread);
+
+    //시간대 오프셋이 바뀌면 (서머타임) 칸 번호 다시 계산
+    @Modifying
+    @Transactional
+    @Query(value = "update Alarm set digest_slot = mod(digest_minute - :offsetMinutes + 1440, 1440) " +
+            "where time_zone = :zone and (digest_slot is null or digest_slot <> mod(digest_minute - :offsetMinutes + 1440, 1440))", nativeQuery = true)
+    int realignDigestSlots(@Param("zone") String zone, @Param("offsetMinutes") int offsetMinutes);
 
-}
\ No newline at end of file
+    interface AlarmFlags {
+        Long getUserId();
+        int getFlags();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.lifolio.repository;
+
+import com.example.lifolio.entity.MyFolioDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MyFolioDailyRepository extends JpaRepository<MyFolioDaily, Long> {
+
+    //월간 캘린더 : (user_id, day) 유니크 인덱스 범위 조회
+    List<MyFolioDaily> findByUserIdAndDayGreaterThanEqualAndDayLessThanOrderByDayAsc(Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * MyFolio 한 건 추가 : 그날 대표보다 별점이 같거나 높으면 대표로 교체 (같으면 나중에 쓴 MyFolio)
+     * MyFolio 와 겹치는 컬럼명이 있어 MyFolioDaily 로 한정, 대입은 왼쪽부터 적용되므로 top_folio_id 를 먼저 바꾸고 나머지 컬럼은 바뀐 top_folio_id 로 판단, top_star 는 마지막
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into MyFolioDaily (user_id, day, top_folio_id, top_star, title, color, cover_url) " +
+            "select MF.user_id, MF.start_date, MF.id, coalesce(MF.star, 0), MF.title, Color.color_name, " +
+            "(select MFI.url from MyFolioImg MFI where MFI.folio_Id = MF.id order by MFI.id limit 1) " +
+            "from MyFolio MF " +
+            "left join SubCategory SC on MF.category_id = SC.id " +
+            "left join Category C on SC.category_id = C.id " +
+            "left join Color on C.color_id = Color.id " +
+            "where MF.id = :folioId and MF.start_date is not null " +
+            "on duplicate key update " +
+            "MyFolioDaily.top_folio_id = if(values(top_star) >= MyFolioDaily.top_star, values(top_folio_id), MyFolioDaily.top_folio_id), " +
+            "MyFolioDaily.title = if(MyFolioDaily.top_folio_id = values(top_folio_id), values(title), MyFolioDaily.title), " +
+            "MyFolioDaily.color = if(MyFolioDaily.top_folio_id = values(top_folio_id), values(color), MyFolioDaily.color), " +
+            "MyFolioDaily.cover_url = if(MyFolioDaily.top_folio_id = values(top_folio_id), values(cover_url), MyFolioDaily.cover_url), " +
+            "MyFolioDaily.top_star = if(MyFolioDaily.top_folio_id = values(top_folio_id), values(top_star), MyFolioDaily.top_star)",
+            nativeQuery = true)
+    int addFolio(@Param("folioId") Long folioId);
+
+    //userId 범위의 날짜별 대표를 MyFolio 기준으로 다시 계산 (수정 / 삭제, 카테고리 색상 변경, 매일 재생성)
+    @Modifying
+    @Transactional
+    @Query(value = "insert into MyFolioDaily (user_id, day, top_folio_id, top_star, title, color, cover_url) " +
+            "select MF.user_id, MF.start_date, MF.id, coalesce(MF.star, 0), MF.title, Color.color_name, " +
+            "(select MFI.url from MyFolioImg MFI where MFI.folio_Id = MF.id order by MFI.id limit 1) " +
+            "from MyFolio MF " +
+            "left join SubCategory SC on MF.category_id = SC.id " +
+            "left join Category C on SC.category_id = C.id " +
+            "left join Color on C.color_id = Color.id " +
+            "where MF.user_id > :fromUserId and MF.user_id <= :toUserId and MF.start_date is not null " +
+            "and MF.id = (select MF2.id from MyFolio MF2 where MF2.user_id = MF.user_id and MF2.start_date = MF.start_date " +
+            "order by coalesce(MF2.star, 0) desc, MF2.id desc limit 1) " +
+            "on duplicate key update MyFolioDaily.top_folio_id = values(top_folio_id), MyFolioDaily.top_star = values(top_star), " +
+            "MyFolioDaily.title = values(title), MyFolioDaily.color = values(color), MyFolioDaily.cover_url = values(cover_url)",
+            nativeQuery = true)
+    int rebuildUsers(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+
+    //대표 MyFolio 가 지워졌거나 다른 날로 옮겨진 날 삭제 (그날 남은 MyFolio 가 있으면 rebuildUsers 가 이미 대표를 바꿔 둠)
+    @Modifying
+    @Transactional
+    @Query(value = "delete D from MyFolioDaily D " +
+            "where D.user_id > :fromUserId and D.user_id <= :toUserId and not exists (" +
+            "select 1 from MyFolio MF where MF.id = D.top_folio_id and MF.user_id = D.user_id and MF.start_date = D.day)",
+            nativeQuery = true)
+    int deleteEmptyDays(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+}
@@ -0,0 +1,73 @@
+package com.example.lifolio.repository;
+
+import com.example.lifolio.entity.MyFolioMonthly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface MyFolioMonthlyRepository extends JpaRepository<MyFolioMonthly, Long> {
+
+    //홈 그래프 : 올해 월별 최고 별점
+    @Query(value = "select max(max_star)'star', month\n" +
+            "from MyFolioMonthly\n" +
+            "where user_id = :userId and year = :year\n" +
+            "group by month\n" +
+            "order by month", nativeQuery = true)
+    List<GraphLifolio> getMainFolio(@Param("userId") Long userId, @Param("year") int year);
+
+    interface GraphLifolio {
+        int getStar();
+        int getMonth();
+    }
+
+    //커스텀 라이폴리오 그래프 : 연월별 최고 별점
+    @Query(value = "select max(R.max_star)'star', concat(R.year,'-',R.month)'day'\n" +
+            "from CustomLifolio CL\n" +
+            "         join MyFolioMonthly R on R.user_id = CL.user_id and R.sub_category_id = CL.category_id\n" +
+            "where CL.id = :customId and CL.user_id = :userId\n" +
+            "group by R.year, R.month\n" +
+            "order by R.year, R.month", nativeQuery = true)
+    List<CustomGraphLifolio> getGraphLifolio(@Param("userId") Long userId, @Param("customId") Long customId);
+
+    interface CustomGraphLifolio {
+        int getStar();
+        String getDay();
+    }
+
+    //MyFolio 한 건 추가
+    @Modifying
+    @Transactional
+    @Query(value = "insert into MyFolioMonthly (user_id, sub_category_id, year, month, max_star, folio_count, sum_star) " +
+            "values (:userId, :subCategoryId, :year, :month, :star, 1, :star) " +
+            "on duplicate key update max_star = greatest(max_star, values(max_star)), folio_count = folio_count + 1, sum_star = sum_star + values(sum_star)",
+            nativeQuery = true)
+    int addFolio(@Param("userId") Long userId, @Param("subCategoryId") Long subCategoryId,
+                 @Param("year") int year, @Param("month") int month, @Param("star") int star);
+
+    //userId 범위의 집계를 MyFolio 기준으로 다시 계산 (수정 / 삭제, 매일 재생성)
+    @Modifying
+    @Transactional
+    @Query(value = "insert into MyFolioMonthly (user_id, sub_category_id, year, month, max_star, folio_count, sum_star) " +
+            "select user_id, category_id, YEAR(start_date), MONTH(start_date), max(coalesce(star, 0)), count(*), sum(coalesce(star, 0)) " +
+            "from MyFolio " +
+            "where user_id > :fromUserId and user_id <= :toUserId and start_date is not null and category_id is not null " +
+            "group by user_id, category_id, YEAR(start_date), MONTH(start_date) " +
+            "on duplicate key update max_star = values(max_star), folio_count = values(folio_count), sum_star = values(sum_star)",
+            nativeQuery = true)
+    int rebuildUsers(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+
+    //MyFolio 가 모두 지워졌거나 다른 달 / 소분류로 옮겨진 칸 삭제
+    @Modifying
+    @Transactional
+    @Query(value = "delete R from MyFolioMonthly R " +
+            "where R.user_id > :fromUserId and R.user_id <= :toUserId and not exists (" +
+            "select 1 from MyFolio MF where MF.user_id = R.user_id and MF.category_id = R.sub_category_id " +
+            "and MF.start_date >= makedate(R.year, 1) + interval (R.month - 1) month " +
+            "and MF.start_date < makedate(R.year, 1) + interval R.month month)",
+            nativeQuery = true)
+    int deleteEmptyCells(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+}
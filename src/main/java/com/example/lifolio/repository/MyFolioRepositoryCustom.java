@@ -0,0 +1,134 @@
+package com.example.lifolio.repository;
+
+import com.example.lifolio.dto.my.MyRes;
+import com.example.lifolio.dto.user.UserRes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface MyFolioRepositoryCustom {
+
+    //유저의 MyFolio 를 날짜순으로 한 행씩 넘김 (그래프 시계열을 만들 때 엔티티 / 프로젝션 객체를 만들지 않음)
+    void forEachStar(Long userId, StarHandler handler);
+
+    interface StarHandler {
+        void accept(long subCategoryId, int epochDay, int star);
+    }
+
+    /**
+     * MyFolio 모아보기 (keyset 페이지네이션)
+     * subCategoryIds 가 비어 있으면 전체, after 가 null 이면 첫 페이지
+     * 대표 사진은 폴리오당 한 장, 보관함 여부(archiveCheck)는 채우지 않음 → findArchivedFolioIds
+     */
+    List<MyRes.ViewCategory> browse(Long userId, Collection<Long> subCategoryIds, BrowseOrder order, BrowseCursor after, int limit);
+
+    //이전 버전 앱의 page 조회 (offset 만큼 건너뜀, 새 앱은 browse 사용)
+    List<MyRes.ViewCategory> browseOffset(Long userId, Collection<Long> subCategoryIds, BrowseOrder order, int offset, int limit);
+
+    //폴리오 중 보관함에 담긴 것 (페이지 단위로 한 번에 조회)
+    Set<Long> findArchivedFolioIds(Collection<Long> folioIds);
+
+    /**
+     * MyFolio 세부 내용 (쿼리 두 번 : 폴리오 + 대분류 / 소분류 제목, 사진 + 같이 한 사람)
+     * 없는 폴리오면 null
+     */
+    FolioDetail findDetail(Long folioId);
+
+    //세부 내용 + 작성자 (작성자는 캐시 무효화용)
+    final class FolioDetail {
+        private final Long userId;
+        private final UserRes.GetMyFolioDetailRes detail;
+
+        public FolioDetail(Long userId, UserRes.GetMyFolioDetailRes detail) {
+            this.userId = userId;
+            this.detail = detail;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public UserRes.GetMyFolioDetailRes getDetail() {
+            return detail;
+        }
+    }
+
+    //모아보기 정렬 (정렬 컬럼, 방향) - 각각 (user_id, 컬럼, id) 인덱스를 탐
+    enum BrowseOrder {
+        DATE_DESC("start_date", false), DATE_ASC("start_date", true), STAR_DESC("star", false), STAR_ASC("star", true);
+
+        final String column;
+        final boolean ascending;
+
+        BrowseOrder(String column, boolean ascending) {
+            this.column = column;
+            this.ascending = ascending;
+        }
+
+        //기존 API 의 order 값 (1 최신순, 2 오래된 순, 3 높은 중요도순, 그 외 낮은 중요도순)
+        public static BrowseOrder of(int order) {
+            switch (order) {
+                case 1:
+                    return DATE_DESC;
+                case 2:
+                    return DATE_ASC;
+                case 3:
+                    return STAR_DESC;
+                default:
+                    return STAR_ASC;
+            }
+        }
+    }
+
+    //마지막으로 내려준 행의 (정렬 값, id), 정렬 값이 null 인 행도 있으므로 value 는 null 가능
+    final class BrowseCursor {
+        final BrowseOrder order;
+        final String value;
+        final long folioId;
+
+        BrowseCursor(BrowseOrder order, String value, long folioId) {
+            this.order = order;
+            this.value = value;
+            this.folioId = folioId;
+        }
+
+        public static BrowseCursor after(BrowseOrder order, MyRes.ViewCategory last) {
+            String value;
+            if (order.column.equals("star")) {
+                value = last.getStar() == null ? null : String.valueOf(last.getStar());
+            } else {
+                value = last.getDate() == null ? null : last.getDate().toString();
+            }
+            return new BrowseCursor(order, value, last.getFolioId());
+        }
+
+        //클라이언트에 내려주는 문자열 (정렬 방식이 다른 커서는 받지 않음)
+        public String encode() {
+            String raw = order.name() + ":" + (value == null ? "" : value) + ":" + folioId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        //형식이 잘못됐으면 IllegalArgumentException
+        public static BrowseCursor decode(String cursor, BrowseOrder order) {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 3 || !parts[0].equals(order.name())) {
+                throw new IllegalArgumentException("cursor");
+            }
+            String value = parts[1].isEmpty() ? null : parts[1];
+            if (value != null) {
+                //정렬 컬럼 형식 검증
+                if (order.column.equals("star")) {
+                    Integer.parseInt(value);
+                } else {
+                    LocalDate.parse(value);
+                }
+            }
+            return new BrowseCursor(order, value, Long.parseLong(parts[2]));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.lifolio.repository;
+
+import com.example.lifolio.dto.my.MyRes;
+import com.example.lifolio.dto.user.UserRes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class MyFolioRepositoryImpl implements MyFolioRepositoryCustom {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachStar(Long userId, StarHandler handler) {
+        jdbcTemplate.query(
+                "select category_id, to_days(start_date) - to_days('1970-01-01') epoch_day, coalesce(star, 0) star from MyFolio " +
+                "where user_id = :userId and start_date is not null and category_id is not null " +
+                "order by start_date",
+                new MapSqlParameterSource("userId", userId),
+                (RowCallbackHandler) rs -> handler.accept(rs.getLong("category_id"), rs.getInt("epoch_day"), rs.getInt("star")));
+    }
+
+    @Override
+    public List<MyRes.ViewCategory> browse(Long userId, Collection<Long> subCategoryIds, BrowseOrder order, BrowseCursor after, int limit) {
+        return browse(userId, subCategoryIds, order, after, 0, limit);
+    }
+
+    @Override
+    public List<MyRes.ViewCategory> browseOffset(Long userId, Collection<Long> subCategoryIds, BrowseOrder order, int offset, int limit) {
+        return browse(userId, subCategoryIds, order, null, offset, limit);
+    }
+
+    private List<MyRes.ViewCategory> browse(Long userId, Collection<Long> subCategoryIds, BrowseOrder order, BrowseCursor after, int offset, int limit) {
+        String column = "MF." + order.column;
+        String direction = order.ascending ? "asc" : "desc";
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId).addValue("limit", limit).addValue("offset", offset);
+
+        StringBuilder sql = new StringBuilder(
+                "select MF.id, MF.title, MF.start_date, MF.star, SC.title category, Color.color_name, " +
+                //대표 사진 한 장 (페이지에 나갈 행만 조회)
+                "(select MFI.url from MyFolioImg MFI where MFI.folio_Id = MF.id order by MFI.id limit 1) url " +
+                "from MyFolio MF " +
+                "join SubCategory SC on SC.id = MF.category_id " +
+                "join Category C on C.id = SC.category_id " +
+                "join Color on Color.id = C.color_id " +
+                "where MF.user_id = :userId ");
+        if (subCategoryIds != null && !subCategoryIds.isEmpty()) {
+            sql.append("and MF.category_id in (:subCategoryIds) ");
+            params.addValue("subCategoryIds", subCategoryIds);
+        }
+        if (after != null) {
+            sql.append("and ").append(keysetCondition(column, order.ascending, after.value != null)).append(' ');
+            params.addValue("afterValue", after.value).addValue("afterId", after.folioId);
+        }
+        //MySQL 은 오름차순에서 null 이 먼저, 내림차순에서 null 이 나중에 나옴
+        sql.append("order by ").append(column).append(' ').append(direction)
+                .append(", MF.id ").append(direction).append(" limit :limit");
+        if (offset > 0) {
+            sql.append(" offset :offset");
+        }
+
+        return jdbcTemplate.query(sql.toString(), params, VIEW_CATEGORY_MAPPER);
+    }
+
+    //별점이 없는 폴리오는 0 이 아니라 null 로 (정렬, 커서가 null 기준으로 동작)
+    static final RowMapper<MyRes.ViewCategory> VIEW_CATEGORY_MAPPER = (rs, rowNum) -> {
+        Date startDate = rs.getDate("start_date");
+        return MyRes.ViewCategory.builder()
+                .folioId(rs.getLong("id"))
+                .url(rs.getString("url"))
+                .title(rs.getString("title"))
+                .date(startDate == null ? null : startDate.toLocalDate())
+                .category(rs.getString("category"))
+                .colorName(rs.getString("color_name"))
+                .star(rs.getObject("star", Integer.class))
+                .build();
+    };
+
+    /**
+     * 커서 다음 행 조건 (정렬 값, id) 비교
+     * 오름차순 : null 인 행이 먼저 나오므로 커서 값이 null 이면 남은 null 행 + null 이 아닌 행 전부
+     * 내림차순 : null 인 행이 마지막에 나오므로 커서 값이 있으면 더 작은 값 + null 행 전부
+     */
+    static String keysetCondition(String column, boolean ascending, boolean hasValue) {
+        if (ascending) {
+            return hasValue
+                    ? "(" + column + " > :afterValue or (" + column + " = :afterValue and MF.id > :afterId))"
+                    : "((" + column + " is null and MF.id > :afterId) or " + column + " is not null)";
+        }
+        return hasValue
+                ? "(" + column + " < :afterValue or (" + column + " = :afterValue and MF.id < :afterId) or " + column + " is null)"
+                : "(" + column + " is null and MF.id < :afterId)";
+    }
+
+    @Override
+    public Set<Long> findArchivedFolioIds(Collection<Long> folioIds) {
+        Set<Long> archived = new HashSet<>();
+        if (folioIds.isEmpty()) {
+            return archived;
+        }
+        jdbcTemplate.query("select distinct folio_id from Archive where folio_id in (:folioIds)",
+                new MapSqlParameterSource("folioIds", folioIds),
+                (RowCallbackHandler) rs -> archived.add(rs.getLong("folio_id")));
+        return archived;
+    }
+
+    @Override
+    public FolioDetail findDetail(Long folioId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("folioId", folioId);
+        List<FolioDetail> folios = jdbcTemplate.query(
+                "select MF.user_id, MF.title, MF.star, C.title category, SC.title sub_category, MF.start_date, MF.end_date, " +
+                "MF.content, MF.address, MF.latitude, MF.longitude " +
+                "from MyFolio MF " +
+                "left join SubCategory SC on SC.id = MF.category_id " +
+                "left join Category C on C.id = SC.category_id " +
+                "where MF.id = :folioId",
+                params,
+                (rs, rowNum) -> {
+                    Date startDate = rs.getDate("start_date");
+                    Date endDate = rs.getDate("end_date");
+                    return new FolioDetail(rs.getLong("user_id"), UserRes.GetMyFolioDetailRes.builder()
+                            .myFolioTitle(rs.getString("title"))
+                            .star(rs.getInt("star"))
+                            .category(rs.getString("category"))
+                            .subCategory(rs.getString("sub_category"))
+                            .myFolioImgList(new ArrayList<>())
+                            .startDate(startDate == null ? null : startDate.toLocalDate())
+                            .endDate(endDate == null ? null : endDate.toLocalDate())
+                            .content(rs.getString("content"))
+                            .address(rs.getString("address"))
+                            .latitude(rs.getBigDecimal("latitude"))
+                            .longitude(rs.getBigDecimal("longitude"))
+                            .myFolioWithList(new ArrayList<>())
+                            .build());
+                });
+        if (folios.isEmpty()) {
+            return null;
+        }
+
+        //사진과 같이 한 사람은 union 으로 한 번에 (각각 저장 순서대로)
+        UserRes.GetMyFolioDetailRes detail = folios.get(0).getDetail();
+        jdbcTemplate.query(
+                "select 'img' kind, id, url value from MyFolioImg where folio_Id = :folioId " +
+                "union all " +
+                "select 'with' kind, id, user_name value from MyFolioWith where folio_Id = :folioId " +
+                "order by kind, id",
+                params,
+                (RowCallbackHandler) rs -> {
+                    if ("img".equals(rs.getString("kind"))) {
+                        detail.getMyFolioImgList().add(new UserRes.MyFolioImgList(rs.getString("value")));
+                    } else {
+                        detail.getMyFolioWithList().add(new UserRes.MyFolioWithList(rs.getString("value")));
+                    }
+                });
+        return folios.get(0);
+    }
+}
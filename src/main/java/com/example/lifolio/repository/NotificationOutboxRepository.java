@@ -0,0 +1,36 @@
+package com.example.lifolio.repository;
+
+import com.example.lifolio.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long>, NotificationOutboxRepositoryCustom {
+
+    @Modifying
+    @Transactional
+    @Query(value = "update NotificationOutbox set status = 'SENT', locked_until = null, updated_at = now() where id in (:ids)", nativeQuery = true)
+    int markSent(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query(value = "update NotificationOutbox set status = 'FAILED', locked_until = null, updated_at = now() where id in (:ids)", nativeQuery = true)
+    int markFailed(@Param("ids") Collection<Long> ids);
+
+    //일시적 실패 : 시도 횟수에 따라 30초, 1분, 2분 ... 최대 1시간 뒤 다시 발송
+    @Modifying
+    @Transactional
+    @Query(value = "update NotificationOutbox set status = 'PENDING', locked_until = null, updated_at = now(), " +
+            "next_attempt_at = date_add(now(), interval least(30 * power(2, attempts - 1), 3600) second) where id in (:ids)", nativeQuery = true)
+    int reschedule(@Param("ids") Collection<Long> ids);
+
+    //발송이 끝난 지 오래된 알림 정리
+    @Modifying
+    @Transactional
+    @Query(value = "delete from NotificationOutbox where status in ('SENT', 'FAILED') and updated_at < date_sub(now(), interval :days day) limit 10000", nativeQuery = true)
+    int deleteFinishedBefore(@Param("days") int days);
+}
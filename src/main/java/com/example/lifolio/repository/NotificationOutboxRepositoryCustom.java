@@ -0,0 +1,14 @@
+package com.example.lifolio.repository;
+
+import com.example.lifolio.entity.NotificationOutbox;
+
+import java.util.List;
+
+public interface NotificationOutboxRepositoryCustom {
+
+    //idempotency_key 가 이미 있으면 건너뜀, 새로 들어간 개수 반환
+    int insertIgnore(List<NotificationOutbox> notifications);
+
+    //발송할 알림을 size 개까지 가져가서 SENDING 으로 표시 (다른 워커가 잡고 있는 행은 건너뜀)
+    List<NotificationOutbox> claim(int size, long leaseSeconds);
+}
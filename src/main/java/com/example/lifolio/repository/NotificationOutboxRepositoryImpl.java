@@ -0,0 +1,69 @@
+package com.example.lifolio.repository;
+
+import com.example.lifolio.entity.NotificationOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class NotificationOutboxRepositoryImpl implements NotificationOutboxRepositoryCustom {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertIgnore(List<NotificationOutbox> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        SqlParameterSource[] params = notifications.stream()
+                .map(notification -> new MapSqlParameterSource()
+                        .addValue("userId", notification.getUserId())
+                        .addValue("idempotencyKey", notification.getIdempotencyKey())
+                        .addValue("targetToken", notification.getTargetToken())
+                        .addValue("title", notification.getTitle())
+                        .addValue("body", notification.getBody()))
+                .toArray(SqlParameterSource[]::new);
+
+        int[] inserted = jdbcTemplate.batchUpdate(
+                "insert ignore into NotificationOutbox (user_id, idempotency_key, target_token, title, body, status, attempts, next_attempt_at, created_at, updated_at) " +
+                "values (:userId, :idempotencyKey, :targetToken, :title, :body, 'PENDING', 0, now(), now(), now())", params);
+        return Arrays.stream(inserted).map(count -> Math.max(count, 0)).sum();
+    }
+
+    @Override
+    @Transactional
+    public List<NotificationOutbox> claim(int size, long leaseSeconds) {
+        List<NotificationOutbox> claimed = jdbcTemplate.query(
+                "select id, user_id, idempotency_key, target_token, title, body, attempts from NotificationOutbox " +
+                "where (status = 'PENDING' and next_attempt_at <= now()) " +
+                "or (status = 'SENDING' and locked_until < now()) " +
+                "order by id limit :size for update skip locked",
+                new MapSqlParameterSource("size", size),
+                (rs, rowNum) -> NotificationOutbox.builder()
+                        .id(rs.getLong("id"))
+                        .userId(rs.getLong("user_id"))
+                        .idempotencyKey(rs.getString("idempotency_key"))
+                        .targetToken(rs.getString("target_token"))
+                        .title(rs.getString("title"))
+                        .body(rs.getString("body"))
+                        .status(NotificationOutbox.SENDING)
+                        .attempts(rs.getInt("attempts") + 1)
+                        .build());
+
+        if (!claimed.isEmpty()) {
+            jdbcTemplate.update(
+                    "update NotificationOutbox set status = 'SENDING', attempts = attempts + 1, " +
+                    "locked_until = date_add(now(), interval :lease second), updated_at = now() where id in (:ids)",
+                    new MapSqlParameterSource()
+                            .addValue("lease", leaseSeconds)
+                            .addValue("ids", claimed.stream().map(NotificationOutbox::getId).collect(Collectors.toList())));
+        }
+        return claimed;
+    }
+}
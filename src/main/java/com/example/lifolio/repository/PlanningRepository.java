@@ -1,7 +1,6 @@
 package com.example.lifolio.repository;
 
 
-import com.example.lifolio.entity.MyFolioWith;
 import com.example.lifolio.entity.Planning;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -16,29 +15,41 @@ public interface PlanningRepository extends JpaRepository<Planning, Long> {
     List<Planning> findByUserIdAndDateBetweenOrderByDateAsc(Long userId, LocalDateTime startDate, LocalDateTime finishDate);
     List<Planning> findByUserId(Long userId);
 
-    @Query(value = "select U.id'userId',U.nickname,fcm_token'fcmToken' \n" +
-            "from User U\n" +
-            "         join Planning P on U.id = P.user_id\n" +
-            "         join Alarm A on P.user_id = A.user_id\n" +
-            "where todo_alarm = 1\n" +
-            "and DATE(date) = DATE(now()) group by U.id;\n",nativeQuery = true)
-    List<UserIdList> getUserIdList();
-
-
-    @Query(value = "select P.success \n" +
-            "from User U\n" +
-            "         join Planning P on U.id = P.user_id\n" +
-            "         join Alarm A on P.user_id = A.user_id\n" +
-            "where todo_alarm = 1\n" +
-            "and DATE(date) = DATE(now()) and P.user_id = :userId",nativeQuery = true)
-    List<TodoList> getTodoList(@Param("userId") Long userId);
-    interface UserIdList {
+    /**
+     * 알림 칸(slot, 시간대)의 유저별 오늘 / 이번주 / 이번달 계획 개수, 완료 개수를 한 번에 조회
+     * 그 칸의 유저만 Alarm(digest_slot, time_zone, user_id) 인덱스에서 userId 순서로 size 명 고르고,
+     * 유저마다 기간별 개수는 (user_id, date) 인덱스로 셈 (칸과 상관없는 계획은 읽지 않음)
+     * 기간은 [start, end) 반개구간, weekly, monthly 가 0 이면 그 기간은 읽지 않음 (0 으로 채움)
+     * 세 기간 모두 계획이 없는 유저는 제외
+     */
+    @Query(value = "select A.user_id'userId',U.nickname,U.fcm_token'fcmToken',\n" +
+            "       (select count(*) from Planning P where P.user_id = A.user_id and P.date >= :dayStart and P.date < :dayEnd)'dailyTotal',\n" +
+            "       (select count(*) from Planning P where P.user_id = A.user_id and P.date >= :dayStart and P.date < :dayEnd and P.success = 1)'dailyDone',\n" +
+            "       if(:weekly = 1, (select count(*) from PlanningWeek P where P.user_id = A.user_id and P.date >= :weekStart and P.date < :weekEnd), 0)'weekTotal',\n" +
+            "       if(:weekly = 1, (select count(*) from PlanningWeek P where P.user_id = A.user_id and P.date >= :weekStart and P.date < :weekEnd and P.success = 1), 0)'weekDone',\n" +
+            "       if(:monthly = 1, (select count(*) from PlanningMonth P where P.user_id = A.user_id and P.date >= :monthStart and P.date < :monthEnd), 0)'monthTotal',\n" +
+            "       if(:monthly = 1, (select count(*) from PlanningMonth P where P.user_id = A.user_id and P.date >= :monthStart and P.date < :monthEnd and P.success = 1), 0)'monthDone'\n" +
+            "from Alarm A\n" +
+            "         join User U on U.id = A.user_id\n" +
+            "where A.digest_slot = :slot and A.time_zone = :zone and A.user_id > :lastUserId and A.user_id <= :maxUserId\n" +
+            "  and (A.flags & 4) <> 0 and U.fcm_token is not null and U.fcm_token <> ''\n" +
+            "having dailyTotal + weekTotal + monthTotal > 0\n" +
+            "order by A.user_id limit :size",nativeQuery = true)
+    List<DigestSummary> getDigestSummary(@Param("slot") int slot, @Param("zone") String zone,
+                                         @Param("dayStart") LocalDateTime dayStart, @Param("dayEnd") LocalDateTime dayEnd,
+                                         @Param("weekly") int weekly, @Param("weekStart") LocalDateTime weekStart, @Param("weekEnd") LocalDateTime weekEnd,
+                                         @Param("monthly") int monthly, @Param("monthStart") LocalDateTime monthStart, @Param("monthEnd") LocalDateTime monthEnd,
+                                         @Param("lastUserId") Long lastUserId, @Param("maxUserId") Long maxUserId, @Param("size") int size);
+
+    interface DigestSummary {
         Long getUserId();
         String getNickname();
         String getFcmToken();
-    }
-
-    interface TodoList {
-        int getSuccess();
+        int getDailyTotal();
+        int getDailyDone();
+        int getWeekTotal();
+        int getWeekDone();
+        int getMonthTotal();
+        int getMonthDone();
     }
 }
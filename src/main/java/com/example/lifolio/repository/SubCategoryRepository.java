@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,8 +22,14 @@ public interface SubCategoryRepository extends JpaRepository<SubCategory, Long>
     List<CategoryList> getSubCategoryList(@Param("categoryId") Long categoryId);
 
 
+    //이전 버전 앱이 보내는 소분류 제목을 id 로 변환
+    @Query(value="select SC.id from SubCategory SC join Category C on SC.category_id = C.id where C.user_id=:userId and SC.title in (:titles)",nativeQuery = true)
+    List<Long> findIdsByUserIdAndTitles(@Param("userId") Long userId, @Param("titles") List<String> titles);
+
     List<SubCategory> findByCategoryId(Long categoryId);
 
+    List<SubCategory> findByCategoryIdIn(Collection<Long> categoryIds);
+
     Optional<SubCategory> findById(Long id);
 
     interface CategoryList {
@@ -3,7 +3,13 @@ package com.example.lifolio.repository;
 import com.example.lifolio.entity.User;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,8 +17,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @EntityGraph(attributePaths = "authorities")
     Optional<User> findOneWithAuthoritiesByUsername(String username);
 
-//    @EntityGraph(attributePaths = "authorities")
-//    Optional<User> findOneWithAuthoritiesById(Long userId);
+    @EntityGraph(attributePaths = "authorities")
+    Optional<User> findOneWithAuthoritiesById(Long userId);
 
 
     User findByUsername(String username);
@@ -27,6 +33,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     User findByNameAndPhone(String name, String phone);
 
+    //비우기 전에 캐시된 principal 을 지울 유저
+    @Query(value = "select id from User where fcm_token in (:tokens)", nativeQuery = true)
+    List<Long> findIdsByFcmTokenIn(@Param("tokens") Collection<String> tokens);
+
+    //발송 결과 UNREGISTERED / 잘못된 등록 토큰인 토큰을 한 번에 비움
+    @Modifying
+    @Transactional
+    @Query(value = "update User set fcm_token = null where fcm_token in (:tokens)", nativeQuery = true)
+    int clearFcmTokens(@Param("tokens") Collection<String> tokens);
+
+    @Query("select u.username from User u")
+    List<String> findAllUsernames();
+
+    @Query("select u.nickname from User u where u.nickname is not null")
+    List<String> findAllNicknames();
+
+    //예약 작업 샤드 범위 계산용
+    @Query("select coalesce(max(u.id), 0) from User u")
+    Long findMaxId();
+
     boolean existsByUsernameAndSocial(String id, String social);
 
 
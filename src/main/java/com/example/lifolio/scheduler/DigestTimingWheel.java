@@ -0,0 +1,169 @@
+package com.example.lifolio.scheduler;
+
+import com.example.lifolio.entity.Alarm;
+import com.example.lifolio.repository.AlarmRepository;
+import com.example.lifolio.service.NotificationService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * TODO 요약 알림 타이밍 휠 (하루 1440칸, 1칸 = UTC 1분)
+ * 유저는 원하는 현지 시각을 고르고 Alarm.digest_slot 에 UTC 분으로 저장해 두면,
+ * 매분 그 칸의 유저만 조회해서 outbox 에 쌓음 → 18:00 한 번에 몰리던 부하가 하루에 나눠짐
+ * 처리가 밀리면 칸이 대기열에 쌓이고, 대기 칸 수와 칸별 지연을 지표로 남김
+ */
+@Component
+public class DigestTimingWheel {
+    private static final Logger logger = LoggerFactory.getLogger(DigestTimingWheel.class);
+
+    public static final int SLOTS = 24 * 60;
+
+    private static final String CURSOR_KEY = "digest-wheel:cursor";
+    //서버가 전부 내려가 있던 동안 지나간 칸은 최대 1시간까지만 다시 처리
+    private static final long MAX_CATCH_UP_MINUTES = 60;
+
+    private final AlarmRepository alarmRepository;
+    private final NotificationService notificationService;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    //처리할 칸 (epoch 분)
+    private final ConcurrentLinkedQueue<Long> dueMinutes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final ExecutorService wheelExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "digest-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DistributionSummary slotLag;
+    private final Timer slotDuration;
+
+    private volatile long lastTickMinute;
+
+    public DigestTimingWheel(AlarmRepository alarmRepository,
+                             NotificationService notificationService,
+                             RedisTemplate<String, String> redisTemplate,
+                             MeterRegistry meterRegistry) {
+        this.alarmRepository = alarmRepository;
+        this.notificationService = notificationService;
+        this.redisTemplate = redisTemplate;
+
+        meterRegistry.gauge("digest.wheel.depth", dueMinutes, ConcurrentLinkedQueue::size);
+        meterRegistry.gauge("digest.wheel.lag.seconds", this, wheel -> wheel.oldestLagMillis() / 1000.0);
+        this.slotLag = DistributionSummary.builder("digest.slot.lag")
+                .baseUnit("milliseconds")
+                .description("칸 예정 시각부터 처리 시작까지 걸린 시간")
+                .register(meterRegistry);
+        this.slotDuration = Timer.builder("digest.slot.duration").register(meterRegistry);
+    }
+
+    //현지 시각(0시부터 분)을 UTC 칸 번호로 변환 (현재 오프셋 기준)
+    public static int slotOf(int localMinute, ZoneId zone) {
+        int offsetMinutes = zone.getRules().getOffset(Instant.now()).getTotalSeconds() / 60;
+        return Math.floorMod(localMinute - offsetMinutes, SLOTS);
+    }
+
+    @PostConstruct
+    public void init() {
+        realignSlots();
+
+        long now = currentMinute();
+        String cursor = redisTemplate.opsForValue().get(CURSOR_KEY);
+        long last = cursor == null ? now - 1 : Long.parseLong(cursor);
+        lastTickMinute = Math.max(last, now - MAX_CATCH_UP_MINUTES);
+    }
+
+    //매분 0초에 지나간 칸을 대기열에 넣음
+    @Scheduled(cron = "0 * * * * *")
+    public void tick() {
+        long now = currentMinute();
+        for (long minute = lastTickMinute + 1; minute <= now; minute++) {
+            dueMinutes.add(minute);
+        }
+        lastTickMinute = Math.max(lastTickMinute, now);
+        redisTemplate.opsForValue().set(CURSOR_KEY, String.valueOf(lastTickMinute));
+
+        if (draining.compareAndSet(false, true)) {
+            wheelExecutor.submit(this::drain);
+        }
+    }
+
+    //서머타임 등으로 오프셋이 바뀐 시간대의 칸 번호를 매일 다시 계산
+    @Scheduled(cron = "0 5 0 * * *")
+    public void realignSlots() {
+        alarmRepository.fillDefaultDigestTime(Alarm.DEFAULT_TIME_ZONE, Alarm.DEFAULT_DIGEST_MINUTE, Alarm.DEFAULT_DIGEST_SPREAD);
+        for (String zoneId : alarmRepository.findAllTimeZones()) {
+            try {
+                ZoneId zone = ZoneId.of(zoneId);
+                int offsetMinutes = zone.getRules().getOffset(Instant.now()).getTotalSeconds() / 60;
+                alarmRepository.realignDigestSlots(zoneId, offsetMinutes);
+            } catch (DateTimeException e) {
+                logger.warn("알 수 없는 시간대 {}", zoneId);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Long minute;
+            while ((minute = dueMinutes.poll()) != null) {
+                processSlot(minute);
+            }
+        } finally {
+            draining.set(false);
+        }
+        //마지막 poll 과 플래그 해제 사이에 들어온 칸
+        if (!dueMinutes.isEmpty() && draining.compareAndSet(false, true)) {
+            wheelExecutor.submit(this::drain);
+        }
+    }
+
+    public void processSlot(long epochMinute) {
+        int slot = (int) (epochMinute % SLOTS);
+        long lagMillis = System.currentTimeMillis() - epochMinute * 60_000;
+        slotLag.record(lagMillis);
+        Instant slotTime = Instant.ofEpochSecond(epochMinute * 60);
+
+        slotDuration.record(() -> {
+            for (String zoneId : alarmRepository.findTimeZonesBySlot(slot)) {
+                try {
+                    ZoneId zone = ZoneId.of(zoneId);
+                    notificationService.enqueueDigests(slot, zone, slotTime.atZone(zone).toLocalDate());
+                } catch (RuntimeException e) {
+                    logger.error("알림 칸 {} ({}) 처리 실패 : {}", slot, zoneId, e.getMessage());
+                }
+            }
+        });
+        logger.info("알림 칸 {} 처리 (지연 {}ms, 남은 칸 {})", slot, lagMillis, dueMinutes.size());
+    }
+
+    private long oldestLagMillis() {
+        Long oldest = dueMinutes.peek();
+        return oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest * 60_000);
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheelExecutor.shutdown();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.lifolio.scheduler;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * cluster:nodes                    -> 노드 id (score = 마지막 heartbeat 시각)
+ * job:{job}:{runId}:{name}         -> 실행마다 고정한 값 (샤드 수, 최대 userId)
+ * job:{job}:{runId}:shard:{n}      -> 잡고 있는 노드 id (lease 만큼 유지) 또는 "done"
+ */
+@Component
+public class RedisShardLeaseStore implements ShardLeaseStore {
+
+    private static final String NODES_KEY = "cluster:nodes";
+    private static final String DONE_VALUE = "done";
+
+    private static final RedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1])\n" +
+            "if current == 'done' then return -1 end\n" +
+            "if current and current ~= ARGV[1] then return 0 end\n" +
+            "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])\n" +
+            "return 1", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisShardLeaseStore(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public void heartbeat(String nodeId, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForZSet().add(NODES_KEY, nodeId, now);
+        redisTemplate.opsForZSet().removeRangeByScore(NODES_KEY, 0, now - ttlMillis);
+    }
+
+    @Override
+    public int liveNodes() {
+        Long count = redisTemplate.opsForZSet().zCard(NODES_KEY);
+        return count == null ? 0 : count.intValue();
+    }
+
+    @Override
+    public long agree(String key, long proposed, long ttlMillis) {
+        redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(proposed), Duration.ofMillis(ttlMillis));
+        String agreed = redisTemplate.opsForValue().get(key);
+        return agreed == null ? proposed : Long.parseLong(agreed);
+    }
+
+    @Override
+    public long claim(String shardKey, String nodeId, long leaseMillis) {
+        Long result = redisTemplate.execute(CLAIM_SCRIPT, Collections.singletonList(shardKey), nodeId, String.valueOf(leaseMillis));
+        return result == null ? HELD : result;
+    }
+
+    @Override
+    public void complete(String shardKey, long ttlMillis) {
+        redisTemplate.opsForValue().set(shardKey, DONE_VALUE, Duration.ofMillis(ttlMillis));
+    }
+}
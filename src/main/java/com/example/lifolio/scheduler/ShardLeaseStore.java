@@ -0,0 +1,24 @@
+package com.example.lifolio.scheduler;
+
+/**
+ * 여러 노드가 함께 쓰는 예약 작업 조정 저장소 (운영은 Redis, 테스트는 메모리)
+ */
+public interface ShardLeaseStore {
+
+    long CLAIMED = 1;
+    long HELD = 0;
+    long DONE = -1;
+
+    //살아 있는 노드 표시
+    void heartbeat(String nodeId, long ttlMillis);
+
+    int liveNodes();
+
+    //처음 들어온 값으로 고정하고 그 값을 반환 (모든 노드가 같은 샤드 수, 범위를 쓰도록)
+    long agree(String key, long proposed, long ttlMillis);
+
+    //비어 있거나 내가 잡고 있으면 lease 를 잡고(연장하고) CLAIMED, 다른 노드가 잡고 있으면 HELD, 끝났으면 DONE
+    long claim(String shardKey, String nodeId, long leaseMillis);
+
+    void complete(String shardKey, long ttlMillis);
+}
@@ -0,0 +1,168 @@
+package com.example.lifolio.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 모든 노드에서 같이 도는 예약 작업을 userId 범위(샤드)로 나눠 실행
+ * 같은 (job, runId) 에 들어온 노드들이 샤드를 하나씩 lease 로 잡아서 처리하고,
+ * 처리 중인 노드가 죽으면 lease 가 끝난 뒤 남은 노드가 그 샤드를 이어받음
+ * 노드가 늘면 샤드를 나눠 가지는 노드가 늘어서 전체 실행 시간이 줄어듦
+ */
+@Component
+public class ShardedJobRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ShardedJobRunner.class);
+
+    //실행 기록(샤드 완료 표시)은 하루 동안 유지 → 같은 runId 가 다시 돌아도 건너뜀
+    private static final long RUN_TTL_MILLIS = 24 * 60 * 60 * 1000;
+
+    //샤드 하나 처리 (fromExclusive < userId <= toInclusive)
+    public interface ShardTask {
+        void run(long fromExclusive, long toInclusive, Lease lease);
+    }
+
+    //샤드 안의 작은 범위 하나 처리 (fromExclusive < userId <= toInclusive)
+    public interface RangeTask {
+        void run(long fromExclusive, long toInclusive);
+    }
+
+    //처리 도중 lease 연장, 다른 노드로 넘어갔으면 false (그 샤드는 중단)
+    public interface Lease {
+        boolean renew();
+    }
+
+    private final ShardLeaseStore shardLeaseStore;
+    private final String nodeId;
+    private final int shardsPerNode;
+    private final long leaseMillis;
+    private final long pollMillis;
+    private final long runTimeoutMillis;
+    private final long nodeTtlMillis;
+
+    @Autowired
+    public ShardedJobRunner(ShardLeaseStore shardLeaseStore,
+                            @Value("${scheduler.shards-per-node:4}") int shardsPerNode,
+                            @Value("${scheduler.lease-ms:30000}") long leaseMillis,
+                            @Value("${scheduler.poll-ms:1000}") long pollMillis,
+                            @Value("${scheduler.run-timeout-ms:1800000}") long runTimeoutMillis,
+                            @Value("${scheduler.node-ttl-ms:15000}") long nodeTtlMillis) {
+        this(shardLeaseStore, UUID.randomUUID().toString(), shardsPerNode, leaseMillis, pollMillis, runTimeoutMillis, nodeTtlMillis);
+    }
+
+    ShardedJobRunner(ShardLeaseStore shardLeaseStore, String nodeId, int shardsPerNode,
+                     long leaseMillis, long pollMillis, long runTimeoutMillis, long nodeTtlMillis) {
+        this.shardLeaseStore = shardLeaseStore;
+        this.nodeId = nodeId;
+        this.shardsPerNode = shardsPerNode;
+        this.leaseMillis = leaseMillis;
+        this.pollMillis = pollMillis;
+        this.runTimeoutMillis = runTimeoutMillis;
+        this.nodeTtlMillis = nodeTtlMillis;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelay = 5000)
+    public void heartbeat() {
+        shardLeaseStore.heartbeat(nodeId, nodeTtlMillis);
+    }
+
+    /**
+     * job 의 runId 회차를 실행 (cron 으로 모든 노드가 같이 호출)
+     * 샤드 수와 userId 범위는 먼저 들어온 노드 값으로 고정하고,
+     * 모든 샤드가 끝날 때까지 (다른 노드가 잡고 있는 샤드는 lease 가 끝나길 기다리며) 반복
+     */
+    public void run(String job, String runId, long maxUserId, ShardTask task) {
+        String runKey = "job:" + job + ":" + runId;
+        int shards = (int) shardLeaseStore.agree(runKey + ":shards", Math.max(1, shardLeaseStore.liveNodes()) * (long) shardsPerNode, RUN_TTL_MILLIS);
+        long maxKey = shardLeaseStore.agree(runKey + ":max-user-id", maxUserId, RUN_TTL_MILLIS);
+        long width = Math.max(1, (maxKey + shards - 1) / shards);
+
+        long deadline = System.currentTimeMillis() + runTimeoutMillis;
+        //노드마다 다른 샤드부터 시작해서 처음 claim 이 덜 겹치게 함
+        int offset = Math.floorMod(nodeId.hashCode(), shards);
+        int processed = 0;
+        Set<Integer> failed = new HashSet<>();
+
+        while (true) {
+            boolean pending = false;
+            for (int i = 0; i < shards; i++) {
+                int shard = (offset + i) % shards;
+                if (failed.contains(shard)) {
+                    continue;
+                }
+                String shardKey = runKey + ":shard:" + shard;
+                long state = shardLeaseStore.claim(shardKey, nodeId, leaseMillis);
+                if (state == ShardLeaseStore.DONE) {
+                    continue;
+                }
+                if (state == ShardLeaseStore.HELD) {
+                    pending = true;
+                    continue;
+                }
+
+                long from = shard * width;
+                long to = shard == shards - 1 ? Long.MAX_VALUE : from + width;
+                Lease lease = () -> shardLeaseStore.claim(shardKey, nodeId, leaseMillis) == ShardLeaseStore.CLAIMED;
+                try {
+                    task.run(from, to, lease);
+                } catch (RuntimeException e) {
+                    //완료 표시 없이 넘어가면 lease 가 끝난 뒤 다른 노드가 다시 시도
+                    logger.error("{} 샤드 {} 처리 실패 : {}", runKey, shard, e.getMessage());
+                    failed.add(shard);
+                    continue;
+                }
+                //도중에 다른 노드로 넘어간 샤드는 그 노드가 완료 처리
+                if (lease.renew()) {
+                    shardLeaseStore.complete(shardKey, RUN_TTL_MILLIS);
+                    processed++;
+                }
+            }
+
+            if (!pending) {
+                break;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                logger.warn("{} 실행 시간 초과, 남은 샤드는 다른 노드에 맡김", runKey);
+                break;
+            }
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        logger.info("{} 샤드 {}/{}개 처리 (node {})", runKey, processed, shards, nodeId);
+    }
+
+    /**
+     * run 과 같고, 샤드를 rangeSize 크기 범위로 나눠서 차례로 처리 (범위마다 lease 연장)
+     * 마지막 샤드는 위쪽이 열려 있으므로 (Long.MAX_VALUE) maxUserId 까지만 처리
+     */
+    public void runInRanges(String job, String runId, long maxUserId, long rangeSize, RangeTask task) {
+        run(job, runId, maxUserId, inRanges(maxUserId, rangeSize, task));
+    }
+
+    static ShardTask inRanges(long maxUserId, long rangeSize, RangeTask task) {
+        return (fromExclusive, toInclusive, lease) -> {
+            long upper = Math.min(toInclusive, maxUserId);
+            for (long from = fromExclusive; from < upper; from += rangeSize) {
+                task.run(from, Math.min(from + rangeSize, upper));
+                //다른 노드가 샤드를 이어받았으면 중단
+                if (!lease.renew()) {
+                    break;
+                }
+            }
+        };
+    }
+}
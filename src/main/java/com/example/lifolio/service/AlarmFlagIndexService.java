@@ -0,0 +1,205 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.entity.Alarm;
+import com.example.lifolio.repository.AlarmRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 알림 설정 비트맵 (alarm-flag:{이름} 의 userId 번째 비트 = 그 알림이 켜져 있는지)
+ * 예약 알림 작업이 Alarm 테이블 조인 없이 BITCOUNT 로 대상 유저가 있는 범위만 골라서 처리
+ * 설정 변경 시 바로 반영하고, 매일 DB 기준으로 다시 만들어서 어긋난 비트를 바로잡음
+ * 다시 만드는 동안 들어온 변경은 alarm-flag:journal 에 쌓아두고 교체할 때 새 비트맵에 다시 반영
+ */
+@Service
+public class AlarmFlagIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(AlarmFlagIndexService.class);
+
+    private static final String READY_KEY = "alarm-flag:ready";
+    private static final String REBUILDING_KEY = "alarm-flag:rebuilding";
+    private static final String JOURNAL_KEY = "alarm-flag:journal";
+    private static final Duration REBUILD_TIMEOUT = Duration.ofHours(1);
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    //journal 한 건("userId:mask:bits")을 KEYS[1..n] 비트맵에 반영
+    private static final String APPLY_FUNCTION =
+            "local function apply(n, userId, mask, bits)\n" +
+            "  for i = 1, n do\n" +
+            "    local flag = 2 ^ (i - 1)\n" +
+            "    if bit.band(mask, flag) ~= 0 then\n" +
+            "      redis.call('SETBIT', KEYS[i], userId, bit.band(bits, flag) ~= 0 and 1 or 0)\n" +
+            "    end\n" +
+            "  end\n" +
+            "end\n";
+
+    //KEYS = 비트맵 n개, rebuilding, journal / ARGV = userId, mask, bits
+    private static final RedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>(APPLY_FUNCTION +
+            "local n = #KEYS - 2\n" +
+            "apply(n, tonumber(ARGV[1]), tonumber(ARGV[2]), tonumber(ARGV[3]))\n" +
+            "if redis.call('EXISTS', KEYS[n + 1]) == 1 then\n" +
+            "  redis.call('RPUSH', KEYS[n + 2], ARGV[1] .. ':' .. ARGV[2] .. ':' .. ARGV[3])\n" +
+            "  redis.call('PEXPIRE', KEYS[n + 2], ARGV[4])\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    //KEYS = 비트맵 n개, 새로 만든 비트맵 n개, ready, rebuilding, journal
+    //교체하고 그 사이 쌓인 변경을 다시 반영하는 것까지 한 번에 (중간에 끼어드는 update 없음)
+    private static final RedisScript<Long> SWAP_SCRIPT = new DefaultRedisScript<>(APPLY_FUNCTION +
+            "local n = (#KEYS - 3) / 2\n" +
+            "for i = 1, n do redis.call('RENAME', KEYS[n + i], KEYS[i]) end\n" +
+            "local entries = redis.call('LRANGE', KEYS[2 * n + 3], 0, -1)\n" +
+            "for _, entry in ipairs(entries) do\n" +
+            "  local userId, mask, bits = string.match(entry, '(%d+):(%d+):(%d+)')\n" +
+            "  apply(n, tonumber(userId), tonumber(mask), tonumber(bits))\n" +
+            "end\n" +
+            "redis.call('SET', KEYS[2 * n + 1], '1')\n" +
+            "redis.call('DEL', KEYS[2 * n + 2], KEYS[2 * n + 3])\n" +
+            "return #entries", Long.class);
+
+    //ready 표시와 비트맵이 모두 있을 때만 BITCOUNT, 아니면 -1 (모름)
+    private static final RedisScript<Long> COUNT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 or redis.call('EXISTS', KEYS[2]) == 0 then return -1 end\n" +
+            "return redis.call('BITCOUNT', KEYS[2], ARGV[1], ARGV[2])", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final AlarmRepository alarmRepository;
+
+    public AlarmFlagIndexService(RedisTemplate<String, String> redisTemplate, AlarmRepository alarmRepository) {
+        this.redisTemplate = redisTemplate;
+        this.alarmRepository = alarmRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            int packed = alarmRepository.packLegacyFlags();
+            if (packed > 0) {
+                logger.info("기존 알림 설정 {}건을 flags 로 옮겼습니다.", packed);
+            }
+        } catch (DataAccessException e) {
+            //기존 컬럼이 없는 새 DB
+            logger.debug("옮길 기존 알림 설정이 없습니다.");
+        }
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(READY_KEY))) {
+            rebuild();
+        }
+    }
+
+    //mask 에 해당하는 비트만 bits 값으로 반영 (다시 만드는 중이면 journal 에도 기록)
+    public void update(Long userId, int mask, int bits) {
+        List<String> keys = new ArrayList<>(flagKeys(""));
+        keys.add(REBUILDING_KEY);
+        keys.add(JOURNAL_KEY);
+        redisTemplate.execute(UPDATE_SCRIPT, keys, String.valueOf(userId), String.valueOf(mask), String.valueOf(bits),
+                String.valueOf(REBUILD_TIMEOUT.toMillis()));
+    }
+
+    /**
+     * (fromExclusive, toInclusive] 범위에 flag 가 켜진 유저 수
+     * BITCOUNT 는 바이트 단위라 경계 바이트의 이웃 유저까지 셀 수 있음 (0 이면 확실히 없음)
+     * 비트맵이 없으면 (아직 안 만들었거나 키가 사라짐) 없는 키의 0 을 믿지 않고 건너뛰지 않도록 Long.MAX_VALUE
+     */
+    public long countEnabled(int flag, long fromExclusive, long toInclusive) {
+        String key = flagKey(Alarm.FLAG_NAMES[Integer.numberOfTrailingZeros(flag)]);
+        long startByte = (fromExclusive + 1) / 8;
+        long endByte = toInclusive == Long.MAX_VALUE ? -1 : toInclusive / 8;
+        Long count = redisTemplate.execute(COUNT_SCRIPT, Arrays.asList(READY_KEY, key),
+                String.valueOf(startByte), String.valueOf(endByte));
+        if (count == null || count < 0) {
+            return Long.MAX_VALUE;
+        }
+        return count;
+    }
+
+    //DB 기준으로 비트맵을 새로 만들어서 한 번에 교체 (한 번에 한 노드만)
+    @Scheduled(cron = "0 30 3 * * *")
+    public void rebuild() {
+        //DB 를 읽기 전에 표시해야 읽는 도중의 변경도 journal 에 남음
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(REBUILDING_KEY, "1", REBUILD_TIMEOUT))) {
+            logger.info("다른 노드에서 알림 설정 비트맵을 만드는 중입니다.");
+            return;
+        }
+        redisTemplate.delete(JOURNAL_KEY);
+
+        try {
+            BitSet[] bitSets = new BitSet[Alarm.FLAG_NAMES.length];
+            for (int i = 0; i < bitSets.length; i++) {
+                bitSets[i] = new BitSet();
+            }
+
+            long lastUserId = 0;
+            int users = 0;
+            while (true) {
+                List<AlarmRepository.AlarmFlags> chunk = alarmRepository.findFlags(lastUserId, REBUILD_CHUNK_SIZE);
+                for (AlarmRepository.AlarmFlags alarmFlags : chunk) {
+                    for (int i = 0; i < bitSets.length; i++) {
+                        if ((alarmFlags.getFlags() & (1 << i)) != 0) {
+                            bitSets[i].set(Math.toIntExact(alarmFlags.getUserId()));
+                        }
+                    }
+                }
+                users += chunk.size();
+                if (chunk.size() < REBUILD_CHUNK_SIZE) {
+                    break;
+                }
+                lastUserId = chunk.get(chunk.size() - 1).getUserId();
+            }
+
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < bitSets.length; i++) {
+                    connection.stringCommands().set(flagKey(Alarm.FLAG_NAMES[i] + ":rebuild").getBytes(StandardCharsets.UTF_8),
+                            toRedisBitmap(bitSets[i]));
+                }
+                return null;
+            });
+
+            List<String> keys = new ArrayList<>(flagKeys(""));
+            keys.addAll(flagKeys(":rebuild"));
+            keys.add(READY_KEY);
+            keys.add(REBUILDING_KEY);
+            keys.add(JOURNAL_KEY);
+            Long replayed = redisTemplate.execute(SWAP_SCRIPT, keys);
+            logger.info("알림 설정 비트맵을 다시 만들었습니다. (유저 {}명, 도중 변경 {}건 반영)", users, replayed);
+        } catch (RuntimeException e) {
+            //실패하면 표시를 지워서 다음 예약 작업이 다시 만들 수 있게 함
+            redisTemplate.delete(Arrays.asList(REBUILDING_KEY, JOURNAL_KEY));
+            throw e;
+        }
+    }
+
+    //Redis 비트맵은 바이트마다 앞쪽 비트(MSB)부터 offset 0
+    static byte[] toRedisBitmap(BitSet bitSet) {
+        byte[] bitmap = new byte[Math.max(1, (bitSet.length() + 7) / 8)];
+        for (int index = bitSet.nextSetBit(0); index >= 0; index = bitSet.nextSetBit(index + 1)) {
+            bitmap[index >>> 3] |= (byte) (0x80 >>> (index & 7));
+        }
+        return bitmap;
+    }
+
+    private static String flagKey(String name) {
+        return "alarm-flag:" + name;
+    }
+
+    private static List<String> flagKeys(String suffix) {
+        List<String> keys = new ArrayList<>(Alarm.FLAG_NAMES.length);
+        for (String name : Alarm.FLAG_NAMES) {
+            keys.add(flagKey(name + suffix));
+        }
+        return keys;
+    }
+}
@@ -1,185 +1,197 @@
 package com.example.lifolio.service;
 
+import com.example.lifolio.base.BaseException;
 import com.example.lifolio.converter.UserConverter;
 import com.example.lifolio.dto.alarm.AlarmReq;
-import com.example.lifolio.dto.home.HomeReq;
 import com.example.lifolio.dto.user.UserRes;
 import com.example.lifolio.entity.Alarm;
-import com.example.lifolio.entity.User;
 import com.example.lifolio.repository.AlarmRepository;
-import com.example.lifolio.repository.UserRepository;
+import com.example.lifolio.scheduler.DigestTimingWheel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+import static com.example.lifolio.base.BaseResponseStatus.INVALID_DIGEST_TIME;
+import static com.example.lifolio.base.BaseResponseStatus.INVALID_TIME_ZONE;
+
+/**
+ * 알림 설정
+ * 설정 변경은 조회 없이 UPDATE 한 번 (flags = (flags & ~mask) | bits) 으로 처리하고 Redis 비트맵에도 반영
+ * 설정 조회는 노드별 캐시에서 읽고, 변경 시 pub/sub 으로 모든 노드의 캐시를 지움
+ */
 @Service
 @RequiredArgsConstructor
-public class AlarmService {
+public class AlarmService implements MessageListener {
+    static final String CHANNEL = "alarm-settings";
+
     private final AlarmRepository alarmRepository;
-    private final UserRepository userRepository;
+    private final AlarmFlagIndexService alarmFlagIndexService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Cache<Long, UserRes.AlarmList> alarmListCache = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
 
     public UserRes.AlarmList getAlarmList(Long userId) {
-        User user = userRepository.getOne(userId);
+        return alarmListCache.get(userId, this::loadAlarmList);
+    }
 
+    private UserRes.AlarmList loadAlarmList(Long userId) {
         Alarm alarm = alarmRepository.findByUserId(userId);
 
-        int allAlarm=1;
-        int myAlarm=1;
-        int planningAlarm=1;
-        int socialAlarm=1;
-
-        //MyAlarm 설정
-        if(alarm.getWeekAlarm()==0&&alarm.getBadgeAlarm()==0){
-            myAlarm=0;
-        }
-        //PlanningAlarm
-        if(alarm.getTodoAlarm()==0&&alarm.getGoalAlarm()==0){
-            planningAlarm=0;
-        }
-        //SocialAlarm
-        if(alarm.getUploadAlarm()==0&&alarm.getInterestAlarm()==0){
-            socialAlarm=0;
-        }
-        if(socialAlarm==0&&myAlarm==0&&planningAlarm==0){
-            allAlarm=0;
-        }
+        int myAlarm = alarm.flag(Alarm.MY);
+        int planningAlarm = alarm.flag(Alarm.PLANNING);
+        int socialAlarm = alarm.flag(Alarm.SOCIAL);
+        int allAlarm = alarm.flag(Alarm.MY | Alarm.PLANNING | Alarm.SOCIAL);
 
         return UserConverter.GetAlarmList(alarm,allAlarm,socialAlarm,myAlarm,planningAlarm);
+    }
 
+    //여러 설정을 한 번에 변경 (값이 없는 항목은 그대로, 묶음 설정 다음에 개별 설정 적용)
+    public void patchAlarm(Long userId, AlarmReq.AlarmPatchReq alarmPatchReq) {
+        FlagPatch patch = new FlagPatch();
+        patch.set(alarmPatchReq.getAllAlarm(), Alarm.ALL);
+        patch.set(alarmPatchReq.getMyAlarm(), Alarm.MY);
+        patch.set(alarmPatchReq.getPlanningAlarm(), Alarm.PLANNING);
+        patch.set(alarmPatchReq.getSocialAlarm(), Alarm.SOCIAL);
+        patch.set(alarmPatchReq.getWeekAlarm(), Alarm.WEEK);
+        patch.set(alarmPatchReq.getBadgeAlarm(), Alarm.BADGE);
+        patch.set(alarmPatchReq.getTodoAlarm(), Alarm.TODO);
+        patch.set(alarmPatchReq.getGoalAlarm(), Alarm.GOAL);
+        patch.set(alarmPatchReq.getUploadAlarm(), Alarm.UPLOAD);
+        patch.set(alarmPatchReq.getInterestAlarm(), Alarm.INTEREST);
+        patch.set(alarmPatchReq.getLikeAlarm(), Alarm.LIKE);
+        patch.set(alarmPatchReq.getMarketingAlarm(), Alarm.MARKETING);
+
+        updateFlags(userId, patch.mask, patch.bits);
     }
 
-    @SneakyThrows
-    public void setAllAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1) {
-            alarm.updateAllAlarm(1,1,1,1,1,1,1,1);
-        }
-        else{
-            alarm.updateAllAlarm(0,0,0,0,0,0,0,0);
+    //바꿀 비트(mask)와 바꿀 값(bits)
+    static class FlagPatch {
+        int mask;
+        int bits;
+
+        void set(Integer value, int flag) {
+            if (value == null) {
+                return;
+            }
+            mask |= flag;
+            bits = value == 1 ? bits | flag : bits & ~flag;
         }
-        alarmRepository.save(alarm);
+    }
+
+    public void setAllAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
+        setFlags(userId, Alarm.ALL, allAlarmUpdateReq);
     }
 
     public void setMyAllAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updateMyAllAlarm(1,1);
-        }
-        else{
-            alarm.updateMyAllAlarm(0,0);
-        }
-        alarmRepository.save(alarm);
+        setFlags(userId, Alarm.MY, allAlarmUpdateReq);
     }
 
     public void setWeekAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updateWeekAlarm(1);
-        }
-        else{
-            alarm.updateWeekAlarm(0);
-        }
-        alarmRepository.save(alarm);
+        setFlags(userId, Alarm.WEEK, allAlarmUpdateReq);
     }
 
     public void setBadgeAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updateBadgeAlarm(1);
-        }
-        else{
-            alarm.updateBadgeAlarm(0);
-        }
-        alarmRepository.save(alarm);
+        setFlags(userId, Alarm.BADGE, allAlarmUpdateReq);
     }
 
     public void setPlanningAllAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updatePlanningAllAlarm(1,1);
-        }
-        else{
-            alarm.updatePlanningAllAlarm(0,0);
-        }
-        alarmRepository.save(alarm);
+        setFlags(userId, Alarm.PLANNING, allAlarmUpdateReq);
     }
 
     public void setTodoAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updateTodoAlarm(1);
-        }
-        else{
-            alarm.updateTodoAlarm(0);
-        }
-        alarmRepository.save(alarm);
+        setFlags(userId, Alarm.TODO, allAlarmUpdateReq);
     }
 
     public void setGoalAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updateGoalAlarm(1);
-        }
-        else{
-            alarm.updateGoalAlarm(0);
-        }
-        alarmRepository.save(alarm);
+        setFlags(userId, Alarm.GOAL, allAlarmUpdateReq);
     }
 
     public void setSocialAllAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updateSocialAllAlarm(1,1);
-        }
-        else{
-            alarm.updateSocialAllAlarm(0,0);
-        }
-        alarmRepository.save(alarm);
+        setFlags(userId, Alarm.SOCIAL, allAlarmUpdateReq);
     }
 
     public void setUploadAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updateUploadAlarm(1);
-        }
-        else{
-            alarm.updateUploadAlarm(0);
-        }
-        alarmRepository.save(alarm);
+        setFlags(userId, Alarm.UPLOAD, allAlarmUpdateReq);
     }
 
     public void setInterestAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updateInterestAlarm(1);
-        }
-        else{
-            alarm.updateInterestAlarm(0);
-        }
-        alarmRepository.save(alarm);
+        setFlags(userId, Alarm.INTEREST, allAlarmUpdateReq);
     }
 
     public void setLikeAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updateLikeAlarm(1);
-        }
-        else{
-            alarm.updateLikeAlarm(0);
-        }
-        alarmRepository.save(alarm);
+        setFlags(userId, Alarm.LIKE, allAlarmUpdateReq);
     }
 
     public void setMarketingAlarm(Long userId, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
-        Alarm alarm = alarmRepository.findByUserId(userId);
-        if(allAlarmUpdateReq.getAlarm() == 1){
-            alarm.updateMarketingAlarm(1);
+        setFlags(userId, Alarm.MARKETING, allAlarmUpdateReq);
+    }
+
+    private void setFlags(Long userId, int mask, AlarmReq.AllAlarmUpdateReq allAlarmUpdateReq) {
+        updateFlags(userId, mask, allAlarmUpdateReq.getAlarm() == 1 ? mask : 0);
+    }
+
+    private void updateFlags(Long userId, int mask, int bits) {
+        if (mask == 0) {
+            return;
         }
-        else{
-            alarm.updateMarketingAlarm(0);
+        alarmRepository.updateFlags(userId, mask, bits);
+        alarmFlagIndexService.update(userId, mask, bits);
+        evict(userId);
+    }
+
+    //다른 노드에서 설정이 바뀐 유저
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        alarmListCache.invalidate(Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8)));
+    }
+
+    private void evict(Long userId) {
+        alarmListCache.invalidate(userId);
+        redisTemplate.convertAndSend(CHANNEL, String.valueOf(userId));
+    }
+
+    //TODO 요약 알림 받을 시각과 시간대 설정
+    public void setDigestTime(Long userId, AlarmReq.DigestTimeReq digestTimeReq) throws BaseException {
+        LocalTime digestTime;
+        ZoneId zone;
+        try {
+            digestTime = LocalTime.parse(digestTimeReq.getDigestTime());
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new BaseException(INVALID_DIGEST_TIME);
+        }
+        try {
+            zone = digestTimeReq.getTimeZone() == null ? ZoneId.of(Alarm.DEFAULT_TIME_ZONE) : ZoneId.of(digestTimeReq.getTimeZone());
+        } catch (DateTimeException e) {
+            throw new BaseException(INVALID_TIME_ZONE);
         }
+
+        int digestMinute = digestTime.getHour() * 60 + digestTime.getMinute();
+        Alarm alarm = alarmRepository.findByUserId(userId);
+        alarm.updateDigestTime(digestMinute, zone.getId(), DigestTimingWheel.slotOf(digestMinute, zone));
         alarmRepository.save(alarm);
+        evict(userId);
     }
 }
@@ -0,0 +1,236 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.repository.UserRepository;
+import com.example.lifolio.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 아이디 / 닉네임 중복 확인용 Bloom filter 인덱스
+ * 필터에 없으면 DB 조회 없이 "사용 가능", 있으면(있을 수도 있으면) DB 에서 확인
+ * 필터 비트는 Redis 비트맵에도 같이 저장해서 새 노드는 테이블 전체 조회 없이 받아오고,
+ * 다른 노드의 가입은 pub/sub 으로 전달받음
+ * 비트맵 끝(numBits 위치)의 완성 표시 비트가 없으면 (삭제 / eviction 후 SETBIT 로 일부만 다시 생긴 경우) 불러오지 않고 다시 채움
+ */
+@Service
+public class AvailabilityIndexService implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndexService.class);
+
+    static final String CHANNEL = "availability-index";
+    static final String USERNAME = "username";
+    static final String NICKNAME = "nickname";
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final String NORMALIZATION_VERSION = "v2";
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    //NFKD 로 분해되지 않는 합자 / 획 있는 글자
+    private static final Map<Character, String> EXPANSIONS = Map.of(
+            'æ', "ae", 'œ', "oe", 'ø', "o", 'đ', "d", 'ð', "d", 'ł', "l", 'þ', "th", 'ħ', "h", 'ŧ', "t");
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final UserRepository userRepository;
+
+    private final BloomFilter usernames;
+    private final BloomFilter nicknames;
+    //필터 크기나 정규화 방식이 바뀌면 비트 위치도 바뀌므로 키에 포함
+    private final String keySuffix;
+    //Redis 또는 DB 에서 필터를 다 채우기 전에는 모두 DB 확인
+    private volatile boolean ready;
+
+    public AvailabilityIndexService(RedisTemplate<String, String> redisTemplate,
+                                    RedisMessageListenerContainer listenerContainer,
+                                    UserRepository userRepository,
+                                    @Value("${availability.expected-users:1000000}") long expectedUsers) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.userRepository = userRepository;
+        this.usernames = BloomFilter.create(expectedUsers, FALSE_POSITIVE_RATE);
+        this.nicknames = BloomFilter.create(expectedUsers, FALSE_POSITIVE_RATE);
+        this.keySuffix = ":" + NORMALIZATION_VERSION + ":" + usernames.getNumBits() + ":" + usernames.getNumHashes();
+    }
+
+    @PostConstruct
+    public void init() {
+        //구독을 먼저 해야 불러오는 동안 들어온 가입을 놓치지 않음
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+
+        boolean usernamesLoaded = loadFromRedis(USERNAME, usernames);
+        boolean nicknamesLoaded = loadFromRedis(NICKNAME, nicknames);
+        if (usernamesLoaded && nicknamesLoaded) {
+            ready = true;
+            logger.info("아이디/닉네임 인덱스를 Redis 에서 불러왔습니다.");
+            return;
+        }
+
+        //클러스터 최초 기동이거나 비트맵이 없어짐 : DB 에서 만들고 Redis 비트맵에 OR 로 합침 (그 사이 다른 노드의 가입 비트를 덮어쓰지 않도록)
+        List<String> allUsernames = userRepository.findAllUsernames();
+        List<String> allNicknames = userRepository.findAllNicknames();
+        allUsernames.forEach(username -> usernames.put(normalize(username)));
+        allNicknames.forEach(nickname -> nicknames.put(normalize(nickname)));
+
+        mergeIntoRedis(USERNAME, usernames);
+        mergeIntoRedis(NICKNAME, nicknames);
+        ready = true;
+        logger.info("아이디/닉네임 인덱스를 DB 에서 만들었습니다. (유저 {}명)", allUsernames.size());
+    }
+
+    //false 면 확실히 사용 가능, true 면 DB 확인 필요
+    public boolean mightContainUsername(String username) {
+        return mightContain(usernames, username);
+    }
+
+    public boolean mightContainNickname(String nickname) {
+        return mightContain(nicknames, nickname);
+    }
+
+    //인덱스가 준비되지 않았거나, DB 와 같은 기준으로 접을 수 있는지 확실하지 않은 문자가 있으면 DB 확인
+    private boolean mightContain(BloomFilter filter, String value) {
+        if (value == null) {
+            return false;
+        }
+        String normalized = normalize(value);
+        return !ready || !isFoldable(normalized) || filter.mightContain(normalized);
+    }
+
+    //가입, 닉네임 변경 시 호출
+    public void addUsername(String username) {
+        add(USERNAME, usernames, username);
+    }
+
+    public void addNickname(String nickname) {
+        add(NICKNAME, nicknames, nickname);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        String value = body.substring(separator + 1);
+        if (USERNAME.equals(body.substring(0, separator))) {
+            usernames.put(value);
+        } else {
+            nicknames.put(value);
+        }
+    }
+
+    //pub/sub 메시지가 유실됐을 경우를 대비해 주기적으로 Redis 비트맵과 합침 (비트맵이 없어졌으면 이 노드의 필터로 다시 채움)
+    @Scheduled(fixedDelay = 10 * 60 * 1000)
+    public void syncFromRedis() {
+        if (!ready) {
+            return;
+        }
+        if (!loadFromRedis(USERNAME, usernames)) {
+            logger.warn("아이디 인덱스 비트맵이 없어 이 노드의 필터로 다시 채웁니다.");
+            mergeIntoRedis(USERNAME, usernames);
+        }
+        if (!loadFromRedis(NICKNAME, nicknames)) {
+            logger.warn("닉네임 인덱스 비트맵이 없어 이 노드의 필터로 다시 채웁니다.");
+            mergeIntoRedis(NICKNAME, nicknames);
+        }
+    }
+
+    private void add(String type, BloomFilter filter, String value) {
+        if (value == null) {
+            return;
+        }
+        String normalized = normalize(value);
+        filter.put(normalized);
+
+        byte[] rawKey = bitmapKey(type).getBytes(StandardCharsets.UTF_8);
+        int[] indexes = filter.indexes(normalized);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int index : indexes) {
+                connection.stringCommands().setBit(rawKey, index, true);
+            }
+            return null;
+        });
+        redisTemplate.convertAndSend(CHANNEL, type + ":" + normalized);
+    }
+
+    //완성 표시 비트가 있는 비트맵만 합치고 true, 없거나 일부만 있으면 false
+    private boolean loadFromRedis(String type, BloomFilter filter) {
+        byte[] rawKey = bitmapKey(type).getBytes(StandardCharsets.UTF_8);
+        byte[] bits = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+        int completeByte = filter.getNumBits() >>> 3;
+        if (bits == null || bits.length <= completeByte || (bits[completeByte] & (0x80 >>> (filter.getNumBits() & 7))) == 0) {
+            return false;
+        }
+        filter.putAll(bits);
+        return true;
+    }
+
+    //필터 전체를 OR 로 합치고 완성 표시 비트를 켬
+    private void mergeIntoRedis(String type, BloomFilter filter) {
+        byte[] rawKey = bitmapKey(type).getBytes(StandardCharsets.UTF_8);
+        byte[] rawTemp = (bitmapKey(type) + ":init").getBytes(StandardCharsets.UTF_8);
+        byte[] bitmap = filter.toByteArray();
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.stringCommands().set(rawTemp, bitmap);
+            connection.stringCommands().bitOp(RedisStringCommands.BitOperation.OR, rawKey, rawKey, rawTemp);
+            connection.keyCommands().del(rawTemp);
+            connection.stringCommands().setBit(rawKey, filter.getNumBits(), true);
+            return null;
+        });
+    }
+
+    private String bitmapKey(String type) {
+        return "availability:" + type + keySuffix;
+    }
+
+    /**
+     * DB(_ci) 비교 기준에 맞춰 접음 : 호환 분해(전각 → 반각), 악센트 제거, 합자 풀기, 대소문자, 뒤쪽 공백
+     * DB 보다 넓게 묶이면 DB 확인만 늘어나므로, 애매한 문자는 같은 문자로 묶는 쪽을 선택
+     */
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        String folded = COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        StringBuilder result = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            String expanded = EXPANSIONS.get(c);
+            if (expanded != null) {
+                result.append(expanded);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString().stripTrailing();
+    }
+
+    //접은 결과가 ASCII / 한글 자모뿐이면 DB 와 같은 기준이라고 보고 필터로 답함
+    static boolean isFoldable(String normalized) {
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            boolean ascii = c < 0x80;
+            boolean hangul = (c >= 0x1100 && c <= 0x11FF) || (c >= 0x3130 && c <= 0x318F) || (c >= 0xAC00 && c <= 0xD7A3);
+            if (!ascii && !hangul) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
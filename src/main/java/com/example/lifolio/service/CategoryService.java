@@ -9,8 +9,8 @@ import com.example.lifolio.entity.Category;
 import com.example.lifolio.entity.Color;
 import com.example.lifolio.entity.SubCategory;
 import com.example.lifolio.entity.User;
+import com.example.lifolio.loader.ReferenceLoader;
 import com.example.lifolio.repository.CategoryRepository;
-import com.example.lifolio.repository.ColorRepository;
 import com.example.lifolio.repository.SubCategoryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -23,19 +23,30 @@ import static com.example.lifolio.base.BaseResponseStatus.*;
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
+    //카테고리 제목 / 색상은 카테고리 목록 외에 MY, 캘린더, 홈 화면에도 나옴
+    private static final DataVersionService.Resource[] CATEGORY_VIEWS = {
+            DataVersionService.Resource.CATEGORY, DataVersionService.Resource.MY,
+            DataVersionService.Resource.CALENDAR, DataVersionService.Resource.HOME};
+
     private final CategoryRepository categoryRepository;
     private final SubCategoryRepository subCategoryRepository;
-    private final ColorRepository colorRepository;
     private final UserService userService;
+    private final DataVersionService dataVersionService;
+    private final MyFolioCalendarService myFolioCalendarService;
+    private final ReferenceLoader referenceLoader;
+    private final FolioDetailService folioDetailService;
 
 
     public List<CategoryRes.Category> getCategoryList(Long userId) {
         List<Category> category = categoryRepository.findByUserId(userId);
         List<CategoryRes.Category> categoryList = new ArrayList<>();
+        //색상 / 소분류는 카테고리 수와 상관없이 한 번씩만 조회
+        referenceLoader.requestColors(category.stream().map(Category::getColorId).collect(Collectors.toList()));
+        referenceLoader.requestSubCategoriesOf(category.stream().map(Category::getId).collect(Collectors.toList()));
         for (Category value : category) {
             List<CategoryRes.SubCategory> subCategoryArray = getSubCategoryList(value.getId());
-            Optional<Color> color =  colorRepository.findById(value.getColorId());
-            CategoryRes.Category categoryInfo = CategoryConvertor.CategoryListBuilder(value.getId(), value.getTitle(), color.get().getColorName(),subCategoryArray);
+            Color color = referenceLoader.color(value.getColorId());
+            CategoryRes.Category categoryInfo = CategoryConvertor.CategoryListBuilder(value.getId(), value.getTitle(), color == null ? null : color.getColorName(), subCategoryArray);
             categoryList.add(categoryInfo);
         }
 
@@ -44,12 +55,9 @@ public class CategoryService {
 
     private List<CategoryRes.SubCategory> getSubCategoryList(Long id) {
         List<CategoryRes.SubCategory> subCategoryArray = new ArrayList<>();
-        List<SubCategory> subCategoryList = subCategoryRepository.findByCategoryId(id);
-        for (SubCategory category : subCategoryList) {
-            if (category.getCategoryId().equals(id)) {
-                CategoryRes.SubCategory subCategory = new CategoryRes.SubCategory(category.getId(), category.getTitle());
-                subCategoryArray.add(subCategory);
-            }
+        for (SubCategory category : referenceLoader.subCategoriesOf(id)) {
+            CategoryRes.SubCategory subCategory = new CategoryRes.SubCategory(category.getId(), category.getTitle());
+            subCategoryArray.add(subCategory);
         }
         return subCategoryArray;
     }
@@ -69,6 +77,7 @@ public class CategoryService {
         Category category = categoryRepository.getOne(id);
         category.updateCategory(user.getId(), updateCategoryReq.getColorId(), updateCategoryReq.getTitle());
         categoryRepository.save(category);
+        onCategoriesChanged(user.getId());
     }
 
     public void setCategoryAddSubCategoryList(Long id, CategoryReq.UpdateCategoryAddSubCategoryReq updateCategoryAddSubCategoryReq) {
@@ -85,6 +94,7 @@ public class CategoryService {
 //            saveSubCategory.updateSubCategory(id, Subtitle);
             subCategoryRepository.save(saveSubCategory);
         }
+        onCategoriesChanged(user.getId());
     }
 
 
@@ -93,6 +103,7 @@ public class CategoryService {
         SubCategory subCategory = subCategoryRepository.getOne(id);
         subCategory.updateSubCategory(updateSubCategoryReq.getCategoryId(), updateSubCategoryReq.getTitle());
         subCategoryRepository.save(subCategory);
+        onCategoriesChanged(user.getId());
     }
 
     public void setSubCategoryToCategoryList(Long id, SubCategoryReq.MoveSubCategoryReq moveSubCategoryReq) {
@@ -105,6 +116,7 @@ public class CategoryService {
                 .build();
         categoryRepository.save(saveCategory);
         subCategoryRepository.deleteById(subCategory.getId());
+        onCategoriesChanged(user.getId());
     }
 
     private SubCategory findCategory(Long categoryId) {
@@ -123,6 +135,7 @@ public class CategoryService {
             }
         }
         categoryRepository.deleteById(category.get().getId());
+        bumpVersions(category.get().getUserId());
     }
 
     public void deleteSubCategoryList(Long id) throws BaseException {
@@ -131,6 +144,12 @@ public class CategoryService {
             throw new BaseException(NOT_EXIST_SUBCATEGORY);
         }
         subCategoryRepository.deleteById(subcategory.get().getId());
+        dataVersionService.bumpCurrentUser(CATEGORY_VIEWS);
+        categoryRepository.findById(subcategory.get().getCategoryId())
+                .ifPresent(category -> {
+                    myFolioCalendarService.onCategoryChanged(category.getUserId());
+                    folioDetailService.evictUser(category.getUserId());
+                });
     }
 
 
@@ -144,6 +163,7 @@ public class CategoryService {
                 .build();
 
         categoryRepository.save(saveCategory);
+        bumpVersions(user.getId());
     }
 
 
@@ -157,6 +177,7 @@ public class CategoryService {
                 .build();
 
         subCategoryRepository.save(saveSubCategory);
+        bumpVersions(user.getId());
     }
 
     public void addCategorySubCategoryList(CategoryReq.AddCategorySubCategoryReq addCategorySubCategoryReq){
@@ -176,15 +197,26 @@ public class CategoryService {
                     .build();
             subCategoryRepository.save(saveSubCategory);
         }
-
+        bumpVersions(user.getId());
 }
 
+    private void bumpVersions(Long userId) {
+        dataVersionService.bump(userId, CATEGORY_VIEWS);
+    }
+
+    //기존 MyFolio 의 색상 / 카테고리 제목이 바뀌는 수정은 캘린더 대표 색상과 폴리오 상세 캐시도 갱신
+    private void onCategoriesChanged(Long userId) {
+        myFolioCalendarService.onCategoryChanged(userId);
+        folioDetailService.evictUser(userId);
+        bumpVersions(userId);
+    }
+
     public CategoryRes.CategoryUpdateView getCategoryUpdateView(Long categoryId) throws BaseException {
-        Optional<Category> category=categoryRepository.findById(categoryId);
+        Optional<Category> category=Optional.ofNullable(referenceLoader.category(categoryId));
         if (!category.isPresent()) {
             throw new BaseException(NOT_EXIST_CATEGORY);
         }
-        Optional<Color> color = colorRepository.findById(category.get().getColorId());
+        Optional<Color> color = Optional.ofNullable(referenceLoader.color(category.get().getColorId()));
         List<String> subcategory=getSubCategoryListByCategoryId(categoryId);
         return CategoryConvertor.CategoryUpdateView(category,color,subcategory);
     }
@@ -204,13 +236,16 @@ public class CategoryService {
     }
 
     public CategoryRes.SubCategoryUpdateView getSubCategoryUpdateView(Long categoryId) throws BaseException {
-        Optional<SubCategory> subCategory=subCategoryRepository.findById(categoryId);
-        if(!subCategory.isPresent()){
+        SubCategory subCategory=referenceLoader.subCategory(categoryId);
+        if(subCategory==null){
+            throw new BaseException(NOT_EXIST_CATEGORY);
+        }
+        Category category=referenceLoader.category(subCategory.getCategoryId());
+        if(category==null){
             throw new BaseException(NOT_EXIST_CATEGORY);
         }
-        Optional<Category> category= categoryRepository.findById(subCategory.get().getCategoryId());
 
-        return CategoryConvertor.SubCategoryUpdateView(subCategory.get(),category.get());
+        return CategoryConvertor.SubCategoryUpdateView(subCategory,category);
     }
 
 
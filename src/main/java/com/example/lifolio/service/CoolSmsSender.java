@@ -0,0 +1,30 @@
+package com.example.lifolio.service;
+
+import net.nurigo.java_sdk.api.Message;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+
+@Component
+public class CoolSmsSender implements SmsSender {
+    private final Message coolsms;
+    private final String from;
+
+    public CoolSmsSender(@Value("${coolsms.key}") String apiKey,
+                         @Value("${coolsms.secret}") String apiSecret,
+                         @Value("${coolsms.from:01049177671}") String from) {
+        this.coolsms = new Message(apiKey, apiSecret);
+        this.from = from;
+    }
+
+    @Override
+    public void send(String to, String text) throws Exception {
+        HashMap<String, String> params = new HashMap<>();
+        params.put("to", to);    // 수신전화번호
+        params.put("from", from);    // 발신전화번호
+        params.put("type", "sms");
+        params.put("text", text);
+        coolsms.send(params);
+    }
+}
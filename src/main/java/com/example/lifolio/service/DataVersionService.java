@@ -0,0 +1,100 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 유저별 / 화면별 데이터 버전 (ETag 계산용)
+ * data-version:{userId} 해시에 화면마다 버전을 두고, 그 화면에 나오는 데이터를 바꾸는 쪽에서 올림
+ * 해시가 없어졌다가 다시 생기면 현재 시각(ms)부터 시작 → 예전에 내려준 ETag 와 겹치지 않음
+ */
+@Service
+public class DataVersionService {
+
+    public enum Resource {
+        HOME, MY, CALENDAR, CATEGORY, PLANNING;
+
+        String field() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    //ARGV[1] : 처음 값, ARGV[2] : 유지 시간(ms), ARGV[3..] : 필드
+    private static final RedisScript<List> READ_SCRIPT = new DefaultRedisScript<>(
+            "local versions = {}\n" +
+            "for i = 3, #ARGV do\n" +
+            "  redis.call('HSETNX', KEYS[1], ARGV[i], ARGV[1])\n" +
+            "  versions[#versions + 1] = redis.call('HGET', KEYS[1], ARGV[i])\n" +
+            "end\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" +
+            "return versions", List.class);
+
+    private static final RedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>(
+            "for i = 3, #ARGV do\n" +
+            "  if redis.call('HEXISTS', KEYS[1], ARGV[i]) == 1 then\n" +
+            "    redis.call('HINCRBY', KEYS[1], ARGV[i], 1)\n" +
+            "  else\n" +
+            "    redis.call('HSET', KEYS[1], ARGV[i], ARGV[1])\n" +
+            "  end\n" +
+            "end\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" +
+            "return 1", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration ttl;
+
+    public DataVersionService(RedisTemplate<String, String> redisTemplate,
+                              @Value("${etag.version-ttl-days:30}") long ttlDays) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofDays(ttlDays);
+    }
+
+    //화면에 필요한 버전을 한 번에 읽음 (resources 순서대로)
+    @SuppressWarnings("unchecked")
+    public List<String> versions(Long userId, Resource... resources) {
+        List<String> result = redisTemplate.execute(READ_SCRIPT, Collections.singletonList(versionKey(userId)), args(resources));
+        return result == null ? Collections.emptyList() : result;
+    }
+
+    //데이터가 바뀐 화면들의 버전을 올림 (DB 반영 후 호출)
+    public void bump(Long userId, Resource... resources) {
+        if (userId == null || resources.length == 0) {
+            return;
+        }
+        redisTemplate.execute(BUMP_SCRIPT, Collections.singletonList(versionKey(userId)), args(resources));
+    }
+
+    //userId 를 받지 않는 API 용 (요청한 유저의 버전을 올림)
+    public void bumpCurrentUser(Resource... resources) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            bump(((User) authentication.getPrincipal()).getId(), resources);
+        }
+    }
+
+    private Object[] args(Resource... resources) {
+        List<String> args = new ArrayList<>(resources.length + 2);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(String.valueOf(ttl.toMillis()));
+        for (Resource resource : resources) {
+            args.add(resource.field());
+        }
+        return args.toArray();
+    }
+
+    private static String versionKey(Long userId) {
+        return "data-version:" + userId;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.dto.alarm.FcmSendResult;
+import com.example.lifolio.dto.alarm.RequestDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * FCM 묶음 발송 (outbox 워커가 한 번에 최대 500개씩 넘김)
+ * 메시지마다 FirebaseCloudMessageService.sendAsync 로 보내서 Retry-After / 백오프 재시도와 fcm.send 지표를 그대로 사용,
+ * 동시에 진행 중인 발송 수는 fcm.max-concurrency 로 제한
+ * 만료된 토큰은 sendAsync 에서 FcmTokenPruner 에 전달
+ */
+@Service
+public class FcmBatchSender {
+    private static final Logger logger = LoggerFactory.getLogger(FcmBatchSender.class);
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private final FirebaseCloudMessageService firebaseCloudMessageService;
+    private final Semaphore inFlight;
+
+    public FcmBatchSender(FirebaseCloudMessageService firebaseCloudMessageService,
+                          @Value("${fcm.max-concurrency:64}") int maxConcurrency) {
+        this.firebaseCloudMessageService = firebaseCloudMessageService;
+        this.inFlight = new Semaphore(maxConcurrency);
+    }
+
+    //requests 와 같은 순서로 발송 결과 반환
+    public List<FcmTokenPruner.SendStatus> send(List<RequestDTO> requests) {
+        List<CompletableFuture<FcmSendResult>> futures = new ArrayList<>(requests.size());
+        for (RequestDTO request : requests) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                //종료 중이면 남은 메시지는 다음 워커가 다시 가져감
+                Thread.currentThread().interrupt();
+                futures.add(CompletableFuture.completedFuture(new FcmSendResult(0, "INTERRUPTED", null, 0)));
+                continue;
+            }
+            futures.add(firebaseCloudMessageService.sendAsync(request.getTargetToken(), request.getTitle(), request.getBody())
+                    .exceptionally(e -> new FcmSendResult(0, "UNAVAILABLE", e.getMessage(), 0))
+                    .whenComplete((result, error) -> inFlight.release()));
+        }
+
+        List<FcmTokenPruner.SendStatus> statuses = new ArrayList<>(requests.size());
+        int failures = 0;
+        for (CompletableFuture<FcmSendResult> future : futures) {
+            FcmSendResult result = future.join();
+            statuses.add(FcmTokenPruner.classify(result.getErrorCode(), result.getErrorMessage()));
+            if (!result.isSuccess()) {
+                failures++;
+            }
+        }
+        if (failures > 0) {
+            logger.warn("푸시 {}건 중 {}건 발송 실패", requests.size(), failures);
+        }
+        return statuses;
+    }
+}
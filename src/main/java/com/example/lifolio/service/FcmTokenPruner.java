@@ -0,0 +1,118 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.repository.UserRepository;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 더 이상 쓸 수 없는 FCM 토큰 정리
+ * 발송 결과를 분류해서 UNREGISTERED, 또는 등록 토큰 자체가 잘못됐다는 INVALID_ARGUMENT 인 토큰만 모아두고,
+ * 주기적으로 (또는 알림 발송이 끝난 뒤) 토큰 값 기준 UPDATE 한 번으로 여러 유저를 비움
+ * 토큰 값으로 비우기 때문에 그 사이 새 토큰을 등록한 유저는 영향 없음
+ */
+@Service
+public class FcmTokenPruner {
+    private static final Logger logger = LoggerFactory.getLogger(FcmTokenPruner.class);
+
+    private static final int UPDATE_BATCH_SIZE = 500;
+
+    public enum SendStatus {
+        SUCCESS,
+        UNREGISTERED, //앱 삭제, 토큰 만료
+        INVALID_TOKEN, //INVALID_ARGUMENT 중 형식이 잘못된 등록 토큰
+        INVALID_ARGUMENT, //메시지 내용 문제 (토큰은 유지, 재시도해도 실패)
+        TRANSIENT; //일시적인 오류 (토큰은 유지)
+
+        public boolean isDead() {
+            return this == UNREGISTERED || this == INVALID_TOKEN;
+        }
+
+        public boolean isRetryable() {
+            return this == TRANSIENT;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final PrincipalCacheService principalCacheService;
+    private final Set<String> deadTokens = ConcurrentHashMap.newKeySet();
+
+    public FcmTokenPruner(UserRepository userRepository, PrincipalCacheService principalCacheService) {
+        this.userRepository = userRepository;
+        this.principalCacheService = principalCacheService;
+    }
+
+    //HTTP v1 응답의 errorCode, error.message
+    public static SendStatus classify(String errorCode, String errorMessage) {
+        if (errorCode == null) {
+            return SendStatus.SUCCESS;
+        }
+        switch (errorCode) {
+            case "UNREGISTERED":
+                return SendStatus.UNREGISTERED;
+            case "INVALID_ARGUMENT":
+                return isTokenError(errorMessage) ? SendStatus.INVALID_TOKEN : SendStatus.INVALID_ARGUMENT;
+            default:
+                return SendStatus.TRANSIENT;
+        }
+    }
+
+    //Admin SDK 발송 예외
+    public static SendStatus classify(FirebaseMessagingException exception) {
+        if (exception == null) {
+            return SendStatus.SUCCESS;
+        }
+        MessagingErrorCode errorCode = exception.getMessagingErrorCode();
+        if (errorCode == MessagingErrorCode.UNREGISTERED) {
+            return SendStatus.UNREGISTERED;
+        }
+        if (errorCode == MessagingErrorCode.INVALID_ARGUMENT) {
+            return isTokenError(exception.getMessage()) ? SendStatus.INVALID_TOKEN : SendStatus.INVALID_ARGUMENT;
+        }
+        return SendStatus.TRANSIENT;
+    }
+
+    //INVALID_ARGUMENT 는 메시지 내용이 잘못돼도 오므로, 등록 토큰이 잘못됐다는 응답만 토큰 문제로 봄
+    //ex) "The registration token is not a valid FCM registration token"
+    static boolean isTokenError(String errorMessage) {
+        return errorMessage != null && errorMessage.toLowerCase(Locale.ROOT).contains("registration token");
+    }
+
+    public void report(String token, SendStatus status) {
+        if (token != null && status.isDead()) {
+            deadTokens.add(token);
+        }
+    }
+
+    @Scheduled(fixedDelay = 30 * 1000)
+    public void flush() {
+        if (deadTokens.isEmpty()) {
+            return;
+        }
+        int cleared = 0;
+        List<String> batch = new ArrayList<>(UPDATE_BATCH_SIZE);
+        Iterator<String> iterator = deadTokens.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() == UPDATE_BATCH_SIZE || !iterator.hasNext()) {
+                //캐시된 principal 에 지운 토큰이 남지 않도록 비운 유저는 캐시에서도 제거
+                List<Long> userIds = userRepository.findIdsByFcmTokenIn(batch);
+                cleared += userRepository.clearFcmTokens(batch);
+                userIds.forEach(principalCacheService::evict);
+                batch.clear();
+            }
+        }
+        logger.info("만료된 FCM 토큰 {}개 정리", cleared);
+    }
+}
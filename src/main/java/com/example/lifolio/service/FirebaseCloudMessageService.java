@@ -1,54 +1,241 @@
 package com.example.lifolio.service;
 
 import com.example.lifolio.dto.alarm.FcmMessage;
-import com.fasterxml.jackson.core.JsonParseException;
+import com.example.lifolio.dto.alarm.FcmSendResult;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.common.net.HttpHeaders;
-import lombok.RequiredArgsConstructor;
-import okhttp3.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.List;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * FCM HTTP v1 발송
+ * 서비스 계정 키는 한 번만 읽고 OAuth 토큰은 만료 전에 미리 갱신해서 재사용,
+ * HTTP/2 를 쓰는 HttpClient 하나로 연결을 공유하고 발송은 CompletableFuture 로 비동기 처리
+ * 429 / 5xx 는 Retry-After (없으면 지수 백오프) 만큼 기다렸다가 재시도
+ */
 @Component
-@RequiredArgsConstructor
 public class FirebaseCloudMessageService {
+    private static final Logger logger = LoggerFactory.getLogger(FirebaseCloudMessageService.class);
 
-    @Value("${fcm.key.path}")
-    private String FCM_ACCESS_KEY;
-
-    @Value("${fcm.api.url}")
-    private String API_URL;
+    private static final String SCOPE = "https://www.googleapis.com/auth/cloud-platform";
+    //만료 5분 전부터 새 토큰 사용
+    private static final long REFRESH_MARGIN_MILLIS = 5 * 60 * 1000;
+    private static final long MAX_BACKOFF_MILLIS = 60 * 1000;
 
-    @Value("${fcm.key.scope}")
-    private String FIREBASE_SCOPE;
+    //OAuth 토큰 발급 (테스트에서는 가짜 토큰으로 교체)
+    interface AccessTokenSource {
+        AccessToken fetch() throws IOException;
+    }
 
+    private final String apiUrl;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AccessTokenSource accessTokenSource;
+    private final FcmTokenPruner fcmTokenPruner;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
+    private final Duration requestTimeout = Duration.ofSeconds(10);
+
+    private volatile AccessToken accessToken;
+
+    @Autowired
+    public FirebaseCloudMessageService(@Value("${fcm.key.path}") String keyPath,
+                                       @Value("${fcm.api.url}") String apiUrl,
+                                       ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry,
+                                       FcmTokenPruner fcmTokenPruner,
+                                       @Value("${fcm.max-attempts:4}") int maxAttempts,
+                                       @Value("${fcm.retry-backoff-ms:500}") long retryBackoffMillis) throws IOException {
+        this(apiUrl, objectMapper, meterRegistry, googleCredentials(keyPath), fcmTokenPruner, maxAttempts, retryBackoffMillis);
+    }
+
+    FirebaseCloudMessageService(String apiUrl, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                AccessTokenSource accessTokenSource, FcmTokenPruner fcmTokenPruner,
+                                int maxAttempts, long retryBackoffMillis) {
+        this.apiUrl = apiUrl;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.accessTokenSource = accessTokenSource;
+        this.fcmTokenPruner = fcmTokenPruner;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    private static AccessTokenSource googleCredentials(String keyPath) throws IOException {
+        GoogleCredentials googleCredentials = GoogleCredentials
+                .fromStream(new ClassPathResource(keyPath).getInputStream())
+                .createScoped(List.of(SCOPE));
+        return googleCredentials::refreshAccessToken;
+    }
+
+    public FcmSendResult sendMessageTo(String targetToken, String title, String body) {
+        return sendAsync(targetToken, title, body).join();
+    }
+
+    //실패해도 예외 대신 FcmSendResult 로 완료됨
+    public CompletableFuture<FcmSendResult> sendAsync(String targetToken, String title, String body) {
+        String message;
+        try {
+            message = makeMessage(targetToken, title, body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.completedFuture(new FcmSendResult(0, "INVALID_MESSAGE", null, 0));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return attempt(message, 1).thenApply(result -> {
+            sample.stop(meterRegistry.timer("fcm.send", "outcome", outcome(result)));
+            fcmTokenPruner.report(targetToken, FcmTokenPruner.classify(result.getErrorCode(), result.getErrorMessage()));
+            return result;
+        });
+    }
 
-    public void sendMessageTo(String targetToken, String title, String body) throws IOException {
-        String message = makeMessage(targetToken, title, body);
+    private CompletableFuture<FcmSendResult> attempt(String message, int attempt) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(apiUrl))
+                    .timeout(requestTimeout)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + currentAccessToken())
+                    .header(HttpHeaders.CONTENT_TYPE, "application/json; UTF-8")
+                    .POST(HttpRequest.BodyPublishers.ofString(message))
+                    .build();
+        } catch (IOException e) {
+            logger.warn("FCM 토큰 발급 실패 : {}", e.getMessage());
+            return CompletableFuture.completedFuture(new FcmSendResult(0, "AUTH_FAILED", null, attempt));
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        if (attempt < maxAttempts) {
+                            return retryLater(message, attempt, backoff(attempt));
+                        }
+                        logger.warn("FCM 발송 실패 : {}", error.getMessage());
+                        return CompletableFuture.completedFuture(new FcmSendResult(0, "UNAVAILABLE", null, attempt));
+                    }
+
+                    int status = response.statusCode();
+                    if (status == 401 && attempt < maxAttempts) {
+                        //토큰이 예상보다 먼저 만료된 경우 새로 받아서 재시도
+                        accessToken = null;
+                        return attempt(message, attempt + 1);
+                    }
+                    if ((status == 429 || status >= 500) && attempt < maxAttempts) {
+                        return retryLater(message, attempt, retryDelay(response, attempt));
+                    }
+                    return CompletableFuture.completedFuture(result(status, response.body(), attempt));
+                })
+                .thenCompose(Function.identity());
+    }
 
-        OkHttpClient client = new OkHttpClient();
-        RequestBody requestBody = RequestBody.create(message,
-                MediaType.get("application/json; charset=utf-8"));
-        Request request = new Request.Builder()
-                .url(API_URL)
-                .post(requestBody)
-                .addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + getAccessToken())
-                .addHeader(HttpHeaders.CONTENT_TYPE, "application/json; UTF-8")
-                .build();
+    private CompletableFuture<FcmSendResult> retryLater(String message, int attempt, long delayMillis) {
+        meterRegistry.counter("fcm.send.retries").increment();
+        return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> attempt(message, attempt + 1));
+    }
 
-        Response response = client.newCall(request).execute();
+    //Retry-After(초)가 있으면 그대로, 없으면 지수 백오프 + 지터
+    private long retryDelay(HttpResponse<String> response, int attempt) {
+        String retryAfter = response.headers().firstValue(HttpHeaders.RETRY_AFTER).orElse(null);
+        if (retryAfter != null) {
+            try {
+                return Math.min(Long.parseLong(retryAfter.trim()) * 1000, MAX_BACKOFF_MILLIS);
+            } catch (NumberFormatException ignored) {
+                //HTTP-date 형식은 백오프로 대체
+            }
+        }
+        return backoff(attempt);
+    }
 
-        System.out.println(response.body().string());
+    private long backoff(int attempt) {
+        long delay = retryBackoffMillis << Math.min(attempt - 1, 16);
+        return Math.min(delay + ThreadLocalRandom.current().nextLong(retryBackoffMillis + 1), MAX_BACKOFF_MILLIS);
     }
 
-    private String makeMessage(String targetToken, String title, String body) throws JsonParseException, JsonProcessingException {
+    //errorCode 는 FcmError.errorCode (UNREGISTERED, INVALID_ARGUMENT 등), 없으면 error.status
+    private FcmSendResult result(int status, String body, int attempt) {
+        if (status == 200) {
+            return new FcmSendResult(status, null, null, attempt);
+        }
+        try {
+            JsonNode error = objectMapper.readTree(body).path("error");
+            String errorCode = error.path("status").asText(null);
+            for (JsonNode detail : error.path("details")) {
+                if (detail.hasNonNull("errorCode")) {
+                    errorCode = detail.get("errorCode").asText();
+                    break;
+                }
+            }
+            return new FcmSendResult(status, errorCode, error.path("message").asText(null), attempt);
+        } catch (JsonProcessingException e) {
+            return new FcmSendResult(status, null, null, attempt);
+        }
+    }
+
+    private static String outcome(FcmSendResult result) {
+        if (result.isSuccess()) {
+            return "success";
+        }
+        return result.getErrorCode() != null ? result.getErrorCode() : "HTTP_" + result.getStatus();
+    }
+
+    String currentAccessToken() throws IOException {
+        AccessToken token = accessToken;
+        if (token == null || expiresSoon(token)) {
+            synchronized (this) {
+                token = accessToken;
+                if (token == null || expiresSoon(token)) {
+                    token = accessTokenSource.fetch();
+                    accessToken = token;
+                }
+            }
+        }
+        return token.getTokenValue();
+    }
+
+    //발송 스레드가 토큰 갱신을 기다리지 않도록 미리 갱신
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void refreshAccessToken() {
+        try {
+            currentAccessToken();
+        } catch (IOException e) {
+            logger.warn("FCM 토큰 갱신 실패 : {}", e.getMessage());
+        }
+    }
+
+    private static boolean expiresSoon(AccessToken token) {
+        return token.getExpirationTime() != null
+                && token.getExpirationTime().getTime() - System.currentTimeMillis() < REFRESH_MARGIN_MILLIS;
+    }
+
+    private String makeMessage(String targetToken, String title, String body) throws JsonProcessingException {
         FcmMessage fcmMessage = FcmMessage.builder()
                 .message(FcmMessage.Message.builder()
                         .token(targetToken)
@@ -61,15 +248,4 @@ public class FirebaseCloudMessageService {
 
         return objectMapper.writeValueAsString(fcmMessage);
     }
-
-    private String getAccessToken() throws IOException {
-        String firebaseConfigPath = FCM_ACCESS_KEY;
-
-        GoogleCredentials googleCredentials = GoogleCredentials
-                .fromStream(new ClassPathResource(firebaseConfigPath).getInputStream())
-                .createScoped(List.of("https://www.googleapis.com/auth/cloud-platform"));
-
-        googleCredentials.refreshIfExpired();
-        return googleCredentials.getAccessToken().getTokenValue();
-    }
 }
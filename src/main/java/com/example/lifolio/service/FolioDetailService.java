@@ -0,0 +1,235 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.dto.user.UserRes;
+import com.example.lifolio.repository.MyFolioRepository;
+import com.example.lifolio.repository.MyFolioRepositoryCustom;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * MyFolio 세부 내용 캐시 (1단계 : 노드 메모리, 2단계 : Redis folio-detail:{folioId})
+ * 둘 다 없으면 DB 에서 두 번의 쿼리로 만들고, 세대(folio-detail-gen:{folioId})가 그대로일 때만 Redis 에 저장
+ * 폴리오 / 사진 / 같이 한 사람이 바뀌면 그 폴리오만, 카테고리 제목이 바뀌면 그 유저가 캐시해 둔 폴리오 전부 무효화
+ * 카테고리 제목 변경은 folio-detail-user-gen:{userId} 에 변경 시각(Redis TIME, ms)을 남겨서,
+ * 그 전에 읽기 시작한 요청은 아직 캐시되지 않은 폴리오라도 저장하지 못함 (주인은 상세 조회 결과로 알 수 있어서 추가 쿼리 없음)
+ * 다른 노드의 메모리 캐시는 pub/sub 으로 지움
+ */
+@Service
+public class FolioDetailService implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(FolioDetailService.class);
+
+    static final String CHANNEL = "folio-detail";
+
+    //읽기 시작 : 폴리오 세대와 현재 시각(ms)
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOAD_START_SCRIPT = new DefaultRedisScript<>(
+            "local now = redis.call('TIME')\n" +
+            "return {redis.call('GET', KEYS[1]) or '0', tostring(now[1] * 1000 + math.floor(now[2] / 1000))}", List.class);
+
+    //폴리오 세대가 그대로이고 읽기 시작한 뒤에 유저 무효화가 없었을 때만 저장하고, 유저별 목록에 폴리오 id 추가
+    //(ARGV = gen, ttl, json, folioId, loadStartedAt)
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            "local gen = redis.call('GET', KEYS[2]) or '0'\n" +
+            "if gen ~= ARGV[1] then return 0 end\n" +
+            "local userEvictedAt = tonumber(redis.call('GET', KEYS[4]) or '0')\n" +
+            "if userEvictedAt >= tonumber(ARGV[5]) then return 0 end\n" +
+            "redis.call('SET', KEYS[1], ARGV[3], 'PX', ARGV[2])\n" +
+            "redis.call('SADD', KEYS[3], ARGV[4])\n" +
+            "redis.call('PEXPIRE', KEYS[3], ARGV[2])\n" +
+            "return 1", Long.class);
+
+    //유저 무효화 시각 기록 (ARGV = ttl)
+    private static final RedisScript<Long> EVICT_USER_SCRIPT = new DefaultRedisScript<>(
+            "local now = redis.call('TIME')\n" +
+            "redis.call('SET', KEYS[1], tostring(now[1] * 1000 + math.floor(now[2] / 1000)), 'PX', ARGV[1])\n" +
+            "return 1", Long.class);
+
+    //세대를 올려서 읽는 중인 요청이 예전 내용을 저장하지 못하게 하고 삭제 (ARGV = ttl)
+    private static final RedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2])\n" +
+            "redis.call('PEXPIRE', KEYS[2], ARGV[1])\n" +
+            "return redis.call('DEL', KEYS[1])", Long.class);
+
+    private final MyFolioRepository myFolioRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+    private final Duration ttl;
+    private final Cache<Long, UserRes.GetMyFolioDetailRes> localCache;
+
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Timer loadTimer;
+
+    @Autowired
+    public FolioDetailService(MyFolioRepository myFolioRepository,
+                              RedisTemplate<String, String> redisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${folio-detail.local-max-size:10000}") long localMaxSize,
+                              @Value("${folio-detail.ttl-hours:24}") long ttlHours) {
+        this(myFolioRepository, redisTemplate, listenerContainer, objectMapper, meterRegistry,
+                UUID.randomUUID().toString(), localMaxSize, Duration.ofHours(ttlHours));
+    }
+
+    FolioDetailService(MyFolioRepository myFolioRepository,
+                       RedisTemplate<String, String> redisTemplate,
+                       RedisMessageListenerContainer listenerContainer,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       String nodeId, long localMaxSize, Duration ttl) {
+        this.myFolioRepository = myFolioRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.nodeId = nodeId;
+        this.ttl = ttl;
+        //메모리 캐시는 다른 노드의 무효화 메시지를 놓쳐도 오래 남지 않도록 짧게 유지
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .recordStats()
+                .build();
+
+        //1단계 적중률은 cache.gets / cache.puts 등 (cache=folio-detail), 2단계는 folio.detail.redis, DB 조회 시간은 folio.detail.load
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "folio-detail");
+        this.redisHits = Counter.builder("folio.detail.redis").tag("result", "hit").register(meterRegistry);
+        this.redisMisses = Counter.builder("folio.detail.redis").tag("result", "miss").register(meterRegistry);
+        this.loadTimer = Timer.builder("folio.detail.load").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    //없는 폴리오면 null (없는 결과는 캐시하지 않음)
+    public UserRes.GetMyFolioDetailRes getDetail(Long folioId) {
+        UserRes.GetMyFolioDetailRes detail = localCache.getIfPresent(folioId);
+        if (detail != null) {
+            return detail;
+        }
+
+        detail = readRedis(folioId);
+        if (detail == null) {
+            //DB 에서 읽은 내용은 Redis 에 저장됐을 때만 메모리에도 넣음 (저장이 거절됐으면 이미 예전 내용)
+            return load(folioId);
+        }
+        localCache.put(folioId, detail);
+        return detail;
+    }
+
+    //폴리오 / 사진 / 같이 한 사람 저장 후 호출
+    public void evict(Long folioId) {
+        redisTemplate.execute(EVICT_SCRIPT, Arrays.asList(detailKey(folioId), genKey(folioId)), String.valueOf(ttl.toMillis()));
+        localCache.invalidate(folioId);
+        redisTemplate.convertAndSend(CHANNEL, nodeId + ":" + folioId);
+    }
+
+    //카테고리 / 소분류 제목 변경 : 그 유저가 캐시해 둔 폴리오 전부
+    public void evictUser(Long userId) {
+        //목록에 아직 없는 폴리오를 읽는 중인 요청이 예전 제목을 저장하지 못하게 먼저 무효화 시각을 남김
+        redisTemplate.execute(EVICT_USER_SCRIPT, Collections.singletonList(userGenKey(userId)), String.valueOf(ttl.toMillis()));
+        Set<String> folioIds = redisTemplate.opsForSet().members(userKey(userId));
+        redisTemplate.delete(userKey(userId));
+        if (folioIds != null) {
+            folioIds.forEach(folioId -> evict(Long.parseLong(folioId)));
+        }
+    }
+
+    //다른 노드에서 무효화된 폴리오 (이 노드가 보낸 메시지는 이미 반영했으므로 무시)
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        localCache.invalidate(Long.parseLong(body.substring(separator + 1)));
+    }
+
+    private UserRes.GetMyFolioDetailRes readRedis(Long folioId) {
+        String json = redisTemplate.opsForValue().get(detailKey(folioId));
+        if (json == null) {
+            redisMisses.increment();
+            return null;
+        }
+        try {
+            UserRes.GetMyFolioDetailRes detail = objectMapper.readValue(json, UserRes.GetMyFolioDetailRes.class);
+            redisHits.increment();
+            return detail;
+        } catch (JsonProcessingException e) {
+            logger.warn("폴리오 상세 캐시를 읽지 못해 다시 만듭니다. (folioId {})", folioId);
+            redisMisses.increment();
+            return null;
+        }
+    }
+
+    private UserRes.GetMyFolioDetailRes load(Long folioId) {
+        //세대와 시작 시각은 DB 를 읽기 전에 읽어야 함
+        List<?> loadStart = redisTemplate.execute(LOAD_START_SCRIPT, Collections.singletonList(genKey(folioId)));
+        MyFolioRepositoryCustom.FolioDetail folioDetail = loadTimer.record(() -> myFolioRepository.findDetail(folioId));
+        if (folioDetail == null) {
+            return null;
+        }
+        if (loadStart == null || loadStart.size() < 2) {
+            return folioDetail.getDetail();
+        }
+
+        Long userId = folioDetail.getUserId();
+        try {
+            Long saved = redisTemplate.execute(SAVE_SCRIPT,
+                    Arrays.asList(detailKey(folioId), genKey(folioId), userKey(userId), userGenKey(userId)),
+                    String.valueOf(loadStart.get(0)), String.valueOf(ttl.toMillis()),
+                    objectMapper.writeValueAsString(folioDetail.getDetail()), String.valueOf(folioId),
+                    String.valueOf(loadStart.get(1)));
+            if (saved != null && saved == 1) {
+                localCache.put(folioId, folioDetail.getDetail());
+            }
+        } catch (JsonProcessingException e) {
+            logger.warn("폴리오 상세 캐시를 저장하지 못했습니다. (folioId {})", folioId);
+        }
+        return folioDetail.getDetail();
+    }
+
+    private static String detailKey(Long folioId) {
+        return "folio-detail:" + folioId;
+    }
+
+    private static String genKey(Long folioId) {
+        return "folio-detail-gen:" + folioId;
+    }
+
+    private static String userKey(Long userId) {
+        return "folio-detail-user:" + userId;
+    }
+
+    private static String userGenKey(Long userId) {
+        return "folio-detail-user-gen:" + userId;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.lifolio.service;
 
+import com.example.lifolio.base.BaseException;
 import com.example.lifolio.converter.CustomLifolioConvertor;
 import com.example.lifolio.dto.home.*;
 import com.example.lifolio.entity.*;
@@ -13,74 +14,31 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class HomeService {
     private final UserRepository userRepository;
     private final GoalOfYearRepository goalOfYearRepository;
-    private final CustomLifolioColorRepository customLifolioColorRepository;
     private final CustomLifolioRepository customLifolioRepository;
     private final PasswordEncoder passwordEncoder;
     private final MyFolioRepository myFolioRepository;
     private final UserService userService;
     private final BadgeRepository badgeRepository;
+    private final HomeSnapshotService homeSnapshotService;
+    private final MyFolioMonthlyRepository myFolioMonthlyRepository;
+    private final LifolioGraphService lifolioGraphService;
+    private final DataVersionService dataVersionService;
 
+    //홈 화면은 스냅샷에서 읽음 (집계 쿼리 없음)
     public HomeRes.GetHomeRes getHomeRes(Long userId) {
-        // 현재 날짜 구하기
-        LocalDate now = LocalDate.now();
-
         //올해 기준 홈
-        int year = now.getYear();
-
-        CustomLifolioColor customLifolioColor = customLifolioColorRepository.findByUserId(userId);
-        Optional<GoalOfYear> goalOfYear = goalOfYearRepository.findTop1ByUserIdAndYearOrderByCreatedAtDesc(userId, year);
-
-        HomeRes.TopInfo topInfo = new HomeRes.TopInfo();
-
-        //TopInfo null 값 예외처리
-        if (customLifolioColor == null && !goalOfYear.isPresent()) {
-            topInfo = new HomeRes.TopInfo(1, "목표 없음");
-        } else if (customLifolioColor == null) {
-            topInfo = new HomeRes.TopInfo(1, goalOfYear.get().getGoal());
-        } else if (!goalOfYear.isPresent()) {
-            topInfo = new HomeRes.TopInfo(customLifolioColor.getColorStatus(), "목표 없음");
-        } else {
-            topInfo = new HomeRes.TopInfo(customLifolioColor.getColorStatus(), goalOfYear.get().getGoal());
-        }
-
-        //MainLifolio 조회
-        List<MyFolioRepository.GraphLifolio> mainLifolioResult = myFolioRepository.getMainFolio(userId, year);
-        List<HomeRes.GraphLifolio> graphLifolio = new ArrayList<>();
-        mainLifolioResult.forEach(
-                myFolio -> {
-                    graphLifolio.add(new HomeRes.GraphLifolio(
-                            myFolio.getMonth(),
-                            myFolio.getStar()
-                    ));
-                }
-        );
-
-        //CustomLifolio 조회
-        List<CustomLifolioRepository.CustomUserLifolio> customUserLifolioResult = customLifolioRepository.getCustomFolio(userId);
-        List<HomeRes.CustomUserLifolioRes> customResult = new ArrayList<>();
-        customUserLifolioResult.forEach(
-                custom -> {
-                    customResult.add(new HomeRes.CustomUserLifolioRes(
-                            custom.getCustomId(),
-                            custom.getConcept(),
-                            custom.getEmoji(),
-                            custom.getCustomName()));
-                }
-        );
-        return new HomeRes.GetHomeRes(topInfo, graphLifolio, customResult);
-
-
+        int year = LocalDate.now().getYear();
+        return homeSnapshotService.getHomeRes(userId, year);
     }
 
     public List<HomeRes.GetGraphRes> getGraphLifolio(Long userId, Long customId) {
-        List<MyFolioRepository.CustomGraphLifolio> graphLifolioResult = myFolioRepository.getGraphLifolio(userId, customId);
+        List<MyFolioMonthlyRepository.CustomGraphLifolio> graphLifolioResult = myFolioMonthlyRepository.getGraphLifolio(userId, customId);
 
         List<HomeRes.GetGraphRes> graphResult = new ArrayList<>();
 
@@ -95,6 +53,16 @@ public class HomeService {
         return graphResult;
     }
 
+    //커스텀 라이폴리오 소분류의 기간별 그래프
+    public List<HomeRes.GraphPoint> getGraphSeries(Long userId, Long customId, String from, String to,
+                                                   String granularity, String aggregation) throws BaseException {
+        CustomLifolio customLifolio = customLifolioRepository.findById(customId).orElse(null);
+        if (customLifolio == null || !userId.equals(customLifolio.getUserId())) {
+            return new ArrayList<>();
+        }
+        return lifolioGraphService.getSeries(userId, customLifolio.getCategoryId(), from, to, granularity, aggregation);
+    }
+
     public List<HomeRes.GetCustomRes> getCustomLifolio(Long userId, Long customId) {
         List<MyFolioRepository.CustomInfoLifolio> customLifolioResult = myFolioRepository.getCustomLifolio(userId, customId);
         List<HomeRes.GetCustomRes> customResult = new ArrayList<>();
@@ -120,6 +88,8 @@ public class HomeService {
         customLifolio.updateCustomLifolio(customUpdateReq.getCustomName(),customUpdateReq.getCategory(),
                 customUpdateReq.getConcept(),customUpdateReq.getEmoji());
         customLifolioRepository.save(customLifolio);
+        homeSnapshotService.onCustomLifolioChanged(userId);
+        dataVersionService.bump(userId, DataVersionService.Resource.HOME);
     }
 
 
@@ -136,6 +106,8 @@ public class HomeService {
                 .build();
 
         goalOfYearRepository.save(toSaveGoalOfYear);
+        homeSnapshotService.onGoalSaved(user.getId(), year, toSaveGoalOfYear.getGoal());
+        dataVersionService.bump(user.getId(), DataVersionService.Resource.HOME);
 
         return new HomeRes.PostGoalRes(toSaveGoalOfYear.getGoal());
     }
@@ -180,6 +152,8 @@ public class HomeService {
     public void postCustomFolio(Long userId, HomeReq.CustomUpdateReq customUpdateReq) {
         CustomLifolio customLifolio= CustomLifolioConvertor.PostCustomLifolio(userId,customUpdateReq);
         customLifolioRepository.save(customLifolio);
+        homeSnapshotService.onCustomLifolioChanged(userId);
+        dataVersionService.bump(userId, DataVersionService.Resource.HOME);
     }
 
     public int countCustomLifolio(Long userId) {
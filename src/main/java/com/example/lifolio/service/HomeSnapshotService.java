@@ -0,0 +1,194 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.dto.home.HomeRes;
+import com.example.lifolio.entity.CustomLifolioColor;
+import com.example.lifolio.entity.GoalOfYear;
+import com.example.lifolio.repository.CustomLifolioColorRepository;
+import com.example.lifolio.repository.CustomLifolioRepository;
+import com.example.lifolio.repository.GoalOfYearRepository;
+import com.example.lifolio.repository.MyFolioMonthlyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 홈 화면 스냅샷 (Redis hash, home:{userId}:{year})
+ * color, goal, m1 ~ m12 (월별 최고 별점), custom (커스텀 라이폴리오 목록 JSON)
+ * 처음 열 때 한 번만 DB 에서 만들고, 이후에는 글쓰기 / 목표 / 커스텀 라이폴리오 변경 시 해당 필드만 갱신
+ * 만드는 도중 변경이 들어오면 home-gen:{userId} 가 바뀌므로 오래된 스냅샷은 저장하지 않음
+ */
+@Service
+public class HomeSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(HomeSnapshotService.class);
+
+    private static final Duration SNAPSHOT_TTL = Duration.ofDays(30);
+    private static final String NO_GOAL = "목표 없음";
+    private static final int DEFAULT_COLOR_STATUS = 1;
+
+    //세대(gen)가 그대로일 때만 스냅샷 저장 (ARGV = gen, ttl, field1, value1, ...)
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            "local gen = redis.call('GET', KEYS[2]) or '0'\n" +
+            "if gen ~= ARGV[1] then return 0 end\n" +
+            "redis.call('DEL', KEYS[1])\n" +
+            "for i = 3, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" +
+            "return 1", Long.class);
+
+    //스냅샷이 있을 때만 필드 하나 변경 (ARGV = field, value, max 비교 여부)
+    private static final RedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2])\n" +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end\n" +
+            "if ARGV[3] == '1' then\n" +
+            "  local current = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '-1')\n" +
+            "  if current >= tonumber(ARGV[2]) then return 1 end\n" +
+            "end\n" +
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])\n" +
+            "return 1", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CustomLifolioColorRepository customLifolioColorRepository;
+    private final GoalOfYearRepository goalOfYearRepository;
+    private final MyFolioMonthlyRepository myFolioMonthlyRepository;
+    private final CustomLifolioRepository customLifolioRepository;
+
+    public HomeSnapshotService(RedisTemplate<String, String> redisTemplate,
+                               ObjectMapper objectMapper,
+                               CustomLifolioColorRepository customLifolioColorRepository,
+                               GoalOfYearRepository goalOfYearRepository,
+                               MyFolioMonthlyRepository myFolioMonthlyRepository,
+                               CustomLifolioRepository customLifolioRepository) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.customLifolioColorRepository = customLifolioColorRepository;
+        this.goalOfYearRepository = goalOfYearRepository;
+        this.myFolioMonthlyRepository = myFolioMonthlyRepository;
+        this.customLifolioRepository = customLifolioRepository;
+    }
+
+    public HomeRes.GetHomeRes getHomeRes(Long userId, int year) {
+        Map<Object, Object> snapshot = redisTemplate.opsForHash().entries(snapshotKey(userId, year));
+        if (!snapshot.isEmpty()) {
+            try {
+                return fromSnapshot(snapshot);
+            } catch (JsonProcessingException e) {
+                logger.warn("홈 스냅샷을 읽지 못해 다시 만듭니다. (userId {})", userId);
+            }
+        }
+        return build(userId, year);
+    }
+
+    //MyFolio 저장 시 : 그 달의 최고 별점만 비교해서 갱신
+    public void onFolioSaved(Long userId, LocalDate startDate, Integer star) {
+        if (startDate == null || star == null) {
+            return;
+        }
+        update(userId, startDate.getYear(), monthField(startDate.getMonthValue()), String.valueOf(star), true);
+    }
+
+    //올해의 목표 저장 시 : 가장 최근 목표가 홈에 보임
+    public void onGoalSaved(Long userId, int year, String goal) {
+        update(userId, year, "goal", goal, false);
+    }
+
+    //커스텀 라이폴리오 생성 / 수정 시 : 최대 4개라 목록을 다시 읽어서 교체
+    public void onCustomLifolioChanged(Long userId) {
+        try {
+            String custom = objectMapper.writeValueAsString(loadCustomLifolio(userId));
+            update(userId, LocalDate.now().getYear(), "custom", custom, false);
+        } catch (JsonProcessingException e) {
+            redisTemplate.delete(snapshotKey(userId, LocalDate.now().getYear()));
+        }
+    }
+
+    private void update(Long userId, int year, String field, String value, boolean keepMax) {
+        redisTemplate.execute(UPDATE_SCRIPT, Arrays.asList(snapshotKey(userId, year), genKey(userId)),
+                field, value, keepMax ? "1" : "0");
+    }
+
+    private HomeRes.GetHomeRes build(Long userId, int year) {
+        String gen = Optional.ofNullable(redisTemplate.opsForValue().get(genKey(userId))).orElse("0");
+
+        CustomLifolioColor customLifolioColor = customLifolioColorRepository.findByUserId(userId);
+        Optional<GoalOfYear> goalOfYear = goalOfYearRepository.findTop1ByUserIdAndYearOrderByCreatedAtDesc(userId, year);
+        List<MyFolioMonthlyRepository.GraphLifolio> mainLifolio = myFolioMonthlyRepository.getMainFolio(userId, year);
+        List<HomeRes.CustomUserLifolioRes> customLifolio = loadCustomLifolio(userId);
+
+        int colorStatus = customLifolioColor == null ? DEFAULT_COLOR_STATUS : customLifolioColor.getColorStatus();
+        String goal = goalOfYear.map(GoalOfYear::getGoal).orElse(NO_GOAL);
+        List<HomeRes.GraphLifolio> graphLifolio = new ArrayList<>();
+        mainLifolio.forEach(myFolio -> graphLifolio.add(new HomeRes.GraphLifolio(myFolio.getMonth(), myFolio.getStar())));
+        graphLifolio.sort(Comparator.comparingInt(HomeRes.GraphLifolio::getMonth));
+
+        try {
+            List<String> args = new ArrayList<>();
+            args.add(gen);
+            args.add(String.valueOf(SNAPSHOT_TTL.toMillis()));
+            args.add("color");
+            args.add(String.valueOf(colorStatus));
+            args.add("goal");
+            args.add(goal);
+            for (HomeRes.GraphLifolio month : graphLifolio) {
+                args.add(monthField(month.getMonth()));
+                args.add(String.valueOf(month.getStar()));
+            }
+            args.add("custom");
+            args.add(objectMapper.writeValueAsString(customLifolio));
+            redisTemplate.execute(SAVE_SCRIPT, Arrays.asList(snapshotKey(userId, year), genKey(userId)), args.toArray());
+        } catch (JsonProcessingException e) {
+            logger.warn("홈 스냅샷 저장 실패 (userId {})", userId);
+        }
+
+        return new HomeRes.GetHomeRes(new HomeRes.TopInfo(colorStatus, goal), graphLifolio, customLifolio);
+    }
+
+    private HomeRes.GetHomeRes fromSnapshot(Map<Object, Object> snapshot) throws JsonProcessingException {
+        HomeRes.TopInfo topInfo = new HomeRes.TopInfo(
+                Integer.parseInt((String) snapshot.getOrDefault("color", String.valueOf(DEFAULT_COLOR_STATUS))),
+                (String) snapshot.getOrDefault("goal", NO_GOAL));
+
+        List<HomeRes.GraphLifolio> graphLifolio = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            Object star = snapshot.get(monthField(month));
+            if (star != null) {
+                graphLifolio.add(new HomeRes.GraphLifolio(month, Integer.parseInt((String) star)));
+            }
+        }
+
+        List<HomeRes.CustomUserLifolioRes> customLifolio = objectMapper.readValue(
+                (String) snapshot.getOrDefault("custom", "[]"), new TypeReference<List<HomeRes.CustomUserLifolioRes>>() {});
+        return new HomeRes.GetHomeRes(topInfo, graphLifolio, customLifolio);
+    }
+
+    private List<HomeRes.CustomUserLifolioRes> loadCustomLifolio(Long userId) {
+        List<HomeRes.CustomUserLifolioRes> customLifolio = new ArrayList<>();
+        customLifolioRepository.getCustomFolio(userId).forEach(custom -> customLifolio.add(new HomeRes.CustomUserLifolioRes(
+                custom.getCustomId(),
+                custom.getConcept(),
+                custom.getEmoji(),
+                custom.getCustomName())));
+        return customLifolio;
+    }
+
+    private static String monthField(int month) {
+        return "m" + month;
+    }
+
+    private static String snapshotKey(Long userId, int year) {
+        return "home:" + userId + ":" + year;
+    }
+
+    private static String genKey(Long userId) {
+        return "home-gen:" + userId;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.base.BaseException;
+import com.example.lifolio.dto.home.HomeRes;
+import com.example.lifolio.entity.MyFolio;
+import com.example.lifolio.repository.MyFolioRepository;
+import com.example.lifolio.util.DaySeries;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.example.lifolio.base.BaseResponseStatus.INVALID_GRAPH_OPTION;
+import static com.example.lifolio.base.BaseResponseStatus.INVALID_GRAPH_RANGE;
+
+/**
+ * 라이폴리오 그래프 (기간 / 단위 / 집계 방식 지정)
+ * 유저별 별점 시계열(DaySeries)을 처음 조회할 때 한 번 만들어 두고, MyFolio 가 추가되면 그 칸만 고침
+ * 일 / 주 / 월 / 연 단위 묶음은 메모리에서 계산하므로 확대 / 축소해도 DB 를 다시 조회하지 않음
+ * 다른 노드에서 MyFolio 가 추가되면 pub/sub 으로 그 유저의 시계열을 지움 (다음 조회 때 다시 만듦)
+ */
+@Service
+public class LifolioGraphService implements MessageListener {
+    static final String CHANNEL = "lifolio-series";
+
+    //한 번에 조회할 수 있는 기간
+    private static final int MAX_RANGE_YEARS = 100;
+
+    private final MyFolioRepository myFolioRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String nodeId;
+    private final Cache<Long, UserSeries> seriesCache;
+
+    @Autowired
+    public LifolioGraphService(MyFolioRepository myFolioRepository,
+                               RedisTemplate<String, String> redisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               @Value("${graph.series.max-days:5000000}") long maxDays) {
+        this(myFolioRepository, redisTemplate, listenerContainer, UUID.randomUUID().toString(), maxDays);
+    }
+
+    LifolioGraphService(MyFolioRepository myFolioRepository,
+                        RedisTemplate<String, String> redisTemplate,
+                        RedisMessageListenerContainer listenerContainer,
+                        String nodeId, long maxDays) {
+        this.myFolioRepository = myFolioRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.nodeId = nodeId;
+        //캐시 용량은 유저 수가 아니라 들고 있는 배열 칸 수로 제한
+        this.seriesCache = Caffeine.newBuilder()
+                .maximumWeight(maxDays)
+                .weigher((Long userId, UserSeries series) -> series.weight())
+                .expireAfterWrite(Duration.ofMinutes(30))
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * subCategoryId 가 null 이면 유저의 전체 MyFolio, 아니면 그 소분류만
+     * from / to 는 yyyy-MM-dd, granularity 는 day / week / month / year, aggregation 은 max / avg / count
+     */
+    public List<HomeRes.GraphPoint> getSeries(Long userId, Long subCategoryId, String from, String to,
+                                              String granularity, String aggregation) throws BaseException {
+        LocalDate now = LocalDate.now();
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = from == null ? now.withDayOfYear(1) : LocalDate.parse(from);
+            toDate = to == null ? now.withDayOfYear(now.lengthOfYear()) : LocalDate.parse(to);
+            //+999999999-12-31 같은 끝 값은 plusYears 에서 DateTimeException
+            if (fromDate.isAfter(toDate) || fromDate.plusYears(MAX_RANGE_YEARS).isBefore(toDate)) {
+                throw new BaseException(INVALID_GRAPH_RANGE);
+            }
+        } catch (DateTimeException e) {
+            throw new BaseException(INVALID_GRAPH_RANGE);
+        }
+
+        DaySeries.Granularity unit = granularity == null ? DaySeries.Granularity.MONTH : DaySeries.Granularity.parse(granularity);
+        DaySeries.Aggregation function = aggregation == null ? DaySeries.Aggregation.MAX : DaySeries.Aggregation.parse(aggregation);
+        if (unit == null || function == null) {
+            throw new BaseException(INVALID_GRAPH_OPTION);
+        }
+
+        List<HomeRes.GraphPoint> points = new ArrayList<>();
+        UserSeries series = seriesCache.get(userId, this::load);
+        series.downsample(subCategoryId, fromDate, toDate, unit, function,
+                (bucketStart, value, count) -> points.add(new HomeRes.GraphPoint(bucketStart.toString(), value, count)));
+        return points;
+    }
+
+    //MyFolio 추가 : 이 노드의 시계열은 그 칸만 고치고, 다른 노드에는 지우라고 알림
+    public void onFolioSaved(MyFolio myFolio) {
+        if (myFolio.getStartDate() == null || myFolio.getCategoryId() == null || !DaySeries.supports(myFolio.getStartDate())) {
+            return;
+        }
+        int epochDay = (int) myFolio.getStartDate().toEpochDay();
+        int star = myFolio.getStar() == null ? 0 : myFolio.getStar();
+        seriesCache.asMap().computeIfPresent(myFolio.getUserId(), (userId, series) -> {
+            series.add(myFolio.getCategoryId(), epochDay, star);
+            return series;
+        });
+        redisTemplate.convertAndSend(CHANNEL, nodeId + ":" + myFolio.getUserId());
+    }
+
+    //MyFolio 수정 / 삭제 : 어느 칸이 바뀌었는지 모르므로 다음 조회 때 다시 만듦
+    public void onFolioChanged(Long userId) {
+        seriesCache.invalidate(userId);
+        redisTemplate.convertAndSend(CHANNEL, "*:" + userId);
+    }
+
+    //다른 노드에서 MyFolio 가 바뀐 유저 (이 노드가 보낸 메시지는 이미 반영했으므로 무시)
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        seriesCache.invalidate(Long.parseLong(body.substring(separator + 1)));
+    }
+
+    private UserSeries load(Long userId) {
+        UserSeries series = new UserSeries();
+        myFolioRepository.forEachStar(userId, series::add);
+        return series;
+    }
+
+    //유저 하나의 시계열 (전체 + 소분류별), 고치는 중에 읽지 않도록 동기화
+    static class UserSeries {
+        private final DaySeries all = new DaySeries();
+        private final Map<Long, DaySeries> bySubCategory = new HashMap<>();
+
+        synchronized void add(long subCategoryId, int epochDay, int star) {
+            all.add(epochDay, star);
+            bySubCategory.computeIfAbsent(subCategoryId, key -> new DaySeries()).add(epochDay, star);
+        }
+
+        synchronized void downsample(Long subCategoryId, LocalDate from, LocalDate to,
+                                     DaySeries.Granularity granularity, DaySeries.Aggregation aggregation,
+                                     DaySeries.BucketConsumer consumer) {
+            DaySeries series = subCategoryId == null ? all : bySubCategory.get(subCategoryId);
+            if (series != null) {
+                series.downsample(from, to, granularity, aggregation, consumer);
+            }
+        }
+
+        synchronized int weight() {
+            int weight = all.length() + 1;
+            for (DaySeries series : bySubCategory.values()) {
+                weight += series.length();
+            }
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.repository.MyFolioDailyRepository;
+import com.example.lifolio.repository.UserRepository;
+import com.example.lifolio.scheduler.ShardedJobRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MyFolioDaily (유저 / 날짜별 대표 MyFolio) 관리
+ * MyFolio 추가는 그날 한 줄 upsert, 수정 / 삭제나 카테고리 색상 변경은 그 유저의 날짜를 MyFolio 기준으로 다시 계산
+ * 누락된 갱신은 매일 userId 범위별로 다시 맞춤
+ */
+@Service
+public class MyFolioCalendarService {
+    private static final Logger logger = LoggerFactory.getLogger(MyFolioCalendarService.class);
+
+    //재생성 시 한 번에 다시 계산하는 userId 범위
+    static final int REBUILD_RANGE = 1000;
+
+    private final MyFolioDailyRepository myFolioDailyRepository;
+    private final UserRepository userRepository;
+    private final ShardedJobRunner shardedJobRunner;
+
+    public MyFolioCalendarService(MyFolioDailyRepository myFolioDailyRepository,
+                                  UserRepository userRepository,
+                                  ShardedJobRunner shardedJobRunner) {
+        this.myFolioDailyRepository = myFolioDailyRepository;
+        this.userRepository = userRepository;
+        this.shardedJobRunner = shardedJobRunner;
+    }
+
+    //MyFolio 추가 (대표 사진이 들어가도록 사진 저장 후 호출)
+    public void onFolioSaved(Long folioId) {
+        myFolioDailyRepository.addFolio(folioId);
+    }
+
+    //MyFolio 수정 / 삭제 (바뀐 날을 알 수 없으므로 유저 단위로 다시 계산)
+    public void onFolioChanged(Long userId) {
+        rebuild(userId - 1, userId);
+    }
+
+    //카테고리 색상 변경, 소분류 이동 / 삭제 (캘린더에 들어간 색상이 바뀜)
+    public void onCategoryChanged(Long userId) {
+        rebuild(userId - 1, userId);
+    }
+
+    //매일 새벽 전체 재생성 (모든 노드가 userId 범위를 나눠서 처리)
+    @Scheduled(cron = "0 30 4 * * *", zone = "Asia/Seoul")
+    public void rebuildAll() {
+        long started = System.currentTimeMillis();
+        AtomicInteger days = new AtomicInteger();
+
+        shardedJobRunner.runInRanges("myfolio-calendar", LocalDate.now().toString(), userRepository.findMaxId(), REBUILD_RANGE,
+                (fromExclusive, toInclusive) -> days.addAndGet(rebuild(fromExclusive, toInclusive)));
+
+        logger.info("myfolio-calendar {}일 갱신 ({}ms)", days.get(), System.currentTimeMillis() - started);
+    }
+
+    //배포 직후 테이블이 비어 있으면 바로 채움
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillIfEmpty() {
+        if (myFolioDailyRepository.count() == 0) {
+            rebuildAll();
+        }
+    }
+
+    private int rebuild(long fromExclusive, long toInclusive) {
+        int upserted = myFolioDailyRepository.rebuildUsers(fromExclusive, toInclusive);
+        myFolioDailyRepository.deleteEmptyDays(fromExclusive, toInclusive);
+        return upserted;
+    }
+}
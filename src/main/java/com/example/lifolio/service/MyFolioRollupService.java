@@ -0,0 +1,82 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.entity.MyFolio;
+import com.example.lifolio.repository.MyFolioMonthlyRepository;
+import com.example.lifolio.repository.UserRepository;
+import com.example.lifolio.scheduler.ShardedJobRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MyFolioMonthly (유저 / 소분류 / 연월별 별점 집계) 관리
+ * MyFolio 추가는 해당 칸만 한 줄 upsert, 수정 / 삭제는 그 유저의 칸을 MyFolio 기준으로 다시 계산
+ * 누락된 갱신은 매일 userId 범위별로 다시 맞춤
+ */
+@Service
+public class MyFolioRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(MyFolioRollupService.class);
+
+    //재생성 시 한 번에 다시 계산하는 userId 범위
+    static final int REBUILD_RANGE = 1000;
+
+    private final MyFolioMonthlyRepository myFolioMonthlyRepository;
+    private final UserRepository userRepository;
+    private final ShardedJobRunner shardedJobRunner;
+
+    public MyFolioRollupService(MyFolioMonthlyRepository myFolioMonthlyRepository,
+                                UserRepository userRepository,
+                                ShardedJobRunner shardedJobRunner) {
+        this.myFolioMonthlyRepository = myFolioMonthlyRepository;
+        this.userRepository = userRepository;
+        this.shardedJobRunner = shardedJobRunner;
+    }
+
+    //MyFolio 추가
+    public void onFolioSaved(MyFolio myFolio) {
+        if (myFolio.getStartDate() == null || myFolio.getCategoryId() == null) {
+            return;
+        }
+        LocalDate startDate = myFolio.getStartDate();
+        int star = myFolio.getStar() == null ? 0 : myFolio.getStar();
+        myFolioMonthlyRepository.addFolio(myFolio.getUserId(), myFolio.getCategoryId(),
+                startDate.getYear(), startDate.getMonthValue(), star);
+    }
+
+    //MyFolio 수정 / 삭제 (이전 칸을 알 수 없으므로 유저 단위로 다시 계산)
+    public void onFolioChanged(Long userId) {
+        rebuild(userId - 1, userId);
+    }
+
+    //매일 새벽 전체 재생성 (모든 노드가 userId 범위를 나눠서 처리)
+    @Scheduled(cron = "0 0 4 * * *", zone = "Asia/Seoul")
+    public void rebuildAll() {
+        long started = System.currentTimeMillis();
+        AtomicInteger cells = new AtomicInteger();
+
+        shardedJobRunner.runInRanges("myfolio-rollup", LocalDate.now().toString(), userRepository.findMaxId(), REBUILD_RANGE,
+                (fromExclusive, toInclusive) -> cells.addAndGet(rebuild(fromExclusive, toInclusive)));
+
+        logger.info("myfolio-rollup 집계 {}건 갱신 ({}ms)", cells.get(), System.currentTimeMillis() - started);
+    }
+
+    //배포 직후 집계 테이블이 비어 있으면 바로 채움
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillIfEmpty() {
+        if (myFolioMonthlyRepository.count() == 0) {
+            rebuildAll();
+        }
+    }
+
+    private int rebuild(long fromExclusive, long toInclusive) {
+        int upserted = myFolioMonthlyRepository.rebuildUsers(fromExclusive, toInclusive);
+        myFolioMonthlyRepository.deleteEmptyCells(fromExclusive, toInclusive);
+        return upserted;
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.lifolio.service;
 
+import com.example.lifolio.base.BaseException;
 import com.example.lifolio.dto.category.CategoryRes;
 import com.example.lifolio.dto.home.HomeRes;
 import com.example.lifolio.dto.my.MyReq;
 import com.example.lifolio.dto.my.MyRes;
 import com.example.lifolio.dto.user.UserRes;
 import com.example.lifolio.entity.*;
+import com.example.lifolio.loader.ReferenceLoader;
 import com.example.lifolio.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -13,14 +15,22 @@ import org.springframework.stereotype.Service;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static com.example.lifolio.base.BaseResponseStatus.INVALID_CALENDAR_MONTH;
+import static com.example.lifolio.base.BaseResponseStatus.INVALID_CURSOR;
+
 @Service
 @RequiredArgsConstructor
 public class MyService {
+    private static final int VIEW_CATEGORY_PAGE_SIZE = 10;
+
     private final UserRepository userRepository;
     private final MyFolioRepository myFolioRepository;
     private final MyFolioImgRepository myFolioImgRepository;
@@ -28,9 +38,17 @@ public class MyService {
     private final ArchiveRepository archiveRepository;
     private final SubCategoryRepository subCategoryRepository;
 
-    private final CategoryRepository categoryRepository;
+    private final ReferenceLoader referenceLoader;
+    private final FolioDetailService folioDetailService;
 
     private final S3Service s3Service;
+    private final HomeSnapshotService homeSnapshotService;
+    private final MyFolioMonthlyRepository myFolioMonthlyRepository;
+    private final MyFolioDailyRepository myFolioDailyRepository;
+    private final MyFolioRollupService myFolioRollupService;
+    private final MyFolioCalendarService myFolioCalendarService;
+    private final LifolioGraphService lifolioGraphService;
+    private final DataVersionService dataVersionService;
 
     public UserRes.GetMyRes getMyLifolio(Long userId) {
         User user=userRepository.getOne(userId);
@@ -69,18 +87,27 @@ public class MyService {
         return new UserRes.GetMyRes(user.getNickname(),lifolioCnt,bestCategory,archive);
     }
 
-    public List<UserRes.Calender> getCalender(Long userId, String date) {
-        List<MyFolioRepository.Calender> calenderList=myFolioRepository.getCalenderList(userId,date);
+    //월간 캘린더 : 날짜별 대표 MyFolio (MyFolioDaily 에서 그 유저의 한 달만 읽음)
+    public List<UserRes.Calender> getCalender(Long userId, String date) throws BaseException {
+        YearMonth month;
+        try {
+            month = YearMonth.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new BaseException(INVALID_CALENDAR_MONTH);
+        }
+
+        List<MyFolioDaily> calenderList = myFolioDailyRepository.findByUserIdAndDayGreaterThanEqualAndDayLessThanOrderByDayAsc(
+                userId, month.atDay(1), month.plusMonths(1).atDay(1));
         List<UserRes.Calender> calender=new ArrayList<>();
 
         calenderList.forEach(
                 result->{
                     calender.add(
                             new UserRes.Calender(
-                                    result.getDate(),
+                                    result.getDay(),
                                     result.getColor(),
-                                    result.getFolioId(),
-                                    result.getUrl(),
+                                    result.getTopFolioId(),
+                                    result.getCoverUrl(),
                                     result.getTitle()
                             )
                     );
@@ -99,18 +126,16 @@ public class MyService {
     }
 
     public List<UserRes.DailyCalender> getDailyCalender(Long userId, String date) throws ParseException {
-        //String str = "2019-09-02 08:10:55";
-
-
-
         List<MyFolio> myFolioList = myFolioRepository.findAllByUserIdAndEndDate(userId, LocalDate.parse(date));
         List<UserRes.DailyCalender> dailyCalenderList = new ArrayList<>();
 
-
+        //카테고리 제목은 한 번에 조회
+        referenceLoader.requestCategories(myFolioList.stream().map(MyFolio::getCategoryId).collect(Collectors.toList()));
         for(MyFolio myFolio : myFolioList){
+            Category category = referenceLoader.category(myFolio.getCategoryId());
             UserRes.DailyCalender dailyCalender = new UserRes.DailyCalender(
                     myFolio.getEndDate(),
-                    categoryRepository.findById(myFolio.getCategoryId()).get().getTitle(),
+                    category == null ? null : category.getTitle(),
                     myFolio.getTitle(),
                     myFolio.getStar()
             );
@@ -124,7 +149,7 @@ public class MyService {
     public List<HomeRes.GraphLifolio> getGraphLifolio(Long userId) {
         LocalDate now = LocalDate.now();
         int year = now.getYear();
-        List<MyFolioRepository.GraphLifolio> mainLifolioResult = myFolioRepository.getMainFolio(userId, year);
+        List<MyFolioMonthlyRepository.GraphLifolio> mainLifolioResult = myFolioMonthlyRepository.getMainFolio(userId, year);
         List<HomeRes.GraphLifolio> graphLifolio = new ArrayList<>();
         mainLifolioResult.forEach(
                 myFolio -> {
@@ -137,69 +162,73 @@ public class MyService {
         return graphLifolio;
     }
 
-    public List<MyRes.ViewCategory> getViewCategory(Long userId, MyReq.FilterCategory filterCategory, int page) {
-
-        List<MyRes.ViewCategory> viewCategory=new ArrayList<>();
-        int startPage=(page-1)*10;
-        int lastPage=page*10;//최신순
-        List<MyFolioRepository.ViewCategory> viewCategoryResult =null;
-        List<String> category=getCategoryList(userId);
+    //전체 MyFolio 의 기간별 그래프
+    public List<HomeRes.GraphPoint> getGraphSeries(Long userId, String from, String to,
+                                                   String granularity, String aggregation) throws BaseException {
+        return lifolioGraphService.getSeries(userId, null, from, to, granularity, aggregation);
+    }
 
-        if(filterCategory.getOrder()==1){
-            if(filterCategory.getCategoryList().size()==0){
-                viewCategoryResult =myFolioRepository.getViewCategoryDateDesc(userId,  category,startPage,lastPage);
-            }
-            else {
-                viewCategoryResult = myFolioRepository.getViewCategoryDateDesc(userId, filterCategory.getCategoryList(), startPage, lastPage);
+    //모아보기 (keyset 페이지네이션) : 몇 번째 페이지든 (user_id, 정렬 컬럼, id) 인덱스에서 다음 행부터 읽음
+    public MyRes.ViewCategoryPage getViewCategory(Long userId, MyReq.FilterCategory filterCategory) throws BaseException {
+        MyFolioRepositoryCustom.BrowseOrder order = MyFolioRepositoryCustom.BrowseOrder.of(filterCategory.getOrder());
+        MyFolioRepositoryCustom.BrowseCursor after = null;
+        if (filterCategory.getCursor() != null && !filterCategory.getCursor().isEmpty()) {
+            try {
+                after = MyFolioRepositoryCustom.BrowseCursor.decode(filterCategory.getCursor(), order);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new BaseException(INVALID_CURSOR);
             }
-
         }
-        //오래된 순
-        else if(filterCategory.getOrder()==2) {
-            if(filterCategory.getCategoryList().size()==0){
-                viewCategoryResult = myFolioRepository.getViewCategoryDateAsc(userId, category, startPage, lastPage);
-            }else{
-                viewCategoryResult = myFolioRepository.getViewCategoryDateAsc(userId, filterCategory.getCategoryList(), startPage, lastPage);
-
-            }
 
+        List<Long> subCategoryIds = resolveSubCategoryIds(userId, filterCategory);
+        if (subCategoryIds == null) {
+            return new MyRes.ViewCategoryPage(new ArrayList<>(), null);
         }
-        else if(filterCategory.getOrder()==3) {
-            if (filterCategory.getCategoryList().size() == 0) {
-                viewCategoryResult = myFolioRepository.getViewCategoryStarDesc(userId, category, startPage, lastPage);
-            }else{
-                viewCategoryResult = myFolioRepository.getViewCategoryStarDesc(userId, filterCategory.getCategoryList(), startPage, lastPage);
 
-            }
+        //한 건 더 읽어서 다음 페이지가 있는지 확인
+        List<MyRes.ViewCategory> viewCategory = myFolioRepository.browse(userId, subCategoryIds, order, after, VIEW_CATEGORY_PAGE_SIZE + 1);
+        String nextCursor = null;
+        if (viewCategory.size() > VIEW_CATEGORY_PAGE_SIZE) {
+            viewCategory = new ArrayList<>(viewCategory.subList(0, VIEW_CATEGORY_PAGE_SIZE));
+            nextCursor = MyFolioRepositoryCustom.BrowseCursor.after(order, viewCategory.get(viewCategory.size() - 1)).encode();
         }
-        //낮은 중요도순
-        else{
-                if(filterCategory.getCategoryList().size()==0){
-                    viewCategoryResult = myFolioRepository.getViewCategoryStarAsc(userId, category, startPage, lastPage);
+        markArchived(viewCategory);
 
-                }else {
-                    viewCategoryResult = myFolioRepository.getViewCategoryStarAsc(userId, filterCategory.getCategoryList(), startPage, lastPage);
-                }
+        return new MyRes.ViewCategoryPage(viewCategory, nextCursor);
+    }
 
+    //이전 버전 앱 (page 파라미터, 소분류 제목 필터) : 예전처럼 목록만 반환
+    public List<MyRes.ViewCategory> getViewCategory(Long userId, MyReq.FilterCategory filterCategory, int page) {
+        List<Long> subCategoryIds = resolveSubCategoryIds(userId, filterCategory);
+        if (subCategoryIds == null) {
+            return new ArrayList<>();
         }
-
-        viewCategoryResult.forEach(
-                result -> {
-                    viewCategory.add(new MyRes.ViewCategory(
-                            result.getFolioId(),
-                            result.getUrl(),
-                            result.getTitle(),
-                            result.getArchiveCheck(),
-                            result.getDate(),
-                            result.getCategory(),
-                            result.getColorName(),
-                            result.getStar()
-                    ));
-                }
-        );
+        MyFolioRepositoryCustom.BrowseOrder order = MyFolioRepositoryCustom.BrowseOrder.of(filterCategory.getOrder());
+        int offset = (Math.max(page, 1) - 1) * VIEW_CATEGORY_PAGE_SIZE;
+        List<MyRes.ViewCategory> viewCategory = myFolioRepository.browseOffset(userId, subCategoryIds, order, offset, VIEW_CATEGORY_PAGE_SIZE);
+        markArchived(viewCategory);
         return viewCategory;
     }
 
+    //categoryIds 가 없으면 소분류 제목(categoryList)으로 찾음, 제목에 맞는 소분류가 없으면 null (결과 없음)
+    private List<Long> resolveSubCategoryIds(Long userId, MyReq.FilterCategory filterCategory) {
+        List<Long> subCategoryIds = filterCategory.getCategoryIds();
+        if ((subCategoryIds == null || subCategoryIds.isEmpty())
+                && filterCategory.getCategoryList() != null && !filterCategory.getCategoryList().isEmpty()) {
+            subCategoryIds = subCategoryRepository.findIdsByUserIdAndTitles(userId, filterCategory.getCategoryList());
+            if (subCategoryIds.isEmpty()) {
+                return null;
+            }
+        }
+        return subCategoryIds;
+    }
+
+    private void markArchived(List<MyRes.ViewCategory> viewCategory) {
+        Set<Long> archived = myFolioRepository.findArchivedFolioIds(
+                viewCategory.stream().map(MyRes.ViewCategory::getFolioId).collect(Collectors.toList()));
+        viewCategory.forEach(folio -> folio.setArchiveCheck(archived.contains(folio.getFolioId()) ? 1 : 0));
+    }
+
     public List<String> getCategoryList(Long userId){
         List<SubCategoryRepository.CategoryList> categoryListResult=subCategoryRepository.getCategoryList(userId);
         List<CategoryRes.CategoryList> categoryList=new ArrayList<>();
@@ -215,71 +244,9 @@ public class MyService {
     }
 
 
-    //마이폴리오 하나씩 보기
+    //마이폴리오 하나씩 보기 (FolioDetailService 캐시, 없으면 쿼리 두 번으로 조회)
     public UserRes.GetMyFolioDetailRes getMyLifolioDetail(Long folioId) {
-
-        if(!myFolioRepository.existsMyFolioById(folioId)) return null;
-
-        MyFolio myFolio = myFolioRepository.findById(folioId).get();
-
-        Long subCategoryId = myFolio.getCategoryId(); //마이폴리오에 저장된 카테고리id는 서브카테고리id
-        Long categoryId = subCategoryRepository.findById(subCategoryId).get().getCategoryId();
-
-
-        UserRes.GetMyFolioDetailRes getMyFolioDetailRes = new UserRes.GetMyFolioDetailRes(
-                myFolio.getTitle(),
-                myFolio.getStar(),
-
-                categoryRepository.findById(categoryId).get().getTitle(),
-                subCategoryRepository.findById(subCategoryId).get().getTitle(),
-
-
-                getMyLifolioDetailImg(folioId),
-
-                myFolio.getStartDate(),
-                myFolio.getEndDate(),
-
-                myFolio.getContent(),
-
-                myFolio.getAddress(),
-                myFolio.getLatitude(),
-                myFolio.getLongitude(),
-
-                getMyFolioWithList(folioId)
-        );
-
-        return getMyFolioDetailRes;
-    }
-
-
-
-    public List<UserRes.MyFolioImgList> getMyLifolioDetailImg(Long folioId){
-        List<MyFolioImg> imgs = myFolioImgRepository.findAllByFolioId(folioId);
-        List<UserRes.MyFolioImgList> myFolioImgList = new ArrayList<>();
-
-        for(MyFolioImg img : imgs){
-            UserRes.MyFolioImgList image = new UserRes.MyFolioImgList(img.getUrl());
-            myFolioImgList.add(image);
-        }
-
-        return myFolioImgList;
-    }
-
-
-
-    public List<UserRes.MyFolioWithList> getMyFolioWithList(Long folioId){
-        List<MyFolioWith> withs = myFolioWithRepository.findAllByFolioId(folioId);
-        List<UserRes.MyFolioWithList> myFolioWithList = new ArrayList<>();
-
-
-        for(MyFolioWith with : withs){
-            UserRes.MyFolioWithList person = new UserRes.MyFolioWithList(
-                    with.getUserName()
-            );
-            myFolioWithList.add(person);
-        }
-
-        return myFolioWithList;
+        return folioDetailService.getDetail(folioId);
     }
 
 
@@ -298,6 +265,10 @@ public class MyService {
                 .build();
 
         myFolioRepository.save(myFolio);
+        //집계를 먼저 반영해야 홈 스냅샷을 새로 만들 때도 이번 폴리오가 포함됨
+        myFolioRollupService.onFolioSaved(myFolio);
+        homeSnapshotService.onFolioSaved(userId, myFolio.getStartDate(), myFolio.getStar());
+        lifolioGraphService.onFolioSaved(myFolio);
 
         List<String> imgList = new ArrayList<>();
         for (String imgUrl : imgPaths) {
@@ -312,6 +283,12 @@ public class MyService {
             myFolioWithRepository.save(name);
             Shared_name_List.add(name.getUserName());
         }
+        //캘린더 대표 사진이 들어가도록 사진 저장 후 반영
+        myFolioCalendarService.onFolioSaved(myFolio.getId());
+        //사진 / 같이 한 사람을 저장하는 사이에 읽혀서 캐시된 상세가 있으면 지움
+        folioDetailService.evict(myFolio.getId());
+        //사진까지 저장한 뒤에 버전을 올려야 새 ETag 응답에 대표 사진이 포함됨
+        dataVersionService.bump(userId, DataVersionService.Resource.HOME, DataVersionService.Resource.MY, DataVersionService.Resource.CALENDAR);
     }
 }
 
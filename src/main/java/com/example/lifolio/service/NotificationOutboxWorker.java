@@ -0,0 +1,134 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.dto.alarm.RequestDTO;
+import com.example.lifolio.entity.NotificationOutbox;
+import com.example.lifolio.repository.NotificationOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * outbox 발송 워커
+ * 워커마다 FOR UPDATE SKIP LOCKED 로 서로 겹치지 않게 묶음을 가져가고(짧은 트랜잭션),
+ * 트랜잭션 밖에서 FCM 으로 보낸 뒤 결과를 기록
+ * 보내는 도중 서버가 죽으면 lease 가 끝난 뒤 다른 워커가 그 묶음부터 다시 가져감
+ */
+@Service
+public class NotificationOutboxWorker {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxWorker.class);
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final FcmBatchSender fcmBatchSender;
+    private final FcmTokenPruner fcmTokenPruner;
+    private final int workers;
+    private final int batchSize;
+    private final long leaseSeconds;
+
+    private final ExecutorService workerExecutor;
+    private final AtomicInteger running = new AtomicInteger();
+
+    public NotificationOutboxWorker(NotificationOutboxRepository notificationOutboxRepository,
+                                    FcmBatchSender fcmBatchSender,
+                                    FcmTokenPruner fcmTokenPruner,
+                                    @Value("${notification.outbox.workers:4}") int workers,
+                                    @Value("${notification.outbox.batch-size:500}") int batchSize,
+                                    @Value("${notification.outbox.lease-seconds:120}") long leaseSeconds) {
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.fcmBatchSender = fcmBatchSender;
+        this.fcmTokenPruner = fcmTokenPruner;
+        this.workers = workers;
+        this.batchSize = Math.min(batchSize, FcmBatchSender.MAX_BATCH_SIZE);
+        this.leaseSeconds = leaseSeconds;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workerExecutor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "notification-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    //쉬고 있는 워커를 깨움 (이미 workers 개가 돌고 있으면 그대로 둠)
+    @Scheduled(fixedDelay = 1000)
+    public void poll() {
+        while (true) {
+            int current = running.get();
+            if (current >= workers) {
+                return;
+            }
+            if (running.compareAndSet(current, current + 1)) {
+                workerExecutor.submit(this::drain);
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 30 4 * * *")
+    public void deleteFinished() {
+        int deleted = notificationOutboxRepository.deleteFinishedBefore(7);
+        logger.info("발송이 끝난 알림 {}건 삭제", deleted);
+    }
+
+    //가져갈 알림이 없을 때까지 반복
+    private void drain() {
+        try {
+            List<NotificationOutbox> claimed;
+            while (!(claimed = notificationOutboxRepository.claim(batchSize, leaseSeconds)).isEmpty()) {
+                deliver(claimed);
+            }
+        } catch (RuntimeException e) {
+            logger.error("알림 발송 워커 오류 : {}", e.getMessage());
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    void deliver(List<NotificationOutbox> claimed) {
+        List<RequestDTO> requests = claimed.stream()
+                .map(notification -> new RequestDTO(notification.getTargetToken(), notification.getTitle(), notification.getBody()))
+                .collect(Collectors.toList());
+        List<FcmTokenPruner.SendStatus> statuses = fcmBatchSender.send(requests);
+
+        List<Long> sent = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        List<Long> retry = new ArrayList<>();
+        for (int i = 0; i < claimed.size(); i++) {
+            NotificationOutbox notification = claimed.get(i);
+            FcmTokenPruner.SendStatus status = statuses.get(i);
+            if (status == FcmTokenPruner.SendStatus.SUCCESS) {
+                sent.add(notification.getId());
+            } else if (!status.isRetryable() || notification.getAttempts() >= MAX_ATTEMPTS) {
+                failed.add(notification.getId());
+            } else {
+                retry.add(notification.getId());
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            notificationOutboxRepository.markSent(sent);
+        }
+        if (!failed.isEmpty()) {
+            notificationOutboxRepository.markFailed(failed);
+            fcmTokenPruner.flush();
+        }
+        if (!retry.isEmpty()) {
+            notificationOutboxRepository.reschedule(retry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerExecutor.shutdown();
+    }
+}
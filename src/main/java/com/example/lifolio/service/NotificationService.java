@@ -1,204 +1,104 @@
 package com.example.lifolio.service;
 
 import com.example.lifolio.converter.AlarmConvertor;
-import com.example.lifolio.converter.TimeConvertor;
 import com.example.lifolio.dto.alarm.AlarmRes;
 import com.example.lifolio.dto.alarm.RequestDTO;
-import com.example.lifolio.dto.planning.PlanningRes;
-import com.example.lifolio.repository.PlanningMonthRepository;
+import com.example.lifolio.entity.Alarm;
+import com.example.lifolio.entity.NotificationOutbox;
+import com.example.lifolio.repository.NotificationOutboxRepository;
 import com.example.lifolio.repository.PlanningRepository;
-import com.example.lifolio.repository.PlanningWeekRepository;
+import com.example.lifolio.repository.UserRepository;
+import com.example.lifolio.scheduler.ShardedJobRunner;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
-import java.sql.Date;
-import java.sql.SQLException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import static org.apache.tomcat.jni.Time.now;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
-    private final FirebaseCloudMessageService firebaseMessageService;
-
-    private final PlanningRepository planningRepository;
-    private final PlanningWeekRepository planningWeekRepository;
-    private final PlanningMonthRepository planningMonthRepository;
-
-    //TODO OOO님 오늘 이룰 목표 N개중 M개 체크하지 못했어요 !     
-    @Scheduled(cron = "0 0 18 * * *")
-    public void scheduledTodoAlarm() throws IOException {
-        List<AlarmRes.PlanningUserList> getTodoUserList=getUserList();
-
-
-        for (AlarmRes.PlanningUserList planningUserList : getTodoUserList) {
-            notificationUser(planningUserList);
-        }
-
-    }
-
-    @Transactional(rollbackFor= SQLException.class)
-    public void notificationUser(AlarmRes.PlanningUserList planningUser) throws IOException {
-
-        List<PlanningRepository.TodoList> todoListResult = planningRepository.getTodoList(planningUser.getUserId());
-        List<AlarmRes.PlanningRes> todoSuccess = new ArrayList<>();
-
-        todoListResult.forEach(
-                custom -> {
-                    todoSuccess.add(new AlarmRes.PlanningRes(
-                            custom.getSuccess()));
-                    });
-        List<Integer> todoPlanning = todoSuccess.stream().map(e -> e.getSuccess()).collect(Collectors.toList());
-
-
-
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
 
-        RequestDTO requestDTO = AlarmConvertor.RequestDto(planningUser, todoPlanning);
-
-        firebaseMessageService.sendMessageTo(
-                requestDTO.getTargetToken(),
-                requestDTO.getTitle(),
-                requestDTO.getBody());
-
-
-    }
-
-    @Transactional(rollbackFor= SQLException.class)
-    public List<AlarmRes.PlanningUserList> getUserList() {
-        List<PlanningRepository.UserIdList> userIdListResult=planningRepository.getUserIdList();
-        List<AlarmRes.PlanningUserList> planningUserList=new ArrayList<>();
-        userIdListResult.forEach(
-                custom->{
-                    planningUserList.add(new AlarmRes.PlanningUserList(
-                            custom.getUserId(),
-                            custom.getNickname(),
-                            custom.getFcmToken()));
-                }
-        );
-
-        return planningUserList;
-    }
-
-
-    //TODO 이번주 목표 알림
-    @Scheduled(cron = "0 0 18 * * 6")
-    public void scheduledTodoWeekAlarm() throws IOException {
-        List<AlarmRes.PlanningUserList> getTodoUserList=getUserWeekList();
-
-        for (AlarmRes.PlanningUserList planningUserList : getTodoUserList) {
-            notificationWeekUser(planningUserList);
-        }
-
-    }
+    private static final int CHUNK_SIZE = 500;
 
-    private void notificationWeekUser(AlarmRes.PlanningUserList planningUser) throws IOException {
-        LocalDate date = LocalDate.now();
-        PlanningRes.TimeRes timeRes= TimeConvertor.getThisWeek(String.valueOf(date));
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final ShardedJobRunner shardedJobRunner;
+    private final UserRepository userRepository;
+    private final AlarmFlagIndexService alarmFlagIndexService;
 
-        List<PlanningWeekRepository.TodoList> todoListResult = planningWeekRepository.getTodoList(timeRes.getStartTime(),timeRes.getFinishTime(),planningUser.getUserId());
-        List<AlarmRes.PlanningRes> todoSuccess = new ArrayList<>();
-
-        todoListResult.forEach(
-                custom -> {
-                    todoSuccess.add(new AlarmRes.PlanningRes(
-                            custom.getSuccess()));
-                }
-        );
-        List<Integer> todoPlanning  = todoSuccess.stream().map(e -> e.getSuccess()).collect(Collectors.toList());
-
-        RequestDTO requestDTO = AlarmConvertor.AlarmWeek(planningUser, todoPlanning);
-
-        firebaseMessageService.sendMessageTo(
-                requestDTO.getTargetToken(),
-                requestDTO.getTitle(),
-                requestDTO.getBody());
-
-        }
-
-
-
-    private List<AlarmRes.PlanningUserList> getUserWeekList() {
-        LocalDate date = LocalDate.now();
-        PlanningRes.TimeRes timeRes= TimeConvertor.getThisWeek(String.valueOf(date));
-
-        List<PlanningWeekRepository.UserIdList> userIdListResult=planningWeekRepository.getUserIdList(timeRes.getStartTime(),timeRes.getFinishTime());
-        List<AlarmRes.PlanningUserList> planningUserList=new ArrayList<>();
+    private final PlanningRepository planningRepository;
 
-        userIdListResult.forEach(
-                custom->{
-                    planningUserList.add(new AlarmRes.PlanningUserList(
-                            custom.getUserId(),
-                            custom.getNickname(),
-                            custom.getFcmToken()));
+    /**
+     * DigestTimingWheel 이 매분 그 칸(slot)에 속한 시간대마다 호출
+     * 유저 현지 날짜 기준 오늘 요약에 토요일이면 주간, 말일이면 월간 요약까지 한 번의 조회로 모아서
+     * 유저당 푸시 하나로 합쳐 보냄 (idempotency key = todo-digest:현지 날짜:userId)
+     */
+    public void enqueueDigests(int slot, ZoneId zone, LocalDate localDate) {
+        String zoneId = zone.getId();
+        String period = String.valueOf(localDate);
+        boolean weekly = localDate.getDayOfWeek() == DayOfWeek.SATURDAY;
+        boolean monthly = localDate.getDayOfMonth() == localDate.lengthOfMonth();
+        //[시작, 다음 시작) 반개구간 (23:59:59 이후 저장된 계획도 포함), 주는 일요일부터
+        LocalDate weekStart = localDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+        LocalDate monthStart = localDate.withDayOfMonth(1);
+
+        long started = System.currentTimeMillis();
+        AtomicInteger queued = new AtomicInteger();
+        String runId = period + ":" + slot + ":" + zoneId;
+        String keyPrefix = "todo-digest:" + period + ":";
+
+        //모든 노드가 같은 칸을 같이 처리하고, userId 범위를 샤드로 나눠 노드끼리 나눠서 처리
+        shardedJobRunner.run("todo-digest", runId, userRepository.findMaxId(), (fromExclusive, toInclusive, lease) -> {
+            //TODO 알림을 켠 유저가 없는 범위는 조회하지 않음
+            if (alarmFlagIndexService.countEnabled(Alarm.TODO, fromExclusive, toInclusive) == 0) {
+                return;
+            }
+            Long lastUserId = fromExclusive;
+            while (true) {
+                List<PlanningRepository.DigestSummary> chunk = planningRepository.getDigestSummary(slot, zoneId,
+                        localDate.atStartOfDay(), localDate.plusDays(1).atStartOfDay(),
+                        weekly ? 1 : 0, weekStart.atStartOfDay(), weekStart.plusWeeks(1).atStartOfDay(),
+                        monthly ? 1 : 0, monthStart.atStartOfDay(), monthStart.plusMonths(1).atStartOfDay(),
+                        lastUserId, toInclusive, CHUNK_SIZE);
+                if (chunk.isEmpty()) {
+                    break;
                 }
-        );
-
-        return planningUserList;
-    }
-
-    //TODO 이번달 목표 알림
-    @Scheduled(cron = "0 0 6 L * ?")
-    public void scheduledTodoMonthAlarm() throws IOException {
-        List<AlarmRes.PlanningUserList> getTodoUserList=getUserMonthList();
 
-        for (AlarmRes.PlanningUserList planningUserList : getTodoUserList) {
-            notificationMonthUser(planningUserList);
-        }
-
-    }
-
-    private void notificationMonthUser(AlarmRes.PlanningUserList planningUser) throws IOException {
-        LocalDate date = LocalDate.now();
-        PlanningRes.TimeRes timeRes= TimeConvertor.getThisMonth(String.valueOf(date));
-
-        List<PlanningMonthRepository.TodoList> todoListResult = planningMonthRepository.getTodoList(timeRes.getStartTime(),timeRes.getFinishTime(),planningUser.getUserId());
-        List<AlarmRes.PlanningRes> todoSuccess = new ArrayList<>();
-
-        todoListResult.forEach(
-                custom -> {
-                    todoSuccess.add(new AlarmRes.PlanningRes(
-                            custom.getSuccess()));
+                List<NotificationOutbox> notifications = new ArrayList<>(chunk.size());
+                for (PlanningRepository.DigestSummary summary : chunk) {
+                    AlarmRes.PlanningUserList planningUser = new AlarmRes.PlanningUserList(summary.getUserId(), summary.getNickname(), summary.getFcmToken());
+                    RequestDTO message = AlarmConvertor.AlarmDigest(planningUser,
+                            summary.getDailyTotal(), summary.getDailyDone(),
+                            summary.getWeekTotal(), summary.getWeekDone(),
+                            summary.getMonthTotal(), summary.getMonthDone());
+                    notifications.add(NotificationOutbox.builder()
+                            .userId(summary.getUserId())
+                            .idempotencyKey(keyPrefix + summary.getUserId())
+                            .targetToken(message.getTargetToken())
+                            .title(message.getTitle())
+                            .body(message.getBody())
+                            .build());
                 }
-        );
-        List<Integer> todoPlanning  = todoSuccess.stream().map(e -> e.getSuccess()).collect(Collectors.toList());
-
-        RequestDTO requestDTO = AlarmConvertor.AlarmMonth(planningUser, todoPlanning);
-
-        firebaseMessageService.sendMessageTo(
-                requestDTO.getTargetToken(),
-                requestDTO.getTitle(),
-                requestDTO.getBody());
-
-    }
-
-
-
-    private List<AlarmRes.PlanningUserList> getUserMonthList() {
-        LocalDate date = LocalDate.now();
-        PlanningRes.TimeRes timeRes= TimeConvertor.getThisMonth(String.valueOf(date));
-
-        List<PlanningMonthRepository.UserIdList> userIdListResult=planningMonthRepository.getUserIdList(timeRes.getStartTime(),timeRes.getFinishTime());
-        List<AlarmRes.PlanningUserList> planningUserList=new ArrayList<>();
+                notificationOutboxRepository.insertIgnore(notifications);
+                queued.addAndGet(notifications.size());
 
-        userIdListResult.forEach(
-                custom->{
-                    planningUserList.add(new AlarmRes.PlanningUserList(
-                            custom.getUserId(),
-                            custom.getNickname(),
-                            custom.getFcmToken()));
+                //다른 노드가 샤드를 이어받았으면 중단
+                if (chunk.size() < CHUNK_SIZE || !lease.renew()) {
+                    break;
                 }
-        );
+                lastUserId = chunk.get(chunk.size() - 1).getUserId();
+            }
+        });
 
-        return planningUserList;
+        logger.info("todo-digest:{} 알림 {}건 등록 ({}ms)", runId, queued.get(), System.currentTimeMillis() - started);
     }
 
 }
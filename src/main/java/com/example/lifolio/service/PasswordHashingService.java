@@ -0,0 +1,87 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.base.BaseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.lifolio.base.BaseResponseStatus.SERVER_BUSY;
+
+/**
+ * 비밀번호 해싱 전용 스레드 풀
+ * BCrypt 는 CPU 를 많이 쓰기 때문에 동시에 돌아가는 개수와 대기열을 제한해서
+ * 로그인이 몰려도 나머지 API 가 느려지지 않도록 함 (대기열이 차면 바로 실패 응답)
+ */
+@Service
+public class PasswordHashingService {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor hashingExecutor;
+    private final long timeoutMillis;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${security.password.hashing-threads:0}") int threads,
+                                  @Value("${security.password.queue-capacity:50}") int queueCapacity,
+                                  @Value("${security.password.timeout-ms:3000}") long timeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) throws BaseException {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) throws BaseException {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    //해시 형식이나 cost 가 현재 설정과 다르면 true (로그인 성공 시 재해싱)
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) throws BaseException {
+        Future<T> future;
+        try {
+            future = hashingExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            logger.warn("비밀번호 해싱 대기열이 가득 찼습니다.");
+            throw new BaseException(SERVER_BUSY);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new BaseException(SERVER_BUSY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BaseException(SERVER_BUSY);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.base.BaseException;
+import com.example.lifolio.util.DigestUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+
+import static com.example.lifolio.base.BaseResponseStatus.*;
+
+/**
+ * 휴대폰 인증번호
+ * sms-code:{phone}     -> 인증번호 다이제스트 (유효 시간만큼 유지)
+ * sms-attempts:{phone} -> 확인 시도 횟수 (MAX_ATTEMPTS 를 넘으면 인증번호 폐기)
+ * sms-verified:{phone} -> 인증 완료 토큰 다이제스트 (회원가입 / 아이디 찾기 / 비밀번호 변경에서 한 번만 사용)
+ * 발송 요청은 전화번호별, IP 별 토큰 버킷으로 제한
+ */
+@Service
+public class PhoneVerificationService {
+    static final int MAX_ATTEMPTS = 5;
+
+    private static final int PHONE_BUCKET_CAPACITY = 3;
+    private static final long PHONE_REFILL_MILLIS = 5 * 60 * 1000;
+    private static final int IP_BUCKET_CAPACITY = 10;
+    private static final long IP_REFILL_MILLIS = 60 * 1000;
+    private static final Duration VERIFIED_TTL = Duration.ofMinutes(10);
+
+    //토큰이 맞으면 지우고 1 (한 번만 사용)
+    private static final RedisScript<Long> CONSUME_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n" +
+            "  redis.call('DEL', KEYS[1])\n" +
+            "  return 1\n" +
+            "end\n" +
+            "return 0", Long.class);
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TokenBucketService tokenBucketService;
+    private final SmsService smsService;
+    private final Duration codeTtl;
+
+    public PhoneVerificationService(RedisTemplate<String, String> redisTemplate,
+                                    TokenBucketService tokenBucketService,
+                                    SmsService smsService,
+                                    @Value("${sms.code-ttl-seconds:180}") long codeTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.tokenBucketService = tokenBucketService;
+        this.smsService = smsService;
+        this.codeTtl = Duration.ofSeconds(codeTtlSeconds);
+    }
+
+    //인증번호 발송 요청 (발송은 비동기), 인증번호 유효 시간(초) 반환
+    public long sendCode(String phone, String clientIp) throws BaseException {
+        String ipBucket = "sms-bucket:ip:" + clientIp;
+        String phoneBucket = "sms-bucket:phone:" + phone;
+        if (tokenBucketService.tryAcquire(ipBucket, IP_BUCKET_CAPACITY, IP_REFILL_MILLIS) > 0) {
+            throw new BaseException(TOO_MANY_SMS_REQUESTS);
+        }
+        if (tokenBucketService.tryAcquire(phoneBucket, PHONE_BUCKET_CAPACITY, PHONE_REFILL_MILLIS) > 0) {
+            tokenBucketService.refund(ipBucket, IP_BUCKET_CAPACITY);
+            throw new BaseException(TOO_MANY_SMS_REQUESTS);
+        }
+
+        //발송 큐에 먼저 넣고, 거절되면 (SERVER_BUSY) 꺼낸 토큰을 돌려주고 기존 인증번호는 그대로 둠
+        String code = String.format("%06d", secureRandom.nextInt(1_000_000));
+        try {
+            smsService.sendAsync(phone, "[Lifolio] 인증번호는 [" + code + "] 입니다.");
+        } catch (BaseException e) {
+            tokenBucketService.refund(ipBucket, IP_BUCKET_CAPACITY);
+            tokenBucketService.refund(phoneBucket, PHONE_BUCKET_CAPACITY);
+            throw e;
+        }
+
+        redisTemplate.opsForValue().set(codeKey(phone), DigestUtil.sha256(code), codeTtl);
+        redisTemplate.delete(attemptKey(phone));
+        return codeTtl.getSeconds();
+    }
+
+    //인증번호가 맞으면 인증 완료 토큰 발급 (가입 / 아이디 찾기 / 비밀번호 변경 요청에 담아서 보냄)
+    public String verify(String phone, String code) throws BaseException {
+        String stored = redisTemplate.opsForValue().get(codeKey(phone));
+        if (stored == null) {
+            throw new BaseException(EXPIRED_SMS_CODE);
+        }
+
+        //인증번호 대입 방지
+        Long attempts = redisTemplate.opsForValue().increment(attemptKey(phone));
+        if (attempts != null && attempts == 1) {
+            redisTemplate.expire(attemptKey(phone), codeTtl);
+        }
+        if (attempts != null && attempts > MAX_ATTEMPTS) {
+            redisTemplate.delete(Arrays.asList(codeKey(phone), attemptKey(phone)));
+            throw new BaseException(EXPIRED_SMS_CODE);
+        }
+
+        if (code == null || !MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8),
+                DigestUtil.sha256(code).getBytes(StandardCharsets.UTF_8))) {
+            throw new BaseException(INVALID_SMS_CODE);
+        }
+        redisTemplate.delete(Arrays.asList(codeKey(phone), attemptKey(phone)));
+
+        byte[] random = new byte[32];
+        secureRandom.nextBytes(random);
+        String verificationToken = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+        redisTemplate.opsForValue().set(verifiedKey(phone), DigestUtil.sha256(verificationToken), VERIFIED_TTL);
+        return verificationToken;
+    }
+
+    //인증 완료 토큰 확인 후 폐기, 없거나 다르면 UNVERIFIED_PHONE
+    public void consumeVerification(String phone, String verificationToken) throws BaseException {
+        if (phone == null || verificationToken == null) {
+            throw new BaseException(UNVERIFIED_PHONE);
+        }
+        Long consumed = redisTemplate.execute(CONSUME_SCRIPT, Collections.singletonList(verifiedKey(phone)),
+                DigestUtil.sha256(verificationToken));
+        if (consumed == null || consumed != 1) {
+            throw new BaseException(UNVERIFIED_PHONE);
+        }
+    }
+
+    private static String codeKey(String phone) {
+        return "sms-code:" + phone;
+    }
+
+    private static String attemptKey(String phone) {
+        return "sms-attempts:" + phone;
+    }
+
+    private static String verifiedKey(String phone) {
+        return "sms-verified:" + phone;
+    }
+}
@@ -22,6 +22,7 @@ public class PlanningService {
     private final PlanningRepository planningRepository;
     private final PlanningWeekRepository planningWeekRepository;
     private final PlanningMonthRepository planningMonthRepository;
+    private final DataVersionService dataVersionService;
 
     public void setGoalOfYear(Long userId , PlanningReq.PostGoalOfYearReq postGoalOfYearReq) {
         PlanningYear toSavePlanningYear = PlanningYear.builder()
@@ -109,6 +110,7 @@ public class PlanningService {
     public void setTodo(Long userId, PlanningReq.PostPlanningReq postPlanningReq) {
         Planning planning = PlanningConvertor.setTodo(userId,postPlanningReq);
         planningRepository.save(planning);
+        dataVersionService.bump(userId, DataVersionService.Resource.PLANNING);
     }
 
     public boolean existsPlanning(Long planningId) {
@@ -145,6 +147,7 @@ public class PlanningService {
         Optional<Planning> planning =planningRepository.findById(planningId);
         planning.get().updateSuccess(1);
         planningRepository.save(planning.get());
+        dataVersionService.bump(planning.get().getUserId(), DataVersionService.Resource.PLANNING);
 
     }
 
@@ -152,10 +155,12 @@ public class PlanningService {
         Optional<Planning> planning =planningRepository.findById(planningId);
         planning.get().updateSuccess(0);
         planningRepository.save(planning.get());
+        dataVersionService.bump(planning.get().getUserId(), DataVersionService.Resource.PLANNING);
     }
 
     public void deletePlanning(Long planningId) {
         planningRepository.deleteById(planningId);
+        dataVersionService.bumpCurrentUser(DataVersionService.Resource.PLANNING);
     }
 
     public List<PlanningRes.GetPlanning> getTodoList(String date, Long userId) {
@@ -201,16 +206,19 @@ public class PlanningService {
         planning.get().updateInfo(postPlanningReq);
 
         planningRepository.save(planning.get());
+        dataVersionService.bump(planning.get().getUserId(), DataVersionService.Resource.PLANNING);
     }
 
     public void setTodoWeek(Long userId, PlanningReq.PostPlanningReq postPlanningReq) {
         PlanningWeek planning = PlanningConvertor.setTodoWeek(userId,postPlanningReq);
         planningWeekRepository.save(planning);
+        dataVersionService.bump(userId, DataVersionService.Resource.PLANNING);
     }
 
     public void setTodoMonth(Long userId, PlanningReq.PostPlanningReq postPlanningReq) {
         PlanningMonth planning = PlanningConvertor.setTodoMonth(userId,postPlanningReq);
         planningMonthRepository.save(planning);
+        dataVersionService.bump(userId, DataVersionService.Resource.PLANNING);
     }
 
     public boolean existsPlanningWeek(Long planningId) {
@@ -234,32 +242,38 @@ public class PlanningService {
         Optional<PlanningWeek> planning=planningWeekRepository.findById(planningId);
         planning.get().updateSuccess(1);
         planningWeekRepository.save(planning.get());
+        dataVersionService.bump(planning.get().getUserId(), DataVersionService.Resource.PLANNING);
     }
 
     public void unCheckWeekSuccess(Long planningId) {
         Optional<PlanningWeek> planning=planningWeekRepository.findById(planningId);
         planning.get().updateSuccess(1);
         planningWeekRepository.save(planning.get());
+        dataVersionService.bump(planning.get().getUserId(), DataVersionService.Resource.PLANNING);
     }
 
     public void checkMonthSuccess(Long planningId) {
         Optional<PlanningMonth> planning=planningMonthRepository.findById(planningId);
         planning.get().updateSuccess(1);
         planningMonthRepository.save(planning.get());
+        dataVersionService.bump(planning.get().getUserId(), DataVersionService.Resource.PLANNING);
     }
 
     public void unCheckMonthSuccess(Long planningId) {
         Optional<PlanningMonth> planning=planningMonthRepository.findById(planningId);
         planning.get().updateSuccess(1);
         planningMonthRepository.save(planning.get());
+        dataVersionService.bump(planning.get().getUserId(), DataVersionService.Resource.PLANNING);
     }
 
     public void deletePlanningWeek(Long planningId) {
         planningWeekRepository.deleteById(planningId);
+        dataVersionService.bumpCurrentUser(DataVersionService.Resource.PLANNING);
     }
 
     public void deletePlanningMonth(Long planningId) {
         planningMonthRepository.deleteById(planningId);
+        dataVersionService.bumpCurrentUser(DataVersionService.Resource.PLANNING);
     }
 
     public void patchPlanWeek(Long userId, PlanningReq.PostPlanningInfoReq postPlanningReq, Long planningId) {
@@ -268,6 +282,7 @@ public class PlanningService {
         planning.get().updateInfo(postPlanningReq);
 
         planningWeekRepository.save(planning.get());
+        dataVersionService.bump(planning.get().getUserId(), DataVersionService.Resource.PLANNING);
     }
 
     public void patchPlanMonth(Long userId, PlanningReq.PostPlanningInfoReq postPlanningReq, Long planningId) {
@@ -276,5 +291,6 @@ public class PlanningService {
         planning.get().updateInfo(postPlanningReq);
 
         planningMonthRepository.save(planning.get());
+        dataVersionService.bump(planning.get().getUserId(), DataVersionService.Resource.PLANNING);
     }
 }
@@ -0,0 +1,53 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.entity.User;
+import com.example.lifolio.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * JWT 필터에서 사용하는 인증 유저(principal) 캐시
+ * userId 기준으로 저장하며, 만료 시간은 access token 유효 시간을 넘지 않음
+ */
+@Service
+public class PrincipalCacheService {
+    private final UserRepository userRepository;
+    private final Cache<Long, User> principalCache;
+
+    public PrincipalCacheService(UserRepository userRepository,
+                                 @Value("${jwt.access-token-seconds}") long accessTime,
+                                 @Value("${cache.principal.ttl-seconds:300}") long ttlSeconds,
+                                 @Value("${cache.principal.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                //캐시 유지 시간이 토큰 유효 시간보다 길어지지 않도록 함
+                .expireAfterWrite(Duration.ofSeconds(Math.min(ttlSeconds, accessTime)))
+                .build();
+    }
+
+    public User getPrincipal(Long userId) {
+        return principalCache.get(userId, this::loadPrincipal);
+    }
+
+    //비밀번호 변경, 비활성화, 로그아웃, FCM 토큰 변경 / 정리 시 호출
+    public void evict(Long userId) {
+        if (userId != null) {
+            principalCache.invalidate(userId);
+        }
+    }
+
+    private User loadPrincipal(Long userId) {
+        User user = userRepository.findOneWithAuthoritiesById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException(userId + " -> 데이터베이스에서 찾을 수 없습니다."));
+        if (!user.isActivated()) {
+            throw new RuntimeException(user.getUsername() + " -> 활성화되어 있지 않습니다.");
+        }
+        return user;
+    }
+}
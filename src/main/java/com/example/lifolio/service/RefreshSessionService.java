@@ -0,0 +1,113 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.util.DigestUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * refresh token 세션 저장소 (기기별 세션)
+ * refresh:{userId}:{deviceId} -> refresh token 다이제스트 (refresh token 유효 시간만큼 유지)
+ * refresh-sessions:{userId}   -> 로그인된 deviceId 목록
+ */
+@Service
+public class RefreshSessionService {
+    public static final String DEFAULT_DEVICE = "default";
+
+    public static final long ROTATED = 1;
+    public static final long MISMATCH = 0;
+    public static final long EXPIRED = -1;
+
+    //저장된 토큰과 일치할 때만 교체, 이미 교체된 토큰이 다시 들어오면 탈취로 보고 세션과 목록의 기기 삭제
+    //(ARGV = 이전 토큰 다이제스트, 새 토큰 다이제스트, ttl, deviceId)
+    private static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1])\n" +
+            "if not current then return -1 end\n" +
+            "if current ~= ARGV[1] then\n" +
+            "  redis.call('DEL', KEYS[1])\n" +
+            "  redis.call('SREM', KEYS[2], ARGV[4])\n" +
+            "  return 0\n" +
+            "end\n" +
+            "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])\n" +
+            "redis.call('PEXPIRE', KEYS[2], ARGV[3])\n" +
+            "return 1", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration refreshTtl;
+
+    public RefreshSessionService(RedisTemplate<String, String> redisTemplate,
+                                 @Value("${jwt.refresh-token-seconds}") long refreshTime) {
+        this.redisTemplate = redisTemplate;
+        this.refreshTtl = Duration.ofSeconds(refreshTime);
+    }
+
+    public static String deviceOf(String deviceId) {
+        return deviceId == null || deviceId.isBlank() ? DEFAULT_DEVICE : deviceId;
+    }
+
+    //로그인 시 세션 저장 (명령 3개를 한 번에 전송)
+    public void save(Long userId, String deviceId, String refreshToken) {
+        String sessionKey = sessionKey(userId, deviceId);
+        String indexKey = indexKey(userId);
+        String digest = DigestUtil.sha256(refreshToken);
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                redis.opsForValue().set(sessionKey, digest, refreshTtl);
+                redis.opsForSet().add(indexKey, deviceId);
+                redis.expire(indexKey, refreshTtl);
+                return null;
+            }
+        });
+    }
+
+    //refresh token 교체 (compare-and-swap), ROTATED / MISMATCH / EXPIRED 반환
+    public long rotate(Long userId, String deviceId, String oldRefreshToken, String newRefreshToken) {
+        Long result = redisTemplate.execute(ROTATE_SCRIPT,
+                Arrays.asList(sessionKey(userId, deviceId), indexKey(userId)),
+                DigestUtil.sha256(oldRefreshToken),
+                DigestUtil.sha256(newRefreshToken),
+                String.valueOf(refreshTtl.toMillis()),
+                deviceId);
+        return result == null ? EXPIRED : result;
+    }
+
+    //로그아웃한 기기 세션만 삭제
+    public void revoke(Long userId, String deviceId) {
+        redisTemplate.delete(sessionKey(userId, deviceId));
+        redisTemplate.opsForSet().remove(indexKey(userId), deviceId);
+    }
+
+    //비밀번호 변경 등으로 모든 기기 세션 삭제
+    public void revokeAll(Long userId) {
+        Set<String> deviceIds = redisTemplate.opsForSet().members(indexKey(userId));
+        List<String> keys = new ArrayList<>();
+        keys.add(indexKey(userId));
+        if (deviceIds != null) {
+            deviceIds.forEach(deviceId -> keys.add(sessionKey(userId, deviceId)));
+        }
+        redisTemplate.delete(keys);
+    }
+
+    private static String sessionKey(Long userId, String deviceId) {
+        return "refresh:" + userId + ":" + deviceId;
+    }
+
+    private static String indexKey(Long userId) {
+        return "refresh-sessions:" + userId;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.lifolio.service;
+
+//문자 발송 (테스트에서는 대역으로 교체)
+public interface SmsSender {
+    void send(String to, String text) throws Exception;
+}
@@ -0,0 +1,79 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.base.BaseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.lifolio.base.BaseResponseStatus.SERVER_BUSY;
+
+/**
+ * 문자 비동기 발송
+ * 요청 스레드는 대기열에 넣고 바로 반환하고, 발송 스레드가 실패 시 간격을 늘려가며 재시도
+ * 대기열이 차면 바로 실패 응답
+ */
+@Service
+public class SmsService {
+    private static final Logger logger = LoggerFactory.getLogger(SmsService.class);
+
+    private final SmsSender smsSender;
+    private final ThreadPoolExecutor sendExecutor;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    public SmsService(SmsSender smsSender,
+                      @Value("${sms.sender-threads:2}") int threads,
+                      @Value("${sms.queue-capacity:100}") int queueCapacity,
+                      @Value("${sms.max-attempts:3}") int maxAttempts,
+                      @Value("${sms.retry-backoff-ms:1000}") long retryBackoffMillis) {
+        this.smsSender = smsSender;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sendExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sms-sender-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public Future<Boolean> sendAsync(String to, String text) throws BaseException {
+        try {
+            return sendExecutor.submit(() -> sendWithRetry(to, text));
+        } catch (RejectedExecutionException e) {
+            logger.warn("문자 발송 대기열이 가득 찼습니다.");
+            throw new BaseException(SERVER_BUSY);
+        }
+    }
+
+    private boolean sendWithRetry(String to, String text) throws InterruptedException {
+        long backoff = retryBackoffMillis;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                smsSender.send(to, text);
+                return true;
+            } catch (Exception e) {
+                logger.warn("문자 발송 실패 ({}/{}) : {}", attempt, maxAttempts, e.getMessage());
+            }
+            if (attempt < maxAttempts) {
+                Thread.sleep(backoff);
+                backoff *= 2;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdown();
+    }
+}
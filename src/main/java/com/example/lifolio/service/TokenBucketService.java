@@ -0,0 +1,63 @@
+package com.example.lifolio.service;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+
+/**
+ * Redis 에 저장하는 토큰 버킷 (노드 공용)
+ * 버킷마다 hash 하나(tokens, ts)를 쓰고 Lua 로 충전/차감을 한 번에 처리
+ */
+@Service
+public class TokenBucketService {
+
+    //토큰을 꺼냈으면 0, 아니면 다음 토큰까지 기다려야 하는 ms 반환
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1])\n" +
+            "local rate = tonumber(ARGV[2])\n" +
+            "local now = tonumber(ARGV[3])\n" +
+            "local data = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n" +
+            "local tokens = tonumber(data[1])\n" +
+            "local ts = tonumber(data[2])\n" +
+            "if tokens == nil then tokens = capacity; ts = now end\n" +
+            "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)\n" +
+            "local wait = 0\n" +
+            "if tokens >= 1 then tokens = tokens - 1 else wait = math.ceil((1 - tokens) / rate) end\n" +
+            "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))\n" +
+            "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate))\n" +
+            "return wait", Long.class);
+
+    //꺼낸 토큰 1개를 돌려줌 (최대 토큰 수는 넘기지 않음)
+    private static final RedisScript<Long> REFUND_SCRIPT = new DefaultRedisScript<>(
+            "local tokens = tonumber(redis.call('HGET', KEYS[1], 'tokens'))\n" +
+            "if tokens == nil then return 0 end\n" +
+            "redis.call('HSET', KEYS[1], 'tokens', tostring(math.min(tonumber(ARGV[1]), tokens + 1)))\n" +
+            "return 1", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public TokenBucketService(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * @param capacity 최대 토큰 수 (한 번에 허용하는 요청 수)
+     * @param refillMillis 토큰 1개가 다시 차는 시간
+     * @return 0 이면 허용, 아니면 다시 시도할 수 있을 때까지 남은 ms
+     */
+    public long tryAcquire(String key, int capacity, long refillMillis) {
+        Long wait = redisTemplate.execute(ACQUIRE_SCRIPT, Collections.singletonList(key),
+                String.valueOf(capacity),
+                String.valueOf(1.0 / refillMillis),
+                String.valueOf(System.currentTimeMillis()));
+        return wait == null ? 0 : wait;
+    }
+
+    //요청이 다른 이유로 처리되지 않았을 때 tryAcquire 로 꺼낸 토큰 반환
+    public void refund(String key, int capacity) {
+        redisTemplate.execute(REFUND_SCRIPT, Collections.singletonList(key), String.valueOf(capacity));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 로그아웃된 access token 블랙리스트
+ * Redis 에는 토큰 다이제스트를 만료 시각(score)과 함께 sorted set 에 저장하고,
+ * 각 노드는 Bloom filter + 정확한 Set 을 메모리에 들고 pub/sub 으로 동기화
+ * 대부분의 요청(로그아웃 안 된 토큰)은 Redis 조회 없이 Bloom filter 에서 끝남
+ */
+@Service
+public class TokenRevocationService implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    static final String REVOKED_KEY = "revoked-tokens";
+    static final String CHANNEL = "token-revocation";
+
+    private static final long EXPECTED_REVOCATIONS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    //digest -> 토큰 만료 시각(ms)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter = BloomFilter.create(EXPECTED_REVOCATIONS, FALSE_POSITIVE_RATE);
+    private volatile boolean wasListening = true;
+
+    public TokenRevocationService(RedisTemplate<String, String> redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+
+        //새로 뜬 노드는 아직 만료되지 않은 블랙리스트를 한 번에 받아옴
+        reload();
+        logger.info("토큰 블랙리스트 {}건을 불러왔습니다.", revoked.size());
+    }
+
+    public void revoke(String digest, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        redisTemplate.opsForZSet().add(REVOKED_KEY, digest, expiresAt);
+        redisTemplate.convertAndSend(CHANNEL, digest + ":" + expiresAt);
+        addLocal(digest, expiresAt);
+    }
+
+    public boolean isRevoked(String digest) {
+        if (!bloomFilter.mightContain(digest)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(digest);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    //다른 노드에서 로그아웃한 토큰
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        addLocal(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+    }
+
+    //만료된 토큰 정리 후 Redis 기준으로 다시 맞춤 (pub/sub 이 끊긴 동안 놓친 로그아웃도 여기서 반영)
+    @Scheduled(fixedDelay = 10 * 60 * 1000)
+    public void purgeExpired() {
+        redisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, 0, System.currentTimeMillis());
+        reload();
+    }
+
+    //구독이 끊겼다가 다시 연결되면 그 사이 메시지를 놓쳤을 수 있으므로 바로 다시 맞춤
+    @Scheduled(fixedDelay = 30 * 1000)
+    public void checkSubscription() {
+        boolean listening = listenerContainer.isListening();
+        if (listening && !wasListening) {
+            logger.info("토큰 블랙리스트 구독이 다시 연결되어 Redis 에서 다시 불러옵니다.");
+            reload();
+        }
+        wasListening = listening;
+    }
+
+    /**
+     * Redis 의 만료 전 항목을 읽어서 메모리 목록에 합치고 Bloom filter 재생성
+     * Redis 에서는 만료로만 지워지므로 합집합을 유지해도 되고, 읽는 동안 들어온 메시지도 잃지 않음
+     */
+    void reload() {
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> entries = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(REVOKED_KEY, now, Double.POSITIVE_INFINITY);
+        synchronized (this) {
+            if (entries != null) {
+                entries.forEach(entry -> revoked.put(entry.getValue(), entry.getScore().longValue()));
+            }
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            BloomFilter rebuilt = BloomFilter.create(Math.max(EXPECTED_REVOCATIONS, revoked.size() * 2L), FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::put);
+            bloomFilter = rebuilt;
+        }
+    }
+
+    //Bloom filter 재생성과 겹치지 않도록 동기화 (로그아웃은 드물어서 부담 없음)
+    private synchronized void addLocal(String digest, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(digest, expiresAt);
+        bloomFilter.put(digest);
+    }
+}
@@ -8,14 +8,14 @@ import com.example.lifolio.dto.user.*;
 import com.example.lifolio.entity.*;
 import com.example.lifolio.jwt.JwtFilter;
 import com.example.lifolio.jwt.TokenProvider;
+import com.example.lifolio.oauth.OAuthProfile;
 import com.example.lifolio.repository.*;
 import com.example.lifolio.util.SecurityUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
-import net.nurigo.java_sdk.api.Message;
-import net.nurigo.java_sdk.exceptions.CoolsmsException;
-import org.json.simple.JSONObject;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
@@ -24,6 +24,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 
 import java.sql.SQLException;
@@ -42,28 +44,48 @@ public class UserService {
     private final GoalOfYearRepository goalOfYearRepository;
     private final CustomLifolioColorRepository customLifolioColorRepository;
     private final CustomLifolioRepository customLifolioRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final MyFolioRepository myFolioRepository;
     private final ArchiveRepository archiveRepository;
     private final AlarmRepository alarmRepository;
-    private final RedisService redisService;
+    private final AlarmFlagIndexService alarmFlagIndexService;
+    private final PrincipalCacheService principalCacheService;
+    private final RefreshSessionService refreshSessionService;
+    private final AvailabilityIndexService availabilityIndexService;
+    private final PhoneVerificationService phoneVerificationService;
 
-    @Value("${jwt.refresh-token-seconds}")
-    private long refreshTime;
+    //요청 안에서 로그인 유저를 한 번만 조회하기 위한 request attribute 키
+    private static final String NOW_LOGIN_USER = "nowLoginUser";
 
 
     private final TokenProvider tokenProvider;
-    private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    @Value("${coolsms.key}")
-    private String apiKey;
-    @Value("${coolsms.secret}")
-    private String apiSecret;
 
 
 
     //현재 로그인한(jwt 인증된) 사용자 반환
     public User findNowLoginUser(){
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            User user = (User) attributes.getAttribute(NOW_LOGIN_USER, RequestAttributes.SCOPE_REQUEST);
+            if (user != null) {
+                return user;
+            }
+        }
+
+        User user = loadNowLoginUser();
+        if (attributes != null && user != null) {
+            attributes.setAttribute(NOW_LOGIN_USER, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    private User loadNowLoginUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        //JwtFilter 에서 넣어둔 principal 이면 캐시에서 바로 반환
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return principalCacheService.getPrincipal(((User) authentication.getPrincipal()).getId());
+        }
         return SecurityUtil.getCurrentUsername().flatMap(userRepository::findOneWithAuthoritiesByUsername).orElse(null);
     }
 
@@ -72,32 +94,36 @@ public class UserService {
     //회원가입, 로그인 로직
     public UserRes.TokenRes login(UserReq.LoginUserReq loginUserReq) throws BaseException {
 
-        if(!checkUserId(loginUserReq.getUsername())){
+        //유저 조회 1번, 비밀번호 검증 1번으로 로그인 처리
+        User user=userRepository.findByUsername(loginUserReq.getUsername());
+        if(user==null){
             throw new BaseException(BaseResponseStatus.NOT_EXIST_USER);
         }
-
-        User user=userRepository.findByUsername(loginUserReq.getUsername());
         Long userId = user.getId();
 
-        if(!passwordEncoder.matches(loginUserReq.getPassword(),user.getPassword())){
+        if(!passwordHashingService.matches(loginUserReq.getPassword(),user.getPassword())){
             throw new BaseException(BaseResponseStatus.NOT_CORRECT_PASSWORD);
         }
+        if(!user.isActivated()){
+            throw new BaseException(BaseResponseStatus.FAILED_TO_LOGIN);
+        }
 
-        UsernamePasswordAuthenticationToken authenticationToken =
-                new UsernamePasswordAuthenticationToken(loginUserReq.getUsername(), loginUserReq.getPassword());
+        //cost 가 바뀌었거나 예전 형식의 해시면 이번 로그인에서 재해싱
+        if(passwordHashingService.upgradeEncoding(user.getPassword())){
+            user.setPassword(passwordHashingService.encode(loginUserReq.getPassword()));
+            userRepository.save(user);
+        }
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, "", user.getAuthorities());
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        UserRes.GenerateToken generateToken=createToken(userId);
+        //refresh token 세션 저장까지 한 번에 처리
+        UserRes.GenerateToken generateToken=createToken(userId, loginUserReq.getDeviceId());
 
 
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.add(JwtFilter.AUTHORIZATION_HEADER, "Bearer " + generateToken.getAccessToken());
 
-        //refresh token 저장
-        redisService.saveToken(String.valueOf(userId),generateToken.getRefreshToken(), (System.currentTimeMillis()+ refreshTime*1000));
-
 
 
 
@@ -109,6 +135,8 @@ public class UserService {
     @Transactional(rollbackFor=SQLException.class)
     @SneakyThrows
     public UserRes.TokenRes signup(UserReq.SignupUserReq signupUserReq) throws BaseException {
+        //인증한 휴대폰으로만 가입
+        phoneVerificationService.consumeVerification(signupUserReq.getPhone(), signupUserReq.getVerificationToken());
 
         Authority authority = Authority.builder()
                 .authorityName("ROLE_USER")
@@ -116,7 +144,7 @@ public class UserService {
 
         User user = User.builder()
                 .username(signupUserReq.getUsername())
-                .password(passwordEncoder.encode(signupUserReq.getPassword()))
+                .password(passwordHashingService.encode(signupUserReq.getPassword()))
                 .name(signupUserReq.getName())
                 .nickname(signupUserReq.getNickname())
                 .phone(signupUserReq.getPhone())
@@ -125,36 +153,43 @@ public class UserService {
                 .build();
 
         Long userId=userRepository.save(user).getId();
-        String jwt=tokenProvider.createToken(userId);
-        String refreshToken =tokenProvider.createRefreshToken(userId);
+        availabilityIndexService.addUsername(user.getUsername());
+        availabilityIndexService.addNickname(user.getNickname());
+        UserRes.GenerateToken generateToken=createToken(userId, signupUserReq.getDeviceId());
 
 
         postAlarmUser(userId);
 
-        return new UserRes.TokenRes(userId,jwt,refreshToken, user.getName());
+        return new UserRes.TokenRes(userId,generateToken.getAccessToken(),generateToken.getRefreshToken(), user.getName());
 
     }
 
 
 
 
+    //Bloom filter 에 없으면 DB 조회 없이 사용 가능
     public boolean checkNickName(String nickName) {
-        return userRepository.existsByNickname(nickName);
+        return availabilityIndexService.mightContainNickname(nickName) && userRepository.existsByNickname(nickName);
     }
 
     public boolean checkUserId(String userId) {
-        return userRepository.existsByUsername(userId);
+        return availabilityIndexService.mightContainUsername(userId) && userRepository.existsByUsername(userId);
     }
 
 
     //비밀번호 로직
     @SneakyThrows
-    public UserRes.PasswordRes setNewPassword(UserReq.PasswordReq passwordReq){ //새 비밀번호로 바꾸기
+    public UserRes.PasswordRes setNewPassword(UserReq.PasswordReq passwordReq) throws BaseException { //새 비밀번호로 바꾸기
         User user = userRepository.findByUsernameEquals(passwordReq.getUsername());
         //User user = findNowLoginUser();
         if(user != null){
-            user.setPassword(passwordEncoder.encode(passwordReq.getNewPassword()));
+            //가입한 휴대폰으로 인증한 경우만 변경
+            phoneVerificationService.consumeVerification(user.getPhone(), passwordReq.getVerificationToken());
+            user.setPassword(passwordHashingService.encode(passwordReq.getNewPassword()));
             userRepository.save(user);
+            principalCacheService.evict(user.getId());
+            //비밀번호가 바뀌면 모든 기기의 refresh 세션 만료
+            refreshSessionService.revokeAll(user.getId());
             return new UserRes.PasswordRes(passwordReq.getNewPassword());
         } else {
             return null;
@@ -194,57 +229,73 @@ public class UserService {
         }
     }
 
-    public int phoneNumberCheck(String to) throws CoolsmsException {
-
-        Message coolsms = new Message(apiKey, apiSecret);
+    public String findUserId(UserReq.FindUserIdReq findUserIdReq) throws BaseException {
+        phoneVerificationService.consumeVerification(findUserIdReq.getPhone(), findUserIdReq.getVerificationToken());
+        User user =userRepository.findByNameAndPhone(findUserIdReq.getName(),findUserIdReq.getPhone());
+        if(user==null){
+            throw new BaseException(NOT_CORRECT_USER);
+        }
+        return user.getUsername();
+    }
 
-        Random rand  = new Random();
-        String numStr = "";
-        for(int i=0; i<6; i++) {
-            String ran = Integer.toString(rand.nextInt(10));
-            numStr+=ran;
+    public UserRes.TokenRes reIssueToken(UserReq.PostReIssueReq postReIssueReq) throws BaseException {
+        Claims claims;
+        try {
+            claims = tokenProvider.getRefreshClaims(postReIssueReq.getRefreshToken());
+        } catch (ExpiredJwtException e) {
+            throw new BaseException(BaseResponseStatus.INVALID_REFRESH_TOKEN);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BaseException(BaseResponseStatus.INVALID_USER_JWT);
         }
 
-        HashMap<String, String> params = new HashMap<String, String>();
-        params.put("to", to);    // 수신전화번호
-        params.put("from", "01049177671");    // 발신전화번호. 테스트시에는 발신,수신 둘다 본인 번호로 하면 됨
-        params.put("type", "sms");
-        params.put("text", "[Lifolio] 인증번호는 [" + numStr + "] 입니다.");
+        Long userId = claims.get("userId", Long.class);
+        if (!userId.equals(postReIssueReq.getUserId())) {
+            throw new BaseException(BaseResponseStatus.INVALID_USER_JWT);
+        }
+        String deviceId = RefreshSessionService.deviceOf(claims.get(TokenProvider.DEVICE_CLAIM, String.class));
 
+        String accessToken = tokenProvider.createToken(userId, deviceId);
+        String refreshToken = tokenProvider.createRefreshToken(userId, deviceId);
 
-        try {
-            JSONObject obj = (JSONObject) coolsms.send(params);
-            System.out.println(obj.toString());
-        } catch (CoolsmsException e) {
-            System.out.println(e.getMessage());
-            System.out.println(e.getCode());
+        //저장된 refresh token 과 같을 때만 새 토큰으로 교체 (Lua 스크립트로 원자적 처리)
+        long result = refreshSessionService.rotate(userId, deviceId, postReIssueReq.getRefreshToken(), refreshToken);
+        if (result == RefreshSessionService.EXPIRED) {
+            throw new BaseException(BaseResponseStatus.INVALID_REFRESH_TOKEN);
         }
-        return Integer.parseInt(numStr);
-    }
-
-    public String findUserId(UserReq.FindUserIdReq findUserIdReq) throws BaseException {
-        User user =userRepository.findByNameAndPhone(findUserIdReq.getName(),findUserIdReq.getPhone());
-        if(user==null){
-            throw new BaseException(NOT_CORRECT_USER);
+        if (result == RefreshSessionService.MISMATCH) {
+            throw new BaseException(BaseResponseStatus.INVALID_USER_JWT);
         }
-        return user.getUsername();
+
+        User user = principalCacheService.getPrincipal(userId);
+        return new UserRes.TokenRes(userId, accessToken, refreshToken, user.getName());
     }
 
-    public UserRes.TokenRes reIssueToken(Long userId) {
-        User user=userRepository.getOne(userId);
-        UserRes.GenerateToken generateToken=createToken(userId);
+    //소셜 로그인 DB 처리 (제공자 호출은 AuthService 에서 트랜잭션 전에 끝냄)
+    @Transactional(rollbackFor=SQLException.class)
+    public UserRes.TokenRes logInSocialUser(OAuthProfile profile, UserReq.SocialReq socialReq) throws BaseException {
+        User user=userRepository.findByUsernameAndSocial(profile.getId(), socialReq.getSocial());
+        boolean isNewUser = user==null;
+        if(isNewUser){
+            user=userRepository.save(UserConverter.postUser(profile.getId(), socialReq.getSocial(), profile.getName(), passwordHashingService.encode(profile.getProvider())));
+            availabilityIndexService.addUsername(user.getUsername());
+            availabilityIndexService.addNickname(user.getNickname());
+        }
+        Long userId=user.getId();
 
-        //Redis 에 RefreshToken 저장
-        redisService.saveToken(String.valueOf(userId),generateToken.getRefreshToken(),(System.currentTimeMillis()+ refreshTime*1000));
+        UserRes.GenerateToken generateToken=createToken(userId, socialReq.getDeviceId());
+        if(isNewUser){
+            postAlarmUser(userId);
+        }
 
-        return new UserRes.TokenRes(userId,generateToken.getAccessToken(),generateToken.getRefreshToken(),user.getName());
+        return new UserRes.TokenRes(userId, generateToken.getAccessToken(), generateToken.getRefreshToken(), user.getName());
     }
 
-    public UserRes.GenerateToken createToken(Long userId){
-        String accessToken=tokenProvider.createToken(userId);
-        String refreshToken=tokenProvider.createRefreshToken(userId);
+    public UserRes.GenerateToken createToken(Long userId, String deviceId){
+        String device = RefreshSessionService.deviceOf(deviceId);
+        String accessToken=tokenProvider.createToken(userId, device);
+        String refreshToken=tokenProvider.createRefreshToken(userId, device);
 
-        redisService.saveToken(String.valueOf(userId),refreshToken, (System.currentTimeMillis()+ refreshTime*1000));
+        refreshSessionService.save(userId, device, refreshToken);
 
         return new UserRes.GenerateToken(accessToken,refreshToken);
     }
@@ -253,6 +304,7 @@ public class UserService {
     public void postAlarmUser(Long userId){
         Alarm alarm=UserConverter.postAlarm(userId);
         alarmRepository.save(alarm);
+        alarmFlagIndexService.update(userId, Alarm.ALL, alarm.getFlags());
     }
 
     public void updateFcmToken(Long userId, String token) {
@@ -261,6 +313,7 @@ public class UserService {
         user.get().updateToken(token);
 
         userRepository.save(user.get());
+        principalCacheService.evict(userId);
     }
 
     @Transactional(rollbackFor=SQLException.class)
@@ -270,5 +323,6 @@ public class UserService {
         user.get().updateToken(null);
 
         userRepository.save(user.get());
+        principalCacheService.evict(userId);
     }
 }
\ No newline at end of file
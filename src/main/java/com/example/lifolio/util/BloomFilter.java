@@ -0,0 +1,128 @@
+package com.example.lifolio.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열용 Bloom filter
+ * mightContain 이 false 면 확실히 없음, true 면 있을 수도 있음(오탐 가능)
+ * 비트 위치 계산(indexes)이 노드와 상관없이 같으므로 Redis 비트맵과 같이 쓸 수 있음
+ */
+public class BloomFilter {
+    private final int numBits;
+    private final int numHashes;
+    private final AtomicLongArray bits;
+
+    public BloomFilter(int numBits, int numHashes) {
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+        this.bits = new AtomicLongArray((numBits + 63) / 64);
+    }
+
+    //예상 개수와 오탐률로 크기 계산
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        long n = Math.max(expectedInsertions, 1);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int numBits = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        int numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        return new BloomFilter(numBits, numHashes);
+    }
+
+    public int getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    public void put(String value) {
+        for (int index : indexes(value)) {
+            set(index);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        for (int index : indexes(value)) {
+            if (!get(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void set(int index) {
+        int word = index >>> 6;
+        long mask = 1L << (index & 63);
+        long old;
+        do {
+            old = bits.get(word);
+            if ((old & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, old, old | mask));
+    }
+
+    public boolean get(int index) {
+        return (bits.get(index >>> 6) & (1L << (index & 63))) != 0;
+    }
+
+    //Redis 비트맵과 같은 비트 순서(바이트 안에서 상위 비트부터)로 변환
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[(numBits + 7) / 8];
+        for (int word = 0; word < bits.length(); word++) {
+            long value = bits.get(word);
+            while (value != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(value);
+                bytes[index >>> 3] |= (byte) (0x80 >>> (index & 7));
+                value &= value - 1;
+            }
+        }
+        return bytes;
+    }
+
+    //Redis 비트맵(GET 결과)의 비트를 합침
+    public void putAll(byte[] bytes) {
+        int length = Math.min(bytes.length, (numBits + 7) / 8);
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == 0) {
+                continue;
+            }
+            for (int bit = 0; bit < 8; bit++) {
+                int index = (i << 3) + bit;
+                if (index < numBits && (bytes[i] & (0x80 >>> bit)) != 0) {
+                    set(index);
+                }
+            }
+        }
+    }
+
+    //double hashing 으로 k 개의 비트 위치 계산
+    public int[] indexes(String value) {
+        long h1 = mix(fnv1a(value.getBytes(StandardCharsets.UTF_8)));
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        int[] result = new int[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            result[i] = (int) Math.floorMod(h1 + i * h2, (long) numBits);
+        }
+        return result;
+    }
+
+    private static long fnv1a(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.lifolio.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 외부 서버 호출용 간단한 서킷 브레이커
+ * 연속 실패가 failureThreshold 번 나면 openMillis 동안 호출을 막고,
+ * 그 뒤 한 번만 시험 호출을 보내서 성공하면 다시 닫음
+ */
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openedAt = 0; //0 이면 닫힘
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public boolean allowRequest() {
+        long opened = openedAt;
+        if (opened == 0) {
+            return true;
+        }
+        if (System.currentTimeMillis() - opened < openMillis) {
+            return false;
+        }
+        //half-open : 시험 호출 하나만 통과
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    public void recordSuccess() {
+        failures.set(0);
+        openedAt = 0;
+        trialInFlight.set(false);
+    }
+
+    public void recordFailure() {
+        if (openedAt != 0 || failures.incrementAndGet() >= failureThreshold) {
+            openedAt = System.currentTimeMillis();
+            trialInFlight.set(false);
+        }
+    }
+
+    //결과 없이 끝난 호출 (인터럽트 등) : 실패로 세지 않고 시험 호출만 풀어서 다음 요청이 다시 시험
+    public void releaseTrial() {
+        trialInFlight.set(false);
+    }
+
+    public boolean isOpen() {
+        return openedAt != 0;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.lifolio.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * 날짜(epoch day)별 별점 시계열
+ * 하루 = 배열 한 칸 (최고 별점, 개수, 별점 합), 기록이 있는 기간만큼만 잡고 기록이 추가되면 늘림
+ * 일 / 주 / 월 / 연 단위 묶음은 조회할 때 배열을 훑어서 계산하므로 한 시계열로 모든 단위에 답함
+ */
+public class DaySeries {
+
+    public enum Granularity {
+        DAY, WEEK, MONTH, YEAR;
+
+        //날짜가 속한 묶음의 첫날
+        LocalDate bucketStart(LocalDate date) {
+            switch (this) {
+                case WEEK:
+                    return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return date.withDayOfMonth(1);
+                case YEAR:
+                    return date.withDayOfYear(1);
+                default:
+                    return date;
+            }
+        }
+
+        LocalDate next(LocalDate bucketStart) {
+            switch (this) {
+                case WEEK:
+                    return bucketStart.plusWeeks(1);
+                case MONTH:
+                    return bucketStart.plusMonths(1);
+                case YEAR:
+                    return bucketStart.plusYears(1);
+                default:
+                    return bucketStart.plusDays(1);
+            }
+        }
+
+        //지원하지 않는 값이면 null
+        public static Granularity parse(String value) {
+            return parseEnum(Granularity.class, value);
+        }
+    }
+
+    public enum Aggregation {
+        MAX, AVG, COUNT;
+
+        public static Aggregation parse(String value) {
+            return parseEnum(Aggregation.class, value);
+        }
+    }
+
+    //묶음 하나의 결과 (기록이 있는 묶음만 전달)
+    public interface BucketConsumer {
+        void accept(LocalDate bucketStart, double value, int count);
+    }
+
+    //담을 수 있는 날짜 (범위 밖 기록은 무시, 0001년 같은 값 하나로 배열이 수십만 칸으로 늘지 않게 함)
+    public static final LocalDate MIN_DATE = LocalDate.of(1900, 1, 1);
+    public static final LocalDate MAX_DATE = LocalDate.of(2099, 12, 31);
+    private static final int MIN_DAY = (int) MIN_DATE.toEpochDay();
+    private static final int MAX_DAY = (int) MAX_DATE.toEpochDay();
+
+    private static final int EMPTY = -1;
+
+    private int firstDay;
+    private int[] max = new int[0];
+    private int[] count = new int[0];
+    private int[] sum = new int[0];
+
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    //배열 칸 수 (캐시 용량 계산용)
+    public int length() {
+        return max.length;
+    }
+
+    public static boolean supports(LocalDate date) {
+        return !date.isBefore(MIN_DATE) && !date.isAfter(MAX_DATE);
+    }
+
+    public void add(int epochDay, int star) {
+        if (epochDay < MIN_DAY || epochDay > MAX_DAY) {
+            return;
+        }
+        int index = ensure(epochDay);
+        max[index] = Math.max(max[index], star);
+        count[index]++;
+        sum[index] += star;
+    }
+
+    public void downsample(LocalDate from, LocalDate to, Granularity granularity, Aggregation aggregation, BucketConsumer consumer) {
+        if (max.length == 0) {
+            return;
+        }
+        int lastDay = firstDay + max.length - 1;
+        int fromDay = (int) Math.max(from.toEpochDay(), firstDay);
+        int toDay = (int) Math.min(to.toEpochDay(), lastDay);
+        if (fromDay > toDay) {
+            return;
+        }
+
+        //묶음 경계만 LocalDate 로 계산하고, 묶음 안은 배열 인덱스로 훑음
+        LocalDate bucketStart = granularity.bucketStart(LocalDate.ofEpochDay(fromDay));
+        while (bucketStart.toEpochDay() <= toDay) {
+            LocalDate nextStart = granularity.next(bucketStart);
+            int start = (int) Math.max(bucketStart.toEpochDay(), fromDay) - firstDay;
+            int end = (int) Math.min(nextStart.toEpochDay() - 1, toDay) - firstDay;
+
+            int bucketMax = EMPTY;
+            int bucketCount = 0;
+            long bucketSum = 0;
+            for (int i = start; i <= end; i++) {
+                if (count[i] == 0) {
+                    continue;
+                }
+                bucketMax = Math.max(bucketMax, max[i]);
+                bucketCount += count[i];
+                bucketSum += sum[i];
+            }
+
+            if (bucketCount > 0) {
+                double value;
+                switch (aggregation) {
+                    case AVG:
+                        value = (double) bucketSum / bucketCount;
+                        break;
+                    case COUNT:
+                        value = bucketCount;
+                        break;
+                    default:
+                        value = bucketMax;
+                }
+                consumer.accept(bucketStart, value, bucketCount);
+            }
+            bucketStart = nextStart;
+        }
+    }
+
+    //epochDay 가 들어갈 칸을 만들고 인덱스 반환 (앞뒤로 늘어날 때는 배열을 두 배씩 키움)
+    private int ensure(int epochDay) {
+        if (max.length == 0) {
+            firstDay = epochDay;
+            resize(0, 1);
+            return 0;
+        }
+        int lastDay = firstDay + max.length - 1;
+        if (epochDay < firstDay) {
+            int grow = Math.max(firstDay - epochDay, max.length);
+            resize(grow, max.length + grow);
+            firstDay -= grow;
+        } else if (epochDay > lastDay) {
+            resize(0, max.length + Math.max(epochDay - lastDay, max.length));
+        }
+        return epochDay - firstDay;
+    }
+
+    private void resize(int offset, int length) {
+        max = copy(max, offset, length);
+        count = copy(count, offset, length);
+        sum = copy(sum, offset, length);
+    }
+
+    private static int[] copy(int[] source, int offset, int length) {
+        int[] copy = new int[length];
+        System.arraycopy(source, 0, copy, offset, source.length);
+        return copy;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
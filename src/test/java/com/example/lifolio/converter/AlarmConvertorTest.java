@@ -0,0 +1,32 @@
+package com.example.lifolio.converter;
+
+import com.example.lifolio.dto.alarm.AlarmRes;
+import com.example.lifolio.dto.alarm.RequestDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AlarmConvertorTest {
+
+    private final AlarmRes.PlanningUserList user = new AlarmRes.PlanningUserList(1L, "lifolio", "token");
+
+    @Test
+    void singlePeriodKeepsOriginalMessage() {
+        RequestDTO digest = AlarmConvertor.AlarmDigest(user, 0, 0, 5, 2, 0, 0);
+        RequestDTO week = AlarmConvertor.AlarmWeek(user, 5, 2);
+
+        assertEquals(week.getTitle(), digest.getTitle());
+        assertEquals(week.getBody(), digest.getBody());
+    }
+
+    @Test
+    void overlappingPeriodsAreMergedIntoOnePush() {
+        RequestDTO digest = AlarmConvertor.AlarmDigest(user, 3, 3, 5, 2, 10, 4);
+
+        assertEquals("🌈lifolio님 TODO⏰ 현황!🌈", digest.getTitle());
+        assertEquals("오늘의 계획 3개 모두 완료 했어요🎉\n" +
+                "이번주 계획 5개 중 2개 완료 했어요!\n" +
+                "이번달 계획 10개 중 4개 완료 했어요!", digest.getBody());
+        assertEquals("token", digest.getTargetToken());
+    }
+}
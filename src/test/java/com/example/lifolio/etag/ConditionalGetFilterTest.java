@@ -0,0 +1,98 @@
+package com.example.lifolio.etag;
+
+import com.example.lifolio.jwt.TokenProvider;
+import com.example.lifolio.service.DataVersionService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConditionalGetFilterTest {
+
+    private DataVersionService dataVersionService;
+    private ConditionalGetFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        dataVersionService = mock(DataVersionService.class);
+        when(dataVersionService.versions(7L, DataVersionService.Resource.MY)).thenReturn(Arrays.asList("1665900000000"));
+        filter = new ConditionalGetFilter(dataVersionService);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        Claims claims = Jwts.claims();
+        claims.put("userId", 7L);
+        request.setAttribute(TokenProvider.CLAIMS_ATTRIBUTE, claims);
+        return request;
+    }
+
+    @Test
+    void firstRequestGetsEtagAndRunsController() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("GET", "/my"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(ConditionalGetFilter.etag(Arrays.asList("1665900000000")), response.getHeader("ETag"));
+    }
+
+    @Test
+    void unchangedDataIsAnsweredWith304() throws Exception {
+        MockHttpServletRequest request = request("GET", "/my");
+        request.addHeader("If-None-Match", ConditionalGetFilter.etag(Arrays.asList("1665900000000")));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(304, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void bumpedVersionRunsControllerAgain() throws Exception {
+        MockHttpServletRequest request = request("GET", "/my");
+        request.addHeader("If-None-Match", ConditionalGetFilter.etag(Arrays.asList("1665899999999")));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void writesAndOtherPathsAreNotTagged() throws Exception {
+        filter.doFilter(request("POST", "/my"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("GET", "/my/graph"), new MockHttpServletResponse(), new MockFilterChain());
+
+        verifyNoInteractions(dataVersionService);
+    }
+
+    @Test
+    void resourcesFollowScreens() {
+        assertArrayEquals(new DataVersionService.Resource[]{DataVersionService.Resource.HOME}, ConditionalGetFilter.resourcesOf("/home/7"));
+        assertArrayEquals(new DataVersionService.Resource[]{DataVersionService.Resource.CALENDAR}, ConditionalGetFilter.resourcesOf("/my/calender"));
+        assertArrayEquals(new DataVersionService.Resource[]{DataVersionService.Resource.PLANNING}, ConditionalGetFilter.resourcesOf("/planning/day/"));
+        assertNull(ConditionalGetFilter.resourcesOf("/home/graph/7/1"));
+    }
+
+    @Test
+    void weakComparisonAcceptsListsAndStrongForm() {
+        String etag = "W/\"2022-10-16.3\"";
+        assertTrue(ConditionalGetFilter.matches("\"x\", W/\"2022-10-16.3\"", etag));
+        assertTrue(ConditionalGetFilter.matches("\"2022-10-16.3\"", etag));
+        assertFalse(ConditionalGetFilter.matches("W/\"2022-10-16.4\"", etag));
+    }
+}
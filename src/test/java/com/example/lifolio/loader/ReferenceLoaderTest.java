@@ -0,0 +1,57 @@
+package com.example.lifolio.loader;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceLoaderTest {
+
+    private final List<Collection<Long>> queries = new ArrayList<>();
+
+    private ReferenceLoader.Batch<String> batch() {
+        return new ReferenceLoader.Batch<>(ids -> {
+            queries.add(new ArrayList<>(ids));
+            Map<Long, String> result = new HashMap<>();
+            ids.stream().filter(id -> id < 100).forEach(id -> result.put(id, "title" + id));
+            return result;
+        });
+    }
+
+    @Test
+    void requestedIdsAreLoadedInOneQuery() {
+        ReferenceLoader.Batch<String> batch = batch();
+
+        batch.request(Arrays.asList(1L, 2L, 3L, 2L));
+        assertEquals("title1", batch.load(1L));
+        assertEquals("title2", batch.load(2L));
+        assertEquals("title3", batch.load(3L));
+
+        assertEquals(1, queries.size());
+        assertEquals(Arrays.asList(1L, 2L, 3L), queries.get(0));
+    }
+
+    @Test
+    void loadedAndMissingIdsAreNotQueriedAgain() {
+        ReferenceLoader.Batch<String> batch = batch();
+
+        assertEquals("title1", batch.load(1L));
+        assertNull(batch.load(100L));
+        batch.request(Arrays.asList(1L, 100L));
+        assertEquals("title1", batch.load(1L));
+        assertNull(batch.load(100L));
+
+        assertEquals(2, queries.size());
+    }
+
+    @Test
+    void nullIdIsNotQueried() {
+        ReferenceLoader.Batch<String> batch = batch();
+
+        assertNull(batch.load(null));
+        batch.request(Collections.singletonList(null));
+
+        assertTrue(queries.isEmpty());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.lifolio.oauth;
+
+import com.example.lifolio.base.BaseException;
+import com.example.lifolio.base.BaseResponseStatus;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KakaoOAuthProviderTest {
+
+    private HttpServer server;
+    private KakaoOAuthProvider kakaoOAuthProvider;
+    private final AtomicInteger profileCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/oauth/token", exchange -> respond(exchange, 200, "{\"access_token\":\"kakao-access\",\"refresh_token\":\"kakao-refresh\"}"));
+        server.createContext("/v2/user/me", exchange -> {
+            profileCalls.incrementAndGet();
+            if ("Bearer broken".equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                respond(exchange, 502, "");
+            } else {
+                respond(exchange, 200, "{\"id\":1234,\"properties\":{\"nickname\":\"라이폴리오\"}}");
+            }
+        });
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        kakaoOAuthProvider = new KakaoOAuthProvider(new OAuthHttpClient(500, 500), baseUrl, baseUrl,
+                "client-id", "http://localhost/redirect", 2, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void readsTokenAndProfile() throws BaseException {
+        assertEquals("kakao-access", kakaoOAuthProvider.getAccessToken("code"));
+
+        OAuthProfile profile = kakaoOAuthProvider.getProfile("kakao-access");
+        assertEquals("1234", profile.getId());
+        assertEquals("라이폴리오", profile.getName());
+        assertEquals(KakaoOAuthProvider.PROVIDER, profile.getProvider());
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedServerErrors() {
+        for (int i = 0; i < 2; i++) {
+            BaseException e = assertThrows(BaseException.class, () -> kakaoOAuthProvider.getProfile("broken"));
+            assertEquals(BaseResponseStatus.OAUTH_SERVER_ERROR, e.getStatus());
+        }
+
+        //서킷이 열리면 제공자를 호출하지 않고 바로 실패
+        assertThrows(BaseException.class, () -> kakaoOAuthProvider.getProfile("kakao-access"));
+        assertEquals(2, profileCalls.get());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.lifolio.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8", "::1/128"));
+
+    @Test
+    void forwardedForIsUsedBehindTrustedProxy() {
+        //클라이언트가 앞에 넣은 값은 무시하고 프록시가 붙인 마지막 신뢰하지 않는 주소 사용
+        assertEquals("203.0.113.7", resolver.resolve(request("10.1.2.3", "1.1.1.1, 203.0.113.7, 10.0.0.5")));
+    }
+
+    @Test
+    void forwardedForIsIgnoredFromUntrustedPeer() {
+        assertEquals("198.51.100.9", resolver.resolve(request("198.51.100.9", "1.1.1.1")));
+    }
+
+    @Test
+    void remoteAddrIsUsedWithoutHeader() {
+        assertEquals("10.1.2.3", resolver.resolve(request("10.1.2.3", null)));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users/login");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.lifolio.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterBucketTest {
+
+    @Test
+    void burstUpToCapacityThenRefillsOneTokenPerInterval() {
+        RateLimiter.Bucket bucket = new RateLimiter.Bucket(3, 1000);
+        long now = 1_000_000;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        assertEquals(1000, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now + 1000));
+        assertEquals(3, bucket.drainPending());
+    }
+
+    @Test
+    void usageFromOtherNodesIsMerged() {
+        RateLimiter.Bucket bucket = new RateLimiter.Bucket(3, 1000);
+        long now = 1_000_000;
+
+        //다른 노드에서 이미 토큰 3개를 다 씀
+        bucket.mergeRemote(now + 3000);
+
+        assertTrue(bucket.tryAcquire(now) > 0);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.lifolio.repository;
+
+import com.example.lifolio.dto.my.MyRes;
+import com.example.lifolio.repository.MyFolioRepositoryCustom.BrowseCursor;
+import com.example.lifolio.repository.MyFolioRepositoryCustom.BrowseOrder;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MyFolioBrowseCursorTest {
+
+    private static MyRes.ViewCategory folio(long folioId, LocalDate date, Integer star) {
+        return MyRes.ViewCategory.builder().folioId(folioId).date(date).star(star).build();
+    }
+
+    @Test
+    void cursorRoundTrip() {
+        String cursor = BrowseCursor.after(BrowseOrder.DATE_DESC, folio(42L, LocalDate.of(2022, 8, 1), 3)).encode();
+
+        BrowseCursor decoded = BrowseCursor.decode(cursor, BrowseOrder.DATE_DESC);
+
+        assertEquals("2022-08-01", decoded.value);
+        assertEquals(42L, decoded.folioId);
+    }
+
+    @Test
+    void cursorOfNullStarKeepsNull() {
+        String cursor = BrowseCursor.after(BrowseOrder.STAR_ASC, folio(7L, null, null)).encode();
+
+        BrowseCursor decoded = BrowseCursor.decode(cursor, BrowseOrder.STAR_ASC);
+
+        assertNull(decoded.value);
+        assertEquals(7L, decoded.folioId);
+    }
+
+    @Test
+    void cursorOfOtherOrderIsRejected() {
+        String cursor = BrowseCursor.after(BrowseOrder.STAR_DESC, folio(7L, null, 5)).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> BrowseCursor.decode(cursor, BrowseOrder.DATE_DESC));
+        assertThrows(IllegalArgumentException.class, () -> BrowseCursor.decode("not a cursor", BrowseOrder.DATE_DESC));
+    }
+
+    @Test
+    void descendingKeysetIncludesNullRowsAfterValues() {
+        String condition = MyFolioRepositoryImpl.keysetCondition("MF.star", false, true);
+
+        assertTrue(condition.contains("MF.star < :afterValue"));
+        assertTrue(condition.contains("MF.star is null"));
+    }
+
+    @Test
+    void nullStarIsMappedAsNull() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(7L);
+        when(rs.getString("color_name")).thenReturn("red");
+        when(rs.getObject("star", Integer.class)).thenReturn(null);
+
+        MyRes.ViewCategory row = MyFolioRepositoryImpl.VIEW_CATEGORY_MAPPER.mapRow(rs, 0);
+
+        assertEquals(7L, row.getFolioId());
+        assertEquals("red", row.getColorName());
+        assertNull(row.getStar());
+    }
+}
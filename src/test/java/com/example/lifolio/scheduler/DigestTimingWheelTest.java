@@ -0,0 +1,47 @@
+package com.example.lifolio.scheduler;
+
+import com.example.lifolio.repository.AlarmRepository;
+import com.example.lifolio.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class DigestTimingWheelTest {
+
+    @Test
+    void localTimeIsConvertedToUtcSlot() {
+        //18:00 KST = 09:00 UTC
+        assertEquals(9 * 60, DigestTimingWheel.slotOf(18 * 60, ZoneId.of("Asia/Seoul")));
+        //01:00 KST = 전날 16:00 UTC
+        assertEquals(16 * 60, DigestTimingWheel.slotOf(60, ZoneId.of("Asia/Seoul")));
+        assertEquals(18 * 60, DigestTimingWheel.slotOf(18 * 60, ZoneId.of("UTC")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void slotIsProcessedWithLocalDateOfEachZone() {
+        AlarmRepository alarmRepository = mock(AlarmRepository.class);
+        NotificationService notificationService = mock(NotificationService.class);
+        DigestTimingWheel wheel = new DigestTimingWheel(alarmRepository, notificationService,
+                mock(RedisTemplate.class), new SimpleMeterRegistry());
+
+        //2026-10-16 16:00 UTC = 10-17 01:00 KST
+        long epochMinute = ZonedDateTime.of(2026, 10, 16, 16, 0, 0, 0, ZoneId.of("UTC")).toEpochSecond() / 60;
+        int slot = 16 * 60;
+        when(alarmRepository.findTimeZonesBySlot(slot)).thenReturn(List.of("Asia/Seoul", "UTC"));
+
+        wheel.processSlot(epochMinute);
+
+        verify(notificationService).enqueueDigests(slot, ZoneId.of("Asia/Seoul"), LocalDate.of(2026, 10, 17));
+        verify(notificationService).enqueueDigests(slot, ZoneId.of("UTC"), LocalDate.of(2026, 10, 16));
+        wheel.shutdown();
+    }
+}
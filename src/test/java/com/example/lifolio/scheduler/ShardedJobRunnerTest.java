@@ -0,0 +1,166 @@
+package com.example.lifolio.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedJobRunnerTest {
+
+    @Test
+    void nodesSplitShardsWithoutOverlap() throws InterruptedException {
+        InMemoryShardLeaseStore store = new InMemoryShardLeaseStore();
+        ShardedJobRunner first = runner(store, "node-a");
+        ShardedJobRunner second = runner(store, "node-b");
+        first.heartbeat();
+        second.heartbeat();
+
+        List<Long> processedUsers = Collections.synchronizedList(new ArrayList<>());
+        Map<String, Integer> shardsByNode = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(2);
+        for (ShardedJobRunner runner : List.of(first, second)) {
+            String node = runner == first ? "node-a" : "node-b";
+            new Thread(() -> {
+                runner.run("todo-daily", "2026-10-16", 100, (from, to, lease) -> {
+                    shardsByNode.merge(node, 1, Integer::sum);
+                    for (long userId = from + 1; userId <= Math.min(to, 100); userId++) {
+                        processedUsers.add(userId);
+                    }
+                });
+                done.countDown();
+            }).start();
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        //userId 1 ~ 100 이 정확히 한 번씩 처리됨
+        assertEquals(100, processedUsers.size());
+        assertEquals(100, processedUsers.stream().distinct().count());
+        assertEquals(8, shardsByNode.values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void shardOfDeadNodeIsTakenOver() {
+        InMemoryShardLeaseStore store = new InMemoryShardLeaseStore();
+        //다른 노드가 샤드 0 을 잡은 채로 죽음
+        store.agree("job:todo-daily:2026-10-16:shards", 2, 60_000);
+        store.claim("job:todo-daily:2026-10-16:shard:0", "dead-node", 100);
+
+        List<Long> froms = Collections.synchronizedList(new ArrayList<>());
+        runner(store, "node-a").run("todo-daily", "2026-10-16", 100, (from, to, lease) -> froms.add(from));
+
+        assertEquals(2, froms.size());
+        assertTrue(froms.contains(0L));
+    }
+
+    @Test
+    void finishedRunIsNotRepeated() {
+        InMemoryShardLeaseStore store = new InMemoryShardLeaseStore();
+        List<Long> froms = new ArrayList<>();
+
+        runner(store, "node-a").run("todo-daily", "2026-10-16", 100, (from, to, lease) -> froms.add(from));
+        runner(store, "node-b").run("todo-daily", "2026-10-16", 100, (from, to, lease) -> froms.add(from));
+
+        assertEquals(4, froms.size());
+    }
+
+    @Test
+    void openLastShardStopsAtMaxUserId() {
+        List<long[]> ranges = new ArrayList<>();
+
+        //마지막 샤드의 위쪽은 Long.MAX_VALUE
+        ShardedJobRunner.inRanges(2500, 1000, (from, to) -> ranges.add(new long[]{from, to}))
+                .run(1000, Long.MAX_VALUE, () -> true);
+
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new long[]{1000, 2000}, ranges.get(0));
+        assertArrayEquals(new long[]{2000, 2500}, ranges.get(1));
+    }
+
+    @Test
+    void rangesCoverAllUsersOnce() {
+        List<Long> processedUsers = new ArrayList<>();
+
+        runner(new InMemoryShardLeaseStore(), "node-a").runInRanges("myfolio-rollup", "2026-10-16", 2500, 300, (from, to) -> {
+            for (long userId = from + 1; userId <= to; userId++) {
+                processedUsers.add(userId);
+            }
+        });
+
+        assertEquals(2500, processedUsers.size());
+        assertEquals(2500, processedUsers.stream().distinct().count());
+    }
+
+    private static ShardedJobRunner runner(ShardLeaseStore store, String nodeId) {
+        return new ShardedJobRunner(store, nodeId, 4, 200, 20, 5_000, 15_000);
+    }
+
+    //Redis 대신 쓰는 메모리 저장소 (만료 시각만 흉내냄)
+    static class InMemoryShardLeaseStore implements ShardLeaseStore {
+        private final Map<String, Long> nodes = new ConcurrentHashMap<>();
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final Map<String, Long> expiresAt = new ConcurrentHashMap<>();
+
+        @Override
+        public void heartbeat(String nodeId, long ttlMillis) {
+            nodes.put(nodeId, System.currentTimeMillis() + ttlMillis);
+        }
+
+        @Override
+        public int liveNodes() {
+            long now = System.currentTimeMillis();
+            return (int) nodes.values().stream().filter(expiry -> expiry > now).count();
+        }
+
+        @Override
+        public synchronized long agree(String key, long proposed, long ttlMillis) {
+            String current = get(key);
+            if (current == null) {
+                set(key, String.valueOf(proposed), ttlMillis);
+                return proposed;
+            }
+            return Long.parseLong(current);
+        }
+
+        @Override
+        public synchronized long claim(String shardKey, String nodeId, long leaseMillis) {
+            String current = get(shardKey);
+            if ("done".equals(current)) {
+                return DONE;
+            }
+            if (current != null && !current.equals(nodeId)) {
+                return HELD;
+            }
+            set(shardKey, nodeId, leaseMillis);
+            return CLAIMED;
+        }
+
+        @Override
+        public synchronized void complete(String shardKey, long ttlMillis) {
+            set(shardKey, "done", ttlMillis);
+        }
+
+        private String get(String key) {
+            Long expiry = expiresAt.get(key);
+            if (expiry == null || expiry <= System.currentTimeMillis()) {
+                values.remove(key);
+                expiresAt.remove(key);
+                return null;
+            }
+            return values.get(key);
+        }
+
+        private void set(String key, String value, long ttlMillis) {
+            values.put(key, value);
+            expiresAt.put(key, System.currentTimeMillis() + ttlMillis);
+        }
+    }
+}
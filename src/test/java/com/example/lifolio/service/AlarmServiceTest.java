@@ -0,0 +1,93 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.dto.alarm.AlarmReq;
+import com.example.lifolio.entity.Alarm;
+import com.example.lifolio.repository.AlarmRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class AlarmServiceTest {
+
+    private AlarmRepository alarmRepository;
+    private AlarmFlagIndexService alarmFlagIndexService;
+    private AlarmService alarmService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        alarmRepository = mock(AlarmRepository.class);
+        alarmFlagIndexService = mock(AlarmFlagIndexService.class);
+        alarmService = new AlarmService(alarmRepository, alarmFlagIndexService,
+                mock(RedisTemplate.class), mock(RedisMessageListenerContainer.class));
+    }
+
+    @Test
+    void patchAppliesAllTogglesInOneUpdate() {
+        //소셜 알림은 끄고 그중 관심 알림만 다시 켬, 마케팅 켬
+        AlarmReq.AlarmPatchReq req = AlarmReq.AlarmPatchReq.builder()
+                .socialAlarm(0)
+                .interestAlarm(1)
+                .marketingAlarm(1)
+                .build();
+
+        alarmService.patchAlarm(1L, req);
+
+        int mask = Alarm.SOCIAL | Alarm.MARKETING;
+        int bits = Alarm.INTEREST | Alarm.MARKETING;
+        verify(alarmRepository).updateFlags(1L, mask, bits);
+        verify(alarmFlagIndexService).update(1L, mask, bits);
+        verify(alarmRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    void emptyPatchDoesNothing() {
+        alarmService.patchAlarm(1L, new AlarmReq.AlarmPatchReq());
+
+        verifyNoInteractions(alarmRepository, alarmFlagIndexService);
+    }
+
+    @Test
+    void redisBitmapIsMostSignificantBitFirst() {
+        BitSet bitSet = new BitSet();
+        bitSet.set(0);
+        bitSet.set(9);
+
+        assertArrayEquals(new byte[]{(byte) 0x80, 0x40}, AlarmFlagIndexService.toRedisBitmap(bitSet));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void missingBitmapIsUnknownNotZero() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        //비트맵 키가 없으면 스크립트가 -1
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(-1L);
+        AlarmFlagIndexService index = new AlarmFlagIndexService(redisTemplate, alarmRepository);
+
+        assertEquals(Long.MAX_VALUE, index.countEnabled(Alarm.TODO, 0, 1000));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildIsSkippedWhileAnotherNodeRebuilds() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("alarm-flag:rebuilding"), anyString(), any(Duration.class))).thenReturn(false);
+        AlarmFlagIndexService index = new AlarmFlagIndexService(redisTemplate, alarmRepository);
+
+        index.rebuild();
+
+        verifyNoInteractions(alarmRepository);
+    }
+}
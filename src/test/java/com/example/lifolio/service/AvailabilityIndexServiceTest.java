@@ -0,0 +1,37 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AvailabilityIndexServiceTest {
+
+    @Test
+    void normalizationFoldsLikeCaseAndAccentInsensitiveCollation() {
+        assertEquals("cafe", AvailabilityIndexService.normalize("Café "));
+        assertEquals("abc", AvailabilityIndexService.normalize("ＡＢＣ　"));
+        assertEquals("strasse", AvailabilityIndexService.normalize("Straße"));
+        assertEquals(AvailabilityIndexService.normalize("라이폴리오"), AvailabilityIndexService.normalize("라이폴리오 "));
+    }
+
+    @Test
+    void onlyAsciiAndHangulAreAnsweredFromTheFilter() {
+        assertTrue(AvailabilityIndexService.isFoldable(AvailabilityIndexService.normalize("lifolio")));
+        assertTrue(AvailabilityIndexService.isFoldable(AvailabilityIndexService.normalize("라이폴리오")));
+        assertFalse(AvailabilityIndexService.isFoldable(AvailabilityIndexService.normalize("名前")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void everyNameGoesToDatabaseUntilIndexIsFilled() {
+        AvailabilityIndexService availabilityIndexService = new AvailabilityIndexService(mock(RedisTemplate.class),
+                mock(RedisMessageListenerContainer.class), mock(UserRepository.class), 1000);
+
+        assertTrue(availabilityIndexService.mightContainUsername("newuser"));
+        assertTrue(availabilityIndexService.mightContainNickname("새닉네임"));
+    }
+}
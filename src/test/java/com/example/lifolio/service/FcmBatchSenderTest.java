@@ -0,0 +1,66 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.dto.alarm.FcmSendResult;
+import com.example.lifolio.dto.alarm.RequestDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FcmBatchSenderTest {
+
+    @Test
+    void statusesFollowRequestOrder() {
+        FirebaseCloudMessageService firebaseCloudMessageService = mock(FirebaseCloudMessageService.class);
+        when(firebaseCloudMessageService.sendAsync(eq("ok"), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new FcmSendResult(200, null, null, 1)));
+        when(firebaseCloudMessageService.sendAsync(eq("dead"), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new FcmSendResult(404, "UNREGISTERED", null, 1)));
+        when(firebaseCloudMessageService.sendAsync(eq("busy"), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new FcmSendResult(429, "QUOTA_EXCEEDED", null, 4)));
+        FcmBatchSender fcmBatchSender = new FcmBatchSender(firebaseCloudMessageService, 2);
+
+        List<FcmTokenPruner.SendStatus> statuses = fcmBatchSender.send(Arrays.asList(
+                new RequestDTO("ok", "title", "body"),
+                new RequestDTO("dead", "title", "body"),
+                new RequestDTO("busy", "title", "body")));
+
+        assertEquals(Arrays.asList(FcmTokenPruner.SendStatus.SUCCESS, FcmTokenPruner.SendStatus.UNREGISTERED,
+                FcmTokenPruner.SendStatus.TRANSIENT), statuses);
+    }
+
+    @Test
+    void inFlightSendsAreBounded() throws Exception {
+        FirebaseCloudMessageService firebaseCloudMessageService = mock(FirebaseCloudMessageService.class);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(firebaseCloudMessageService.sendAsync(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return new FcmSendResult(200, null, null, 1);
+            }, CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS));
+        });
+        FcmBatchSender fcmBatchSender = new FcmBatchSender(firebaseCloudMessageService, 2);
+
+        List<RequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(new RequestDTO("device" + i, "title", "body"));
+        }
+        List<FcmTokenPruner.SendStatus> statuses = fcmBatchSender.send(requests);
+
+        assertEquals(10, statuses.size());
+        assertTrue(statuses.stream().allMatch(status -> status == FcmTokenPruner.SendStatus.SUCCESS));
+        assertTrue(maxInFlight.get() <= 2);
+        verify(firebaseCloudMessageService, times(10)).sendAsync(anyString(), eq("title"), eq("body"));
+    }
+}
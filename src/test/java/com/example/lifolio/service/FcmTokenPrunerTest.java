@@ -0,0 +1,43 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class FcmTokenPrunerTest {
+
+    @Test
+    void onlyTokenErrorsArePruned() {
+        assertEquals(FcmTokenPruner.SendStatus.UNREGISTERED, FcmTokenPruner.classify("UNREGISTERED", null));
+        assertEquals(FcmTokenPruner.SendStatus.INVALID_TOKEN,
+                FcmTokenPruner.classify("INVALID_ARGUMENT", "The registration token is not a valid FCM registration token"));
+        //메시지 내용 문제는 토큰을 지우지 않음
+        FcmTokenPruner.SendStatus payloadError = FcmTokenPruner.classify("INVALID_ARGUMENT",
+                "Invalid value at 'message.data[0].value' (TYPE_STRING)");
+        assertEquals(FcmTokenPruner.SendStatus.INVALID_ARGUMENT, payloadError);
+        assertFalse(payloadError.isDead());
+        assertFalse(payloadError.isRetryable());
+
+        UserRepository userRepository = mock(UserRepository.class);
+        List<String> cleared = new ArrayList<>();
+        when(userRepository.clearFcmTokens(anyCollection())).thenAnswer(invocation -> {
+            cleared.addAll(invocation.getArgument(0));
+            return 1;
+        });
+        when(userRepository.findIdsByFcmTokenIn(anyCollection())).thenReturn(List.of(7L));
+        PrincipalCacheService principalCacheService = mock(PrincipalCacheService.class);
+        FcmTokenPruner pruner = new FcmTokenPruner(userRepository, principalCacheService);
+        pruner.report("bad-payload", payloadError);
+        pruner.report("bad-token", FcmTokenPruner.SendStatus.INVALID_TOKEN);
+        pruner.flush();
+
+        assertEquals(List.of("bad-token"), cleared);
+        verify(principalCacheService).evict(7L);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.dto.alarm.FcmSendResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.auth.oauth2.AccessToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class FirebaseCloudMessageServiceTest {
+
+    private static final String UNREGISTERED_BODY = "{\"error\":{\"code\":404,\"status\":\"NOT_FOUND\",\"details\":[" +
+            "{\"@type\":\"type.googleapis.com/google.firebase.fcm.v1.FcmError\",\"errorCode\":\"UNREGISTERED\"}]}}";
+
+    private HttpServer server;
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger tokenFetches = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private FcmTokenPruner fcmTokenPruner;
+    private FirebaseCloudMessageService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/send", this::handle);
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        fcmTokenPruner = mock(FcmTokenPruner.class);
+        service = new FirebaseCloudMessageService("http://127.0.0.1:" + server.getAddress().getPort() + "/send",
+                new ObjectMapper(), meterRegistry,
+                () -> {
+                    tokenFetches.incrementAndGet();
+                    return new AccessToken("fake-token", new Date(System.currentTimeMillis() + 3600_000));
+                },
+                fcmTokenPruner, 3, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void retriesAfterServiceUnavailableAndReusesToken() {
+        statuses.add(503);
+        statuses.add(200);
+
+        FcmSendResult result = service.sendAsync("device", "title", "body").join();
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getAttempts());
+        assertEquals(2, requests.get());
+        assertEquals(1, tokenFetches.get());
+        assertEquals(1, meterRegistry.timer("fcm.send", "outcome", "success").count());
+    }
+
+    @Test
+    void unregisteredTokenIsReportedWithoutRetry() {
+        statuses.add(404);
+
+        FcmSendResult result = service.sendMessageTo("dead-device", "title", "body");
+
+        assertFalse(result.isSuccess());
+        assertEquals("UNREGISTERED", result.getErrorCode());
+        assertEquals(1, requests.get());
+        verify(fcmTokenPruner).report("dead-device", FcmTokenPruner.SendStatus.UNREGISTERED);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        assertEquals("Bearer fake-token", exchange.getRequestHeaders().getFirst("Authorization"));
+        exchange.getRequestBody().readAllBytes();
+
+        Integer status = statuses.poll();
+        int code = status == null ? 200 : status;
+        byte[] body = (code == 404 ? UNREGISTERED_BODY : "{\"name\":\"projects/lifolio/messages/1\"}").getBytes(StandardCharsets.UTF_8);
+        if (code == 503) {
+            exchange.getResponseHeaders().add("Retry-After", "0");
+        }
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
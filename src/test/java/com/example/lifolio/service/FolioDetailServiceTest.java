@@ -0,0 +1,168 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.dto.user.UserRes;
+import com.example.lifolio.repository.MyFolioRepository;
+import com.example.lifolio.repository.MyFolioRepositoryCustom;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FolioDetailServiceTest {
+
+    private MyFolioRepository myFolioRepository;
+    private RedisTemplate<String, String> redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private FolioDetailService folioDetailService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        myFolioRepository = mock(MyFolioRepository.class);
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        meterRegistry = new SimpleMeterRegistry();
+
+        folioDetailService = new FolioDetailService(myFolioRepository, redisTemplate, mock(RedisMessageListenerContainer.class),
+                objectMapper, meterRegistry, "node-a", 100, Duration.ofHours(1));
+    }
+
+    private static UserRes.GetMyFolioDetailRes detail(String title) {
+        return UserRes.GetMyFolioDetailRes.builder()
+                .myFolioTitle(title)
+                .star(4)
+                .startDate(LocalDate.of(2022, 8, 1))
+                .myFolioImgList(new ArrayList<>())
+                .myFolioWithList(new ArrayList<>())
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubLoadStart(String gen, String startedAt) {
+        when(redisTemplate.execute(any(RedisScript.class), eq(Collections.singletonList("folio-detail-gen:42"))))
+                .thenReturn(Arrays.asList(gen, startedAt));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubSave(Long result) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any())).thenReturn(result);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void missIsLoadedOnceAndStoredInRedis() {
+        stubLoadStart("0", "1000");
+        stubSave(1L);
+        when(myFolioRepository.findDetail(42L)).thenReturn(new MyFolioRepositoryCustom.FolioDetail(7L, detail("산책")));
+
+        assertEquals("산책", folioDetailService.getDetail(42L).getMyFolioTitle());
+        assertEquals("산책", folioDetailService.getDetail(42L).getMyFolioTitle());
+
+        //주인은 상세 조회 결과에서 가져오므로 DB 조회는 findDetail 뿐
+        verify(myFolioRepository, times(1)).findDetail(42L);
+        verifyNoMoreInteractions(myFolioRepository);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(Arrays.asList(
+                "folio-detail:42", "folio-detail-gen:42", "folio-detail-user:7", "folio-detail-user-gen:7")),
+                eq("0"), any(), any(), eq("42"), eq("1000"));
+        assertEquals(1, meterRegistry.get("folio.detail.load").timer().count());
+    }
+
+    @Test
+    void redisHitSkipsDatabase() throws Exception {
+        when(valueOperations.get("folio-detail:42")).thenReturn(objectMapper.writeValueAsString(detail("독서")));
+
+        assertEquals("독서", folioDetailService.getDetail(42L).getMyFolioTitle());
+
+        verifyNoInteractions(myFolioRepository);
+        assertEquals(1.0, meterRegistry.get("folio.detail.redis").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void missingFolioIsNotCached() {
+        stubLoadStart("0", "1000");
+
+        assertNull(folioDetailService.getDetail(42L));
+        assertNull(folioDetailService.getDetail(42L));
+
+        verify(myFolioRepository, times(2)).findDetail(42L);
+    }
+
+    @Test
+    void rejectedSaveIsNotKeptInMemory() {
+        //읽는 도중 세대가 바뀌거나 카테고리 이름이 바뀌면 (evictUser) 저장이 거절되고, 메모리에도 넣지 않음
+        stubLoadStart("0", "1000");
+        stubSave(0L);
+        when(myFolioRepository.findDetail(42L)).thenReturn(new MyFolioRepositoryCustom.FolioDetail(7L, detail("산책")));
+
+        assertEquals("산책", folioDetailService.getDetail(42L).getMyFolioTitle());
+        folioDetailService.getDetail(42L);
+
+        verify(myFolioRepository, times(2)).findDetail(42L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loadStartIsReadBeforeLoading() {
+        stubLoadStart("3", "1000");
+        stubSave(1L);
+        when(myFolioRepository.findDetail(42L)).thenReturn(new MyFolioRepositoryCustom.FolioDetail(7L, detail("산책")));
+
+        folioDetailService.getDetail(42L);
+
+        InOrder inOrder = inOrder(redisTemplate, myFolioRepository);
+        inOrder.verify(redisTemplate).execute(any(RedisScript.class), eq(Collections.singletonList("folio-detail-gen:42")));
+        inOrder.verify(myFolioRepository).findDetail(42L);
+        inOrder.verify(redisTemplate).execute(any(RedisScript.class), anyList(), eq("3"), any(), any(), any(), eq("1000"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictUserRecordsEvictionTime() {
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members("folio-detail-user:7")).thenReturn(Set.of("42"));
+
+        folioDetailService.evictUser(7L);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(Collections.singletonList("folio-detail-user-gen:7")), eq("3600000"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(Arrays.asList("folio-detail:42", "folio-detail-gen:42")), any());
+    }
+
+    @Test
+    void evictionFromOtherNodeClearsLocalCache() {
+        stubLoadStart("0", "1000");
+        stubSave(1L);
+        when(myFolioRepository.findDetail(42L)).thenReturn(new MyFolioRepositoryCustom.FolioDetail(7L, detail("산책")));
+        folioDetailService.getDetail(42L);
+
+        byte[] body = "node-b:42".getBytes(StandardCharsets.UTF_8);
+        folioDetailService.onMessage(new DefaultMessage(FolioDetailService.CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+        folioDetailService.getDetail(42L);
+
+        verify(myFolioRepository, times(2)).findDetail(42L);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.dto.home.HomeRes;
+import com.example.lifolio.repository.CustomLifolioColorRepository;
+import com.example.lifolio.repository.CustomLifolioRepository;
+import com.example.lifolio.repository.GoalOfYearRepository;
+import com.example.lifolio.repository.MyFolioMonthlyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class HomeSnapshotServiceTest {
+
+    private HashOperations<String, Object, Object> hashOperations;
+    private MyFolioMonthlyRepository myFolioMonthlyRepository;
+    private HomeSnapshotService homeSnapshotService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        myFolioMonthlyRepository = mock(MyFolioMonthlyRepository.class);
+
+        homeSnapshotService = new HomeSnapshotService(redisTemplate, new ObjectMapper(),
+                mock(CustomLifolioColorRepository.class), mock(GoalOfYearRepository.class),
+                myFolioMonthlyRepository, mock(CustomLifolioRepository.class));
+    }
+
+    @Test
+    void homeIsServedFromSnapshotWithoutQueries() {
+        Map<Object, Object> snapshot = new HashMap<>();
+        snapshot.put("color", "3");
+        snapshot.put("goal", "운동하기");
+        snapshot.put("m2", "4");
+        snapshot.put("m11", "5");
+        snapshot.put("custom", "[{\"customId\":7,\"concept\":1,\"emoji\":\"🔥\",\"customName\":\"운동\"}]");
+        when(hashOperations.entries("home:1:2026")).thenReturn(snapshot);
+
+        HomeRes.GetHomeRes home = homeSnapshotService.getHomeRes(1L, 2026);
+
+        assertEquals(3, home.getTopInfo().getColorStatus());
+        assertEquals("운동하기", home.getTopInfo().getGoal());
+        assertEquals(2, home.getGraphLifolio().size());
+        assertEquals(2, home.getGraphLifolio().get(0).getMonth());
+        assertEquals(5, home.getGraphLifolio().get(1).getStar());
+        assertEquals(7L, home.getCustomLifolio().get(0).getCustomId());
+        verifyNoInteractions(myFolioMonthlyRepository);
+    }
+}
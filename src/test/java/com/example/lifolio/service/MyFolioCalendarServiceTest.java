@@ -0,0 +1,42 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.repository.MyFolioDailyRepository;
+import com.example.lifolio.repository.UserRepository;
+import com.example.lifolio.scheduler.ShardedJobRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MyFolioCalendarServiceTest {
+
+    private MyFolioDailyRepository myFolioDailyRepository;
+    private UserRepository userRepository;
+    private ShardedJobRunner shardedJobRunner;
+    private MyFolioCalendarService myFolioCalendarService;
+
+    @BeforeEach
+    void setUp() {
+        myFolioDailyRepository = mock(MyFolioDailyRepository.class);
+        userRepository = mock(UserRepository.class);
+        shardedJobRunner = mock(ShardedJobRunner.class);
+        myFolioCalendarService = new MyFolioCalendarService(myFolioDailyRepository, userRepository, shardedJobRunner);
+    }
+
+    @Test
+    void savedFolioIsUpsertedIntoItsDay() {
+        myFolioCalendarService.onFolioSaved(42L);
+
+        verify(myFolioDailyRepository).addFolio(42L);
+        verify(myFolioDailyRepository, never()).rebuildUsers(anyLong(), anyLong());
+    }
+
+    @Test
+    void categoryChangeRebuildsOnlyThatUser() {
+        myFolioCalendarService.onCategoryChanged(7L);
+
+        verify(myFolioDailyRepository).rebuildUsers(6L, 7L);
+        verify(myFolioDailyRepository).deleteEmptyDays(6L, 7L);
+    }
+}
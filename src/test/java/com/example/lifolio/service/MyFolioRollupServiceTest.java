@@ -0,0 +1,73 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.entity.MyFolio;
+import com.example.lifolio.repository.MyFolioMonthlyRepository;
+import com.example.lifolio.repository.UserRepository;
+import com.example.lifolio.scheduler.ShardedJobRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MyFolioRollupServiceTest {
+
+    private MyFolioMonthlyRepository myFolioMonthlyRepository;
+    private UserRepository userRepository;
+    private ShardedJobRunner shardedJobRunner;
+    private MyFolioRollupService myFolioRollupService;
+
+    @BeforeEach
+    void setUp() {
+        myFolioMonthlyRepository = mock(MyFolioMonthlyRepository.class);
+        userRepository = mock(UserRepository.class);
+        shardedJobRunner = mock(ShardedJobRunner.class);
+        myFolioRollupService = new MyFolioRollupService(myFolioMonthlyRepository, userRepository, shardedJobRunner);
+    }
+
+    @Test
+    void savedFolioIsAddedToItsMonth() {
+        MyFolio myFolio = MyFolio.builder()
+                .userId(7L)
+                .categoryId(3L)
+                .star(4)
+                .startDate(LocalDate.of(2022, 8, 15))
+                .build();
+
+        myFolioRollupService.onFolioSaved(myFolio);
+
+        verify(myFolioMonthlyRepository).addFolio(7L, 3L, 2022, 8, 4);
+    }
+
+    @Test
+    void folioWithoutDateIsNotAdded() {
+        myFolioRollupService.onFolioSaved(MyFolio.builder().userId(7L).categoryId(3L).star(4).build());
+
+        verifyNoInteractions(myFolioMonthlyRepository);
+    }
+
+    @Test
+    void changedFolioRebuildsOnlyThatUser() {
+        myFolioRollupService.onFolioChanged(7L);
+
+        verify(myFolioMonthlyRepository).rebuildUsers(6L, 7L);
+        verify(myFolioMonthlyRepository).deleteEmptyCells(6L, 7L);
+    }
+
+    @Test
+    void shardIsRebuiltInRanges() {
+        when(userRepository.findMaxId()).thenReturn(2500L);
+
+        myFolioRollupService.rebuildAll();
+
+        ArgumentCaptor<ShardedJobRunner.RangeTask> task = ArgumentCaptor.forClass(ShardedJobRunner.RangeTask.class);
+        verify(shardedJobRunner).runInRanges(eq("myfolio-rollup"), anyString(), eq(2500L), eq((long) MyFolioRollupService.REBUILD_RANGE), task.capture());
+        task.getValue().run(1000, 2000);
+
+        verify(myFolioMonthlyRepository).rebuildUsers(1000L, 2000L);
+        verify(myFolioMonthlyRepository).deleteEmptyCells(1000L, 2000L);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.entity.NotificationOutbox;
+import com.example.lifolio.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class NotificationOutboxWorkerTest {
+
+    private NotificationOutboxRepository notificationOutboxRepository;
+    private FcmBatchSender fcmBatchSender;
+    private NotificationOutboxWorker notificationOutboxWorker;
+
+    @BeforeEach
+    void setUp() {
+        notificationOutboxRepository = mock(NotificationOutboxRepository.class);
+        fcmBatchSender = mock(FcmBatchSender.class);
+        notificationOutboxWorker = new NotificationOutboxWorker(notificationOutboxRepository, fcmBatchSender,
+                mock(FcmTokenPruner.class), 1, 500, 120);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationOutboxWorker.shutdown();
+    }
+
+    @Test
+    void resultsAreRoutedByStatus() {
+        List<NotificationOutbox> claimed = Arrays.asList(
+                notification(1L, 1),
+                notification(2L, 1),
+                notification(3L, 2),
+                notification(4L, 5));
+        when(fcmBatchSender.send(anyList())).thenReturn(Arrays.asList(
+                FcmTokenPruner.SendStatus.SUCCESS,
+                FcmTokenPruner.SendStatus.UNREGISTERED,
+                FcmTokenPruner.SendStatus.TRANSIENT,
+                FcmTokenPruner.SendStatus.TRANSIENT));
+
+        notificationOutboxWorker.deliver(claimed);
+
+        verify(notificationOutboxRepository).markSent(Collections.singletonList(1L));
+        //재시도 횟수를 다 쓴 알림은 실패 처리
+        verify(notificationOutboxRepository).markFailed(Arrays.asList(2L, 4L));
+        verify(notificationOutboxRepository).reschedule(Collections.singletonList(3L));
+    }
+
+    @Test
+    void allSentSkipsOtherUpdates() {
+        when(fcmBatchSender.send(anyList())).thenReturn(Collections.singletonList(FcmTokenPruner.SendStatus.SUCCESS));
+
+        notificationOutboxWorker.deliver(Collections.singletonList(notification(1L, 1)));
+
+        verify(notificationOutboxRepository).markSent(Collections.singletonList(1L));
+        verify(notificationOutboxRepository, never()).markFailed(anyList());
+        verify(notificationOutboxRepository, never()).reschedule(anyList());
+    }
+
+    private static NotificationOutbox notification(Long id, int attempts) {
+        return NotificationOutbox.builder()
+                .id(id)
+                .targetToken("token-" + id)
+                .title("title")
+                .body("body")
+                .status(NotificationOutbox.SENDING)
+                .attempts(attempts)
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.lifolio.service;
+
+import com.example.lifolio.base.BaseException;
+import com.example.lifolio.base.BaseResponseStatus;
+import com.example.lifolio.util.DigestUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PhoneVerificationServiceTest {
+
+    private static final String PHONE = "01012345678";
+
+    private RedisTemplate<String, String> redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private TokenBucketService tokenBucketService;
+    private final List<String> sentTexts = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        tokenBucketService = mock(TokenBucketService.class);
+    }
+
+    @Test
+    void codeIsSentAsynchronouslyAndVerifiedOnServer() throws Exception {
+        SmsService smsService = new SmsService((to, text) -> sentTexts.add(text), 1, 10, 3, 1);
+        PhoneVerificationService service = new PhoneVerificationService(redisTemplate, tokenBucketService, smsService, 180);
+
+        assertEquals(180, service.sendCode(PHONE, "127.0.0.1"));
+
+        ArgumentCaptor<String> digest = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq("sms-code:" + PHONE), digest.capture(), eq(Duration.ofSeconds(180)));
+
+        String code = awaitSentCode();
+        assertEquals(DigestUtil.sha256(code), digest.getValue());
+
+        when(valueOperations.get("sms-code:" + PHONE)).thenReturn(digest.getValue());
+        when(valueOperations.increment("sms-attempts:" + PHONE)).thenReturn(1L);
+        BaseException wrong = assertThrows(BaseException.class, () -> service.verify(PHONE, code.equals("000000") ? "111111" : "000000"));
+        assertEquals(BaseResponseStatus.INVALID_SMS_CODE, wrong.getStatus());
+        String verificationToken = service.verify(PHONE, code);
+        assertNotNull(verificationToken);
+        verify(valueOperations).set("sms-verified:" + PHONE, DigestUtil.sha256(verificationToken), Duration.ofMinutes(10));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void verificationTokenIsConsumedOnce() throws Exception {
+        SmsService smsService = new SmsService((to, text) -> sentTexts.add(text), 1, 10, 3, 1);
+        PhoneVerificationService service = new PhoneVerificationService(redisTemplate, tokenBucketService, smsService, 180);
+        when(redisTemplate.execute(any(RedisScript.class), eq(Collections.singletonList("sms-verified:" + PHONE)),
+                eq(DigestUtil.sha256("token")))).thenReturn(1L, 0L);
+
+        service.consumeVerification(PHONE, "token");
+        BaseException reused = assertThrows(BaseException.class, () -> service.consumeVerification(PHONE, "token"));
+        assertEquals(BaseResponseStatus.UNVERIFIED_PHONE, reused.getStatus());
+        BaseException missing = assertThrows(BaseException.class, () -> service.consumeVerification(PHONE, null));
+        assertEquals(BaseResponseStatus.UNVERIFIED_PHONE, missing.getStatus());
+    }
+
+    @Test
+    void failedSendIsRetried() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        SmsService smsService = new SmsService((to, text) -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException("provider down");
+            }
+        }, 1, 10, 3, 1);
+
+        assertTrue(smsService.sendAsync(PHONE, "text").get(1, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void rateLimitedRequestIsRejectedWithoutSending() {
+        when(tokenBucketService.tryAcquire(startsWith("sms-bucket:phone:"), anyInt(), anyLong())).thenReturn(1000L);
+        SmsService smsService = new SmsService((to, text) -> sentTexts.add(text), 1, 10, 3, 1);
+        PhoneVerificationService service = new PhoneVerificationService(redisTemplate, tokenBucketService, smsService, 180);
+
+        BaseException e = assertThrows(BaseException.class, () -> service.sendCode(PHONE, "127.0.0.1"));
+        assertEquals(BaseResponseStatus.TOO_MANY_SMS_REQUESTS, e.getStatus());
+        verifyNoInteractions(valueOperations);
+        assertTrue(sentTexts.isEmpty());
+    }
+
+    @Test
+    void busyQueueKeepsPreviousCodeAndRefundsBuckets() throws Exception {
+        SmsService smsService = mock(SmsService.class);
+        when(smsService.sendAsync(anyString(), anyString())).thenThrow(new BaseException(BaseResponseStatus.SERVER_BUSY));
+        PhoneVerificationService service = new PhoneVerificationService(redisTemplate, tokenBucketService, smsService, 180);
+
+        BaseException e = assertThrows(BaseException.class, () -> service.sendCode(PHONE, "127.0.0.1"));
+        assertEquals(BaseResponseStatus.SERVER_BUSY, e.getStatus());
+        verifyNoInteractions(valueOperations);
+        verify(redisTemplate, never()).delete(anyString());
+        verify(tokenBucketService).refund("sms-bucket:ip:127.0.0.1", 10);
+        verify(tokenBucketService).refund("sms-bucket:phone:" + PHONE, 3);
+    }
+
+    private String awaitSentCode() throws InterruptedException {
+        for (int i = 0; i < 100 && sentTexts.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        Matcher matcher = Pattern.compile("\\[(\\d{6})]").matcher(sentTexts.get(0));
+        assertTrue(matcher.find());
+        return matcher.group(1);
+    }
+}
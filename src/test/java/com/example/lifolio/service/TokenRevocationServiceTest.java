@@ -0,0 +1,81 @@
+package com.example.lifolio.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private RedisTemplate<String, String> redisTemplate;
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+
+        tokenRevocationService = new TokenRevocationService(redisTemplate, mock(RedisMessageListenerContainer.class));
+        tokenRevocationService.init();
+    }
+
+    @Test
+    void revokedTokenIsRejectedLocally() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        tokenRevocationService.revoke("digest-a", expiresAt);
+
+        assertTrue(tokenRevocationService.isRevoked("digest-a"));
+        assertFalse(tokenRevocationService.isRevoked("digest-b"));
+        verify(redisTemplate.opsForZSet()).add(TokenRevocationService.REVOKED_KEY, "digest-a", expiresAt);
+        verify(redisTemplate).convertAndSend(TokenRevocationService.CHANNEL, "digest-a:" + expiresAt);
+    }
+
+    @Test
+    void revocationFromOtherNodeIsApplied() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        byte[] body = ("digest-c:" + expiresAt).getBytes(StandardCharsets.UTF_8);
+
+        tokenRevocationService.onMessage(new DefaultMessage(TokenRevocationService.CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+
+        assertTrue(tokenRevocationService.isRevoked("digest-c"));
+    }
+
+    @Test
+    void expiredTokenIsNotStored() {
+        tokenRevocationService.revoke("digest-d", System.currentTimeMillis() - 1);
+
+        assertFalse(tokenRevocationService.isRevoked("digest-d"));
+        verify(redisTemplate.opsForZSet(), never()).add(anyString(), anyString(), anyDouble());
+    }
+
+    @Test
+    void revocationMissedOverPubSubIsPickedUpOnPurge() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        ZSetOperations<String, String> zSetOperations = redisTemplate.opsForZSet();
+        Set<ZSetOperations.TypedTuple<String>> entries = new HashSet<>();
+        entries.add(new DefaultTypedTuple<>("digest-e", (double) expiresAt));
+        when(zSetOperations.rangeByScoreWithScores(eq(TokenRevocationService.REVOKED_KEY), anyDouble(), anyDouble())).thenReturn(entries);
+
+        assertFalse(tokenRevocationService.isRevoked("digest-e"));
+        tokenRevocationService.purgeExpired();
+
+        assertTrue(tokenRevocationService.isRevoked("digest-e"));
+    }
+}
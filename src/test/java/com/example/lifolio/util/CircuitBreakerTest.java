@@ -0,0 +1,26 @@
+package com.example.lifolio.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    void releasedTrialLetsNextRequestTryAgain() throws Exception {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 1);
+        circuitBreaker.recordFailure();
+        Thread.sleep(5);
+
+        assertTrue(circuitBreaker.allowRequest());
+        assertFalse(circuitBreaker.allowRequest());
+
+        //시험 호출이 인터럽트로 끝남
+        circuitBreaker.releaseTrial();
+
+        assertTrue(circuitBreaker.isOpen());
+        assertTrue(circuitBreaker.allowRequest());
+        circuitBreaker.recordSuccess();
+        assertFalse(circuitBreaker.isOpen());
+    }
+}
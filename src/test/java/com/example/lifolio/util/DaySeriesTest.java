@@ -0,0 +1,81 @@
+package com.example.lifolio.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DaySeriesTest {
+
+    private static int day(String date) {
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+
+    private static List<String> downsample(DaySeries series, String from, String to,
+                                           DaySeries.Granularity granularity, DaySeries.Aggregation aggregation) {
+        List<String> points = new ArrayList<>();
+        series.downsample(LocalDate.parse(from), LocalDate.parse(to), granularity, aggregation,
+                (bucketStart, value, count) -> points.add(bucketStart + "=" + value + "/" + count));
+        return points;
+    }
+
+    @Test
+    void oneSeriesAnswersEveryGranularity() {
+        DaySeries series = new DaySeries();
+        series.add(day("2022-08-01"), 3);
+        series.add(day("2022-08-03"), 5);
+        series.add(day("2022-08-20"), 2);
+        series.add(day("2023-01-02"), 4);
+
+        assertEquals(List.of("2022-08-01=5.0/2", "2022-08-15=2.0/1", "2023-01-02=4.0/1"),
+                downsample(series, "2022-01-01", "2023-12-31", DaySeries.Granularity.WEEK, DaySeries.Aggregation.MAX));
+        assertEquals(List.of("2022-08-01=3.3333333333333335/3", "2023-01-01=4.0/1"),
+                downsample(series, "2022-01-01", "2023-12-31", DaySeries.Granularity.MONTH, DaySeries.Aggregation.AVG));
+        assertEquals(List.of("2022-01-01=3.0/3", "2023-01-01=1.0/1"),
+                downsample(series, "2022-01-01", "2023-12-31", DaySeries.Granularity.YEAR, DaySeries.Aggregation.COUNT));
+    }
+
+    @Test
+    void rangeClipsPartialBuckets() {
+        DaySeries series = new DaySeries();
+        series.add(day("2022-08-01"), 3);
+        series.add(day("2022-08-03"), 5);
+
+        assertEquals(List.of("2022-08-01=5.0/1"),
+                downsample(series, "2022-08-02", "2022-08-31", DaySeries.Granularity.MONTH, DaySeries.Aggregation.MAX));
+        assertEquals(List.of(),
+                downsample(series, "2022-09-01", "2022-09-30", DaySeries.Granularity.DAY, DaySeries.Aggregation.MAX));
+    }
+
+    @Test
+    void earlierDayGrowsSeriesBackwards() {
+        DaySeries series = new DaySeries();
+        series.add(day("2022-08-10"), 3);
+        series.add(day("2022-07-01"), 4);
+        series.add(day("2022-08-10"), 1);
+
+        assertEquals(List.of("2022-07-01=4.0/1", "2022-08-10=3.0/2"),
+                downsample(series, "2022-01-01", "2022-12-31", DaySeries.Granularity.DAY, DaySeries.Aggregation.MAX));
+    }
+
+    @Test
+    void daysOutsideSupportedRangeAreIgnored() {
+        DaySeries series = new DaySeries();
+        series.add(day("2022-08-10"), 3);
+        series.add(day("0001-01-01"), 5);
+        series.add(day("9999-12-31"), 5);
+
+        assertEquals(1, series.length());
+    }
+
+    @Test
+    void unknownOptionIsRejected() {
+        assertEquals(DaySeries.Granularity.WEEK, DaySeries.Granularity.parse("week"));
+        assertNull(DaySeries.Granularity.parse("hour"));
+        assertNull(DaySeries.Aggregation.parse("sum"));
+    }
+}